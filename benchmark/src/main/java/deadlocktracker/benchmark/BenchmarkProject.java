@@ -0,0 +1,88 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import deadlocktracker.DeadlockConfig;
+import deadlocktracker.DeadlockGraphMaker;
+import deadlocktracker.DeadlockTracker;
+import deadlocktracker.containers.DeadlockLock;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.source.CSharpReader;
+import deadlocktracker.source.JavaReader;
+
+/**
+ * Loads a source project the same way the tracker does, stopping at the requested stage.
+ * The readers keep their state in static tables, so a project is loaded once per fork.
+ *
+ * @author RonanLana
+ */
+class BenchmarkProject {
+
+	final DeadlockGraphMaker graphMaker;
+	final ParseTreeListener reader;
+	final List<String> fileNames = new ArrayList<>();
+
+	BenchmarkProject(String corpus, String language, String extensions, String entryPoints) {
+		Properties prop = new Properties();
+		prop.setProperty("src_folder", corpus);
+		prop.setProperty("language", language);
+		prop.setProperty("extensions", extensions);
+		prop.setProperty("entry_points", entryPoints);
+		prop.setProperty("graph_workers", "1");
+		DeadlockConfig.loadProperties(prop);
+
+		graphMaker = DeadlockConfig.getGraphMakerFromProperty("language");
+		reader = DeadlockConfig.getSourceParserFromProperty("language");
+		if (reader instanceof CSharpReader) ((CSharpReader) reader).setSourceDirPrefixPath(corpus);
+
+		fileNames.addAll(DeadlockTracker.discoverSourceFiles(corpus));
+		if (fileNames.isEmpty()) {
+			throw new IllegalArgumentException("No source files found on '" + corpus + "'");
+		}
+	}
+
+	void readSourceFiles() {
+		for (String fName : fileNames) {
+			graphMaker.parseSourceFile(fName, reader);
+		}
+	}
+
+	DeadlockStorage compileProjectData() {
+		if (reader instanceof JavaReader) {
+			return JavaReader.compileProjectData();
+		} else if (reader instanceof CSharpReader) {
+			return CSharpReader.compileProjectData();
+		}
+
+		return null;
+	}
+
+	Map<Integer, String> getGraphLockNames() {
+		Map<Integer, String> r = new HashMap<>();
+
+		for (Entry<String, DeadlockLock> em : graphMaker.getGraphLocks().entrySet()) {
+			if (em.getValue() != null) r.put(em.getValue().getId(), em.getKey());
+		}
+
+		return r;
+	}
+
+}
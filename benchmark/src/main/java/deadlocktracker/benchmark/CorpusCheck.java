@@ -0,0 +1,90 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import deadlocktracker.DeadlockGraph;
+import deadlocktracker.DeadlockGraphCruiser;
+import deadlocktracker.containers.DeadlockEntry;
+import deadlocktracker.containers.DeadlockStorage;
+
+/**
+ * Runs the tracker over a generated corpus and checks the reported deadlocks are exactly the planted ones.
+ *
+ * Usage: CorpusCheck &lt;corpus dir&gt;
+ *
+ * @author RonanLana
+ */
+public class CorpusCheck {
+
+	private static List<String> getReportedDeadlocks(Properties prop) {
+		BenchmarkProject project = new BenchmarkProject(prop.getProperty("src_folder"), prop.getProperty("language"), prop.getProperty("extensions"), prop.getProperty("entry_points"));
+		project.readSourceFiles();
+		DeadlockStorage storage = project.compileProjectData();
+		DeadlockGraph graph = project.graphMaker.generateSourceGraph(storage);
+		Map<Integer, String> lockNames = project.getGraphLockNames();
+
+		List<String> reported = new ArrayList<>();
+		for (DeadlockEntry e : new DeadlockGraphCruiser().runSourceGraph(graph, storage, lockNames)) {
+			String lock1 = lockNames.get(e.getLockId1()), lock2 = lockNames.get(e.getLockId2());
+			reported.add(lock1.compareTo(lock2) < 0 ? lock1 + " " + lock2 : lock2 + " " + lock1);
+		}
+		Collections.sort(reported);
+
+		return reported;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: CorpusCheck <corpus dir>");
+			return;
+		}
+
+		File root = new File(args[0]);
+		Properties prop = new Properties();
+		try (FileInputStream fis = new FileInputStream(new File(root, "config.cfg"))) {
+			prop.load(fis);
+		}
+
+		List<String> expected = Files.readAllLines(new File(root, CorpusGenerator.EXPECTED_DEADLOCKS_FILE).toPath(), StandardCharsets.UTF_8);
+		List<String> reported = getReportedDeadlocks(prop);
+
+		Set<String> missing = new HashSet<>(expected), unexpected = new HashSet<>(reported);
+		missing.removeAll(reported);
+		unexpected.removeAll(expected);
+
+		for (String s : missing) {
+			System.out.println("[Warning] Planted deadlock not reported: " + s);
+		}
+		for (String s : unexpected) {
+			System.out.println("[Warning] Reported deadlock not planted: " + s);
+		}
+
+		if (!missing.isEmpty() || !unexpected.isEmpty()) {
+			System.exit(1);
+		}
+		System.out.println("All " + expected.size() + " planted deadlocks reported, no others.");
+	}
+
+}
@@ -0,0 +1,456 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Writes a synthetic lock-heavy source tree, along with its config.cfg and the list of planted deadlocks.
+ *
+ * Classes are spread over call layers, and methods only ever call into the next layer. Lock sites
+ * therefore always nest from a lower layer into a higher one, and the only lock-order cycles in the
+ * corpus are the planted ones, each a class taking its two locks in opposite orders on two
+ * functions. The cruiser only orders two locks taken hand-over-hand in the same function body,
+ * so that is how the planted locks are taken. C# lock statements always release in nesting
+ * order, thus no cycles are planted on C# corpora.
+ *
+ * The generated config.cfg is meant to be run from the output directory.
+ *
+ * Usage: CorpusGenerator &lt;output dir&gt; [--language=java|c#] [--packages=4] [--classes=8] [--methods=6]
+ * [--depth=4] [--fanout=2] [--interfaces=2] [--locks=32] [--cycles=2] [--seed=1]
+ *
+ * @author RonanLana
+ */
+public class CorpusGenerator {
+
+	public static final String EXPECTED_DEADLOCKS_FILE = "expected-deadlocks.txt";
+
+	private enum LockKind {
+		REENTRANT, READ, WRITE, SYNCHRONIZED_BLOCK, SYNCHRONIZED_METHOD
+	}
+
+	private final boolean csharp;
+	private final int packages, classes, methods, depth, fanOut, interfaces, lockSites, cycles;
+	private final Random random;
+
+	private final Map<Integer, LockKind> methodLocks = new HashMap<>();    // (unit * methods + method) -> lock site
+	private final List<String> expectedDeadlocks = new ArrayList<>();
+
+	public CorpusGenerator(Map<String, String> options) {
+		csharp = options.getOrDefault("language", "java").trim().equalsIgnoreCase("c#");
+		packages = getInt(options, "packages", 4);
+		classes = getInt(options, "classes", 8);
+		methods = getInt(options, "methods", 6);
+		depth = Math.max(getInt(options, "depth", 4), 1);
+		fanOut = getInt(options, "fanout", 2);
+		interfaces = getInt(options, "interfaces", 2);
+		lockSites = Math.min(getInt(options, "locks", 32), packages * classes * methods);
+		cycles = csharp ? 0 : getInt(options, "cycles", 2);
+		if (csharp && options.containsKey("cycles")) {
+			System.out.println("[Warning] Lock-order cycles are only planted on Java corpora");
+		}
+		random = new Random(getInt(options, "seed", 1));
+	}
+
+	private static int getInt(Map<String, String> options, String key, int defaultValue) {
+		String v = options.get(key);
+		return (v != null) ? Integer.parseInt(v.trim()) : defaultValue;
+	}
+
+	private int getUnitCount() {
+		return packages * classes;
+	}
+
+	private static int getLayer(int unit, int depth) {
+		return unit % depth;
+	}
+
+	private String getPackageName(int unit) {
+		return "corpus.p" + (unit / classes);
+	}
+
+	private String getServiceName(int unit) {
+		return (csharp ? "IService" : "Service") + unit;
+	}
+
+	private String getApiName(int level) {
+		return (csharp ? "IApi" : "Api") + level;
+	}
+
+	private List<Integer> getUnitsOnLayer(int layer) {
+		List<Integer> list = new ArrayList<>();
+		for (int u = layer; u < getUnitCount(); u += depth) {
+			list.add(u);
+		}
+
+		return list;
+	}
+
+	private void placeLockSites() {
+		List<Integer> slots = new ArrayList<>();
+		for (int i = 0; i < getUnitCount() * methods; i++) {
+			slots.add(i);
+		}
+		Collections.shuffle(slots, random);
+
+		LockKind[] kinds = LockKind.values();
+		for (int s = 0; s < lockSites; s++) {
+			LockKind k = kinds[s % kinds.length];
+			if (csharp && k != LockKind.SYNCHRONIZED_BLOCK) k = LockKind.REENTRANT;   // C# locks are taken with lock statements
+
+			methodLocks.put(slots.get(s), k);
+		}
+	}
+
+	public void generate(File root) throws IOException {
+		File src = new File(root, "src");
+		placeLockSites();
+
+		for (int p = 0; p < packages; p++) {
+			for (int i = 0; i < interfaces; i++) {
+				writeApi(src, p, i);
+			}
+		}
+
+		for (int u = 0; u < getUnitCount(); u++) {
+			writeService(src, u);
+			writeUnit(src, u);
+		}
+
+		for (int c = 0; c < cycles; c++) {
+			writeCycle(src, c);
+			expectedDeadlocks.add(getCycleLockName(c, "a") + " " + getCycleLockName(c, "b"));
+		}
+		Collections.sort(expectedDeadlocks);
+
+		writeLines(new File(root, EXPECTED_DEADLOCKS_FILE), expectedDeadlocks);
+		writeConfig(root, src);
+	}
+
+	private File getSourceFile(File src, String packageName, String className) {
+		File dir = new File(src, packageName.replace('.', File.separatorChar));
+		dir.mkdirs();
+
+		return new File(dir, className + (csharp ? ".cs" : ".java"));
+	}
+
+	private static void writeLines(File file, List<String> lines) throws IOException {
+		try (Writer w = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			for (String line : lines) {
+				w.write(line);
+				w.write('\n');
+			}
+		}
+	}
+
+	private void writeConfig(File root, File src) throws IOException {
+		List<String> lines = new ArrayList<>();
+		if (csharp) {
+			// the C# reader takes the namespace root from a "../<project>/src" styled path
+			lines.add("src_folder=../" + root.getAbsoluteFile().getName() + "/src");
+		} else {
+			lines.add("src_folder=" + src.getAbsolutePath().replace('\\', '/'));
+		}
+		lines.add("language=" + (csharp ? "C#" : "Java"));
+		lines.add("extensions=" + (csharp ? "cs" : "java"));
+		lines.add("entry_points=" + (csharp ? "Run" : "run"));
+
+		writeLines(new File(root, "config.cfg"), lines);
+	}
+
+	private List<String> openFile(String packageName, Set<String> imports) {
+		List<String> lines = new ArrayList<>();
+		if (csharp) {
+			for (String i : imports) {
+				lines.add("using " + i + ";");
+			}
+			if (!imports.isEmpty()) lines.add("");
+
+			lines.add("namespace " + packageName);
+			lines.add("{");
+		} else {
+			lines.add("package " + packageName + ";");
+			lines.add("");
+			for (String i : imports) {
+				lines.add("import " + i + ";");
+			}
+			if (!imports.isEmpty()) lines.add("");
+		}
+
+		return lines;
+	}
+
+	private void closeFile(List<String> lines) {
+		if (csharp) lines.add("}");
+	}
+
+	private String indent(int level) {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < level + (csharp ? 1 : 0); i++) {
+			s.append('\t');
+		}
+
+		return s.toString();
+	}
+
+	private void writeApi(File src, int pack, int level) throws IOException {
+		String packageName = "corpus.p" + pack, name = getApiName(level);
+		List<String> lines = openFile(packageName, Collections.<String>emptySet());
+
+		String ext = (level > 0) ? (csharp ? " : " : " extends ") + getApiName(level - 1) : "";
+		lines.add(indent(0) + "public interface " + name + ext + " {");
+		if (level == 0) lines.add(indent(1) + "int " + (csharp ? "Id" : "id") + "();");
+		lines.add(indent(0) + "}");
+		closeFile(lines);
+
+		writeLines(getSourceFile(src, packageName, name), lines);
+	}
+
+	private void writeService(File src, int unit) throws IOException {
+		String packageName = getPackageName(unit), name = getServiceName(unit);
+		List<String> lines = openFile(packageName, Collections.<String>emptySet());
+
+		String ext = (interfaces > 0) ? (csharp ? " : " : " extends ") + getApiName(interfaces - 1) : "";
+		lines.add(indent(0) + "public interface " + name + ext + " {");
+		for (int m = 0; m < methods; m++) {
+			lines.add(indent(1) + "void " + getMethodName(m) + "();");
+		}
+		lines.add(indent(0) + "}");
+		closeFile(lines);
+
+		writeLines(getSourceFile(src, packageName, name), lines);
+	}
+
+	private String getMethodName(int m) {
+		return (csharp ? "Work" : "work") + m;
+	}
+
+	private String getUnitName(int unit) {
+		return "Unit" + unit;
+	}
+
+	private void writeUnit(File src, int unit) throws IOException {
+		String packageName = getPackageName(unit), name = getUnitName(unit);
+
+		List<Integer> next = getUnitsOnLayer(getLayer(unit, depth) + 1);
+		if (getLayer(unit, depth) + 1 >= depth) next = Collections.emptyList();
+
+		// references into the next layer, every other one typed by its service interface
+		List<Integer> refs = new ArrayList<>();
+		for (int i = 0; i < fanOut && !next.isEmpty(); i++) {
+			refs.add(next.get(random.nextInt(next.size())));
+		}
+
+		Set<String> imports = new LinkedHashSet<>();
+		if (!csharp) {
+			imports.add("java.util.concurrent.locks.Lock");
+			imports.add("java.util.concurrent.locks.ReentrantLock");
+			imports.add("java.util.concurrent.locks.ReentrantReadWriteLock");
+		}
+		for (Integer r : refs) {
+			if (!getPackageName(r).equals(packageName)) {
+				if (csharp) {
+					imports.add(getPackageName(r));
+				} else {
+					imports.add(getPackageName(r) + "." + getUnitName(r));
+					imports.add(getPackageName(r) + "." + getServiceName(r));
+				}
+			}
+		}
+
+		List<String> lines = openFile(packageName, imports);
+		lines.add(indent(0) + "public class " + name + (csharp ? " : " : " implements ") + getServiceName(unit) + " {");
+
+		for (int i = 0; i < refs.size(); i++) {
+			int r = refs.get(i);
+			String type = (i % 2 == 0) ? getUnitName(r) : getServiceName(r);
+			lines.add(indent(1) + "private " + (csharp ? "readonly " : "final ") + type + " ref" + i + " = new " + getUnitName(r) + "();");
+		}
+		lines.add(indent(1) + "private int counter;");
+
+		for (int m = 0; m < methods; m++) {
+			writeLockField(lines, unit, m);
+		}
+		lines.add("");
+
+		if (interfaces > 0) {
+			lines.add(indent(1) + "public int " + (csharp ? "Id" : "id") + "() {");
+			lines.add(indent(2) + "return " + unit + ";");
+			lines.add(indent(1) + "}");
+			lines.add("");
+		}
+
+		if (getLayer(unit, depth) == 0) {
+			lines.add(indent(1) + "public void " + (csharp ? "Run" : "run") + "() {");
+			for (int m = 0; m < methods; m++) {
+				lines.add(indent(2) + getMethodName(m) + "();");
+			}
+			lines.add(indent(1) + "}");
+			lines.add("");
+		}
+
+		for (int m = 0; m < methods; m++) {
+			if (m > 0) lines.add("");
+			writeUnitMethod(lines, unit, m, refs.size());
+		}
+
+		lines.add(indent(0) + "}");
+		closeFile(lines);
+
+		writeLines(getSourceFile(src, packageName, name), lines);
+	}
+
+	private void writeLockField(List<String> lines, int unit, int m) {
+		LockKind k = methodLocks.get(unit * methods + m);
+		if (k == null) return;
+
+		String fin = csharp ? "readonly " : "final ";
+		switch (k) {
+		case REENTRANT:
+			if (csharp) {
+				lines.add(indent(1) + "private " + fin + "object sync" + m + " = new object();");
+			} else {
+				lines.add(indent(1) + "private " + fin + "ReentrantLock lock" + m + " = new ReentrantLock();");
+			}
+			break;
+
+		case READ:
+		case WRITE:
+			lines.add(indent(1) + "private " + fin + "ReentrantReadWriteLock rw" + m + " = new ReentrantReadWriteLock();");
+			lines.add(indent(1) + "private " + fin + "Lock lock" + m + " = rw" + m + "." + (k == LockKind.READ ? "readLock" : "writeLock") + "();");
+			break;
+
+		default:
+			break;
+		}
+	}
+
+	private void writeUnitMethod(List<String> lines, int unit, int m, int refCount) {
+		LockKind k = methodLocks.get(unit * methods + m);
+
+		List<String> body = new ArrayList<>();
+		body.add("counter += " + m + ";");
+		for (int i = 0; i < fanOut && refCount > 0; i++) {
+			body.add("ref" + random.nextInt(refCount) + "." + getMethodName(random.nextInt(methods)) + "();");
+		}
+
+		String modifier = (k == LockKind.SYNCHRONIZED_METHOD) ? "synchronized " : "";
+		lines.add(indent(1) + "public " + modifier + "void " + getMethodName(m) + "() {");
+
+		if (k == null || k == LockKind.SYNCHRONIZED_METHOD) {
+			for (String b : body) {
+				lines.add(indent(2) + b);
+			}
+		} else if (k == LockKind.SYNCHRONIZED_BLOCK || (csharp && k == LockKind.REENTRANT)) {
+			String monitor = (k == LockKind.SYNCHRONIZED_BLOCK) ? "this" : "sync" + m;
+			lines.add(indent(2) + (csharp ? "lock" : "synchronized") + " (" + monitor + ") {");
+			for (String b : body) {
+				lines.add(indent(3) + b);
+			}
+			lines.add(indent(2) + "}");
+		} else {
+			lines.add(indent(2) + "lock" + m + ".lock();");
+			lines.add(indent(2) + "try {");
+			for (String b : body) {
+				lines.add(indent(3) + b);
+			}
+			lines.add(indent(2) + "} finally {");
+			lines.add(indent(3) + "lock" + m + ".unlock();");
+			lines.add(indent(2) + "}");
+		}
+
+		lines.add(indent(1) + "}");
+	}
+
+	private static String getCycleLockName(int cycle, String field) {
+		return "corpus.cycles.Cycle" + cycle + "." + field;
+	}
+
+	// planted deadlock, one function takes "a" then "b" and another one, further down the call path, the opposite
+	private void writeCycle(File src, int cycle) throws IOException {
+		String packageName = "corpus.cycles", name = "Cycle" + cycle;
+
+		Set<String> imports = new LinkedHashSet<>();
+		imports.add("java.util.concurrent.locks.ReentrantLock");
+
+		List<String> lines = openFile(packageName, imports);
+		lines.add(indent(0) + "public class " + name + " {");
+		lines.add(indent(1) + "private final ReentrantLock a = new ReentrantLock();");
+		lines.add(indent(1) + "private final ReentrantLock b = new ReentrantLock();");
+		lines.add("");
+
+		lines.add(indent(1) + "public void run() {");
+		lines.add(indent(2) + "forward();");
+		lines.add(indent(2) + "relay();");
+		lines.add(indent(1) + "}");
+		lines.add("");
+
+		lines.add(indent(1) + "private void relay() {");
+		lines.add(indent(2) + "backward();");
+		lines.add(indent(1) + "}");
+		lines.add("");
+
+		writeCycleMethod(lines, "forward", "a", "b");
+		lines.add("");
+		writeCycleMethod(lines, "backward", "b", "a");
+
+		lines.add(indent(0) + "}");
+		closeFile(lines);
+
+		writeLines(getSourceFile(src, packageName, name), lines);
+	}
+
+	private void writeCycleMethod(List<String> lines, String name, String first, String second) {
+		lines.add(indent(1) + "private void " + name + "() {");
+		lines.add(indent(2) + first + ".lock();");
+		lines.add(indent(2) + second + ".lock();");
+		lines.add(indent(2) + first + ".unlock();");
+		lines.add(indent(2) + second + ".unlock();");
+		lines.add(indent(1) + "}");
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: CorpusGenerator <output dir> [--key=value ...]");
+			return;
+		}
+
+		Map<String, String> options = new HashMap<>();
+		for (int i = 1; i < args.length; i++) {
+			String a = args[i];
+			int idx = a.indexOf('=');
+			if (a.startsWith("--") && idx > 2) {
+				options.put(a.substring(2, idx).toLowerCase(), a.substring(idx + 1));
+			} else {
+				System.out.println("[Warning] Ignoring argument '" + a + "'");
+			}
+		}
+
+		File root = new File(args[0]);
+		new CorpusGenerator(options).generate(root);
+		System.out.println("Corpus written on '" + root.getAbsolutePath() + "'");
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with allocation profiling always on. Takes the usual JMH arguments,
+ * e.g. "java -jar target/benchmarks.jar Lookup -p corpus=../../MyProject/src".
+ *
+ * @author RonanLana
+ */
+public class DeadlockBenchmarks {
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+			.parent(new CommandLineOptions(args))
+			.addProfiler(GCProfiler.class)
+			.build();
+
+		new Runner(opt).run();
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import deadlocktracker.DeadlockGraph;
+import deadlocktracker.DeadlockGraphCruiser;
+import deadlocktracker.containers.DeadlockEntry;
+import deadlocktracker.containers.DeadlockStorage;
+
+/**
+ * Deadlock search redone after some functions change, compare with GraphCruiseBenchmark on the same corpus.
+ * The method graphs are submitted unchanged, so every invocation recomputes the same region over the same state.
+ *
+ * @author RonanLana
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(2)
+public class IncrementalCruiseBenchmark {
+
+	@Param    // source folder of the analysed project, set with "-p corpus=<dir>"
+	public String corpus;
+
+	@Param({"java"})
+	public String language;
+
+	@Param({"java"})
+	public String extensions;
+
+	@Param({"run,main"})
+	public String entryPoints;
+
+	@Param({"1", "10"})
+	public int changedFunctions;
+
+	private DeadlockStorage storage;
+	private DeadlockGraph graph;
+	private Map<Integer, String> lockNames;
+	private Set<Integer> changedIds;
+
+	@Setup
+	public void setup() {
+		BenchmarkProject project = new BenchmarkProject(corpus, language, extensions, entryPoints);
+		project.readSourceFiles();
+		storage = project.compileProjectData();
+		graph = project.graphMaker.generateSourceGraph(storage);
+		lockNames = project.getGraphLockNames();
+
+		new DeadlockGraphCruiser().runSourceGraph(graph, storage, lockNames);
+
+		// changed functions are spread evenly over the function ids
+		List<Integer> ids = new ArrayList<>(graph.getFunctionIds().values());
+		Collections.sort(ids);
+
+		changedIds = new HashSet<>();
+		int step = Math.max(ids.size() / changedFunctions, 1);
+		for (int i = 0; i < ids.size() && changedIds.size() < changedFunctions; i += step) {
+			changedIds.add(ids.get(i));
+		}
+	}
+
+	@Benchmark
+	public Set<DeadlockEntry> updateSourceGraph() {
+		return new DeadlockGraphCruiser().updateSourceGraph(graph, storage, changedIds, lockNames);
+	}
+
+}
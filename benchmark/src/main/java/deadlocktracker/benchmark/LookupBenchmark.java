@@ -0,0 +1,109 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import deadlocktracker.containers.DeadlockClass;
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+
+/**
+ * Lookups hit while resolving method calls, sampled over every class and method of the corpus.
+ *
+ * @author RonanLana
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LookupBenchmark {
+
+	@Param    // source folder of the analysed project, set with "-p corpus=<dir>"
+	public String corpus;
+
+	@Param({"java"})
+	public String language;
+
+	@Param({"java"})
+	public String extensions;
+
+	private final List<String> classNames = new ArrayList<>();
+	private final List<DeadlockClass> methodClasses = new ArrayList<>();
+	private final List<DeadlockFunction> methods = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		BenchmarkProject project = new BenchmarkProject(corpus, language, extensions, "");
+		project.readSourceFiles();
+		project.graphMaker.generateSourceGraph(project.compileProjectData());    // installs the type references used on heading checks
+
+		for (Entry<String, Map<String, DeadlockClass>> e : DeadlockStorage.getPublicClasses().entrySet()) {
+			if (e.getKey().isEmpty()) continue;
+
+			for (Entry<String, DeadlockClass> c : e.getValue().entrySet()) {
+				classNames.add(e.getKey() + "." + c.getKey());
+
+				for (DeadlockFunction f : c.getValue().getMethods()) {
+					methodClasses.add(c.getValue());
+					methods.add(f);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void locateClass(Blackhole bh) {
+		for (String name : classNames) {
+			bh.consume(DeadlockStorage.locateClass(name));
+		}
+	}
+
+	@Benchmark
+	public void getMethod(Blackhole bh) {
+		for (int i = 0; i < methods.size(); i++) {
+			DeadlockFunction f = methods.get(i);
+			bh.consume(methodClasses.get(i).getMethod(true, f.getName(), f.getParameters()));
+		}
+	}
+
+	@Benchmark
+	public void hasExactHeading(Blackhole bh) {
+		int n = methods.size();
+		for (int i = 0; i < n; i++) {
+			DeadlockFunction f = methods.get(i), g = methods.get((i + 1) % n);
+
+			bh.consume(f.hasExactHeading(f.getName(), f.getParameters()));
+			bh.consume(f.hasExactHeading(g.getName(), g.getParameters()));    // mostly mismatching headings
+		}
+	}
+
+}
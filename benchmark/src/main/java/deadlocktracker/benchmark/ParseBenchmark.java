@@ -0,0 +1,96 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import language.csharp.CSharpLexer;
+import language.csharp.CSharpParser;
+import language.java.JavaLexer;
+import language.java.JavaParser;
+
+/**
+ * Lexing and parsing of a whole corpus, without walking the readers over the trees.
+ *
+ * @author RonanLana
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+	@Param({"../src/main/java"})
+	public String corpus;
+
+	@Param({"java"})
+	public String language;
+
+	@Param({"java"})
+	public String extensions;
+
+	private boolean csharp;
+	private final List<String> fileNames = new ArrayList<>();
+	private final List<String> contents = new ArrayList<>();
+
+	@Setup
+	public void setup() throws IOException {
+		BenchmarkProject project = new BenchmarkProject(corpus, language, extensions, "");
+		csharp = language.trim().equalsIgnoreCase("c#");
+
+		for (String fName : project.fileNames) {
+			fileNames.add(fName);
+			contents.add(new String(Files.readAllBytes(Paths.get(fName)), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Benchmark
+	public void lexAndParse(Blackhole bh) {
+		for (int i = 0; i < contents.size(); i++) {
+			ParseTree tree;
+			if (csharp) {
+				CSharpLexer lexer = new CSharpLexer(CharStreams.fromString(contents.get(i), fileNames.get(i)));
+				tree = new CSharpParser(new CommonTokenStream(lexer)).compilation_unit();
+			} else {
+				JavaLexer lexer = new JavaLexer(CharStreams.fromString(contents.get(i), fileNames.get(i)));
+				tree = new JavaParser(new CommonTokenStream(lexer)).compilationUnit();
+			}
+
+			bh.consume(tree);
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import deadlocktracker.containers.DeadlockStorage;
+
+/**
+ * Compilation of the project data after all source files were read.
+ * Runs once per fork, since the analysis state cannot be reloaded on the same JVM.
+ *
+ * @author RonanLana
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ProjectDataBenchmark {
+
+	@Param    // source folder of the analysed project, set with "-p corpus=<dir>"
+	public String corpus;
+
+	@Param({"java"})
+	public String language;
+
+	@Param({"java"})
+	public String extensions;
+
+	@Param({"run,main"})
+	public String entryPoints;
+
+	private BenchmarkProject project;
+
+	@Setup
+	public void setup() {
+		project = new BenchmarkProject(corpus, language, extensions, entryPoints);
+		project.readSourceFiles();
+	}
+
+	@Benchmark
+	public DeadlockStorage compileProjectData() {
+		return project.compileProjectData();
+	}
+
+}
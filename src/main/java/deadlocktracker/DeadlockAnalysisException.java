@@ -0,0 +1,44 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+/**
+ * Signals a search that could not run to its end, so no result should be taken from it.
+ *
+ * @author RonanLana
+ */
+public class DeadlockAnalysisException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Reason {
+		NO_SOURCE_FILES,
+		ANALYSIS_FAILED
+	}
+
+	private final Reason reason;
+
+	public DeadlockAnalysisException(Reason reason, String message) {
+		super(message);
+		this.reason = reason;
+	}
+
+	public DeadlockAnalysisException(Reason reason, String message, Throwable cause) {
+		super(message, cause);
+		this.reason = reason;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+
+}
@@ -11,12 +11,22 @@
  */
 package deadlocktracker;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import deadlocktracker.graph.maker.CSharpGraph;
 import deadlocktracker.graph.maker.JavaGraph;
+import deadlocktracker.report.DeadlockJsonLinesWriter;
+import deadlocktracker.report.DeadlockReportWriter;
+import deadlocktracker.report.DeadlockSarifWriter;
 import deadlocktracker.source.CSharpReader;
 import deadlocktracker.source.JavaReader;
 
@@ -83,17 +93,27 @@ public class DeadlockConfig {
 	private static List<String> extensions;
 
 	public static String getProperty(String key) {
+		if (prop == null) return null;    // no config loaded, e.g. on the parser warm-up run
 		return prop.getProperty(key);
 	}
 
+	public static Properties getProperties() {
+		return prop;
+	}
+
 	public static void loadProperties(Properties properties) {
 		prop = properties;
 		loadAssociatedFileExtensions();
+		DeadlockParserFactory.resetStateLimit();
 	}
 
 	public static void loadAssociatedFileExtensions() {
 		extensions = new ArrayList<>();
-		for (String sp : getProperty("extensions").split(",")) {
+
+		String exts = getProperty("extensions");
+		if (exts == null) return;
+
+		for (String sp : exts.split(",")) {
 			sp = sp.trim();
 			if (!sp.isEmpty()) {
 				extensions.add("." + sp);    			
@@ -102,18 +122,146 @@ public class DeadlockConfig {
 	}
 
 	public static DeadlockGraphMaker getGraphMakerFromProperty(String key) {
+		String name = getProperty(key);
+		if (name == null) {
+			System.out.println("[Warning] Property '" + key + "' not set on config");
+			return null;
+		}
+
+		Class<? extends DeadlockGraphMaker> graphClass = Language.getGraphMakerByName(name);
+		if (graphClass == null) {
+			System.out.println("[Warning] Unsupported language '" + name + "'");
+			return null;
+		}
+
 		try {
-			return Language.getGraphMakerByName(getProperty(key)).newInstance();
-		} catch (IllegalAccessException | InstantiationException | NullPointerException e) {
+			return graphClass.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
 			e.printStackTrace();
 			return null;
 		}
 	}
 
 	public static ParseTreeListener getSourceParserFromProperty(String key) {
+		String name = getProperty(key);
+		if (name == null) return null;
+
+		return Language.getParserByName(name);
+	}
+
+	public static int getGraphWorkers() {
+		String workers = getProperty("graph_workers");
+		if (workers == null) return Runtime.getRuntime().availableProcessors();
+
+		try {
+			return Math.max(Integer.parseInt(workers.trim()), 1);
+		} catch (NumberFormatException e) {
+			System.out.println("[Warning] Invalid value '" + workers + "' on property 'graph_workers'");
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	public static int getDfaStateLimit() {
+		String limit = getProperty("dfa_state_limit");
+		if (limit == null) return 0;     // no limit
+
+		try {
+			return Math.max(Integer.parseInt(limit.trim()), 0);
+		} catch (NumberFormatException e) {
+			System.out.println("[Warning] Invalid value '" + limit + "' on property 'dfa_state_limit'");
+			return 0;
+		}
+	}
+
+	public static int getWatchCachedTrees() {
+		String trees = getProperty("watch_cached_trees");
+		if (trees == null) return 500;
+
+		try {
+			return Math.max(Integer.parseInt(trees.trim()), 0);
+		} catch (NumberFormatException e) {
+			System.out.println("[Warning] Invalid value '" + trees + "' on property 'watch_cached_trees'");
+			return 500;
+		}
+	}
+
+	public static boolean isLazyGraph() {
+		if (isShardWorker()) return true;    // a worker only resolves the methods reachable from its own entry points
+		if (getProperty("lock_summary_file") != null) return false;    // summaries are written for every method
+
+		String lazy = getProperty("lazy_graph");
+		return lazy != null && Boolean.parseBoolean(lazy.trim());
+	}
+
+	public static Set<String> getConditionalSymbols() {
+		String defines = getProperty("csharp_defines");
+		if (defines == null) return null;    // every conditional region is parsed
+
+		Set<String> symbols = new HashSet<>();
+		for (String sp : defines.split("[,;]")) {
+			sp = sp.trim();
+			if (!sp.isEmpty()) {
+				symbols.add(sp);
+			}
+		}
+
+		return symbols;
+	}
+
+	public static int getShardCount() {
+		String shards = getProperty("shards");
+		if (shards == null) return 1;
+
 		try {
-			return Language.getParserByName(getProperty(key));
-		} catch (NullPointerException e) {
+			return Math.max(Integer.parseInt(shards.trim()), 1);
+		} catch (NumberFormatException e) {
+			System.out.println("[Warning] Invalid value '" + shards + "' on property 'shards'");
+			return 1;
+		}
+	}
+
+	public static void setShard(int index, int count) {
+		prop.setProperty("shard_index", String.valueOf(index));
+		prop.setProperty("shards", String.valueOf(count));
+	}
+
+	public static boolean isShardWorker() {
+		return getProperty("shard_index") != null;
+	}
+
+	public static boolean isShardRoot(String functionName) {
+		// entry points are split by name, so every worker assigns them the same way
+		String index = getProperty("shard_index");
+		if (index == null) return true;
+
+		return Math.floorMod(functionName.hashCode(), getShardCount()) == Integer.parseInt(index);
+	}
+
+	public static DeadlockReportWriter getReportWriterFromProperty(String formatKey, String fileKey) {
+		String format = getProperty(formatKey);
+		if (format == null) return null;
+
+		String fileName = getProperty(fileKey);
+		if (fileName == null) {
+			System.out.println("[Warning] Property '" + fileKey + "' not set on config");
+			return null;
+		}
+
+		try {
+			Writer w = new OutputStreamWriter(new FileOutputStream(fileName.trim()), StandardCharsets.UTF_8);
+			switch (format.trim().toLowerCase()) {
+			case "jsonl":
+				return new DeadlockJsonLinesWriter(w);
+
+			case "sarif":
+				return new DeadlockSarifWriter(w);
+
+			default:
+				w.close();
+				System.out.println("[Warning] Unsupported report format '" + format + "'");
+				return null;
+			}
+		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
 		}
@@ -0,0 +1,551 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.RuntimeMetaData;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.ATNConfig;
+import org.antlr.v4.runtime.atn.ATNConfigSet;
+import org.antlr.v4.runtime.atn.ATNSimulator;
+import org.antlr.v4.runtime.atn.ArrayPredictionContext;
+import org.antlr.v4.runtime.atn.PredictionContext;
+import org.antlr.v4.runtime.atn.SemanticContext;
+import org.antlr.v4.runtime.atn.SingletonPredictionContext;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.dfa.DFAState;
+
+import deadlocktracker.DeadlockMetrics.Phase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prediction DFAs learned by the source parser, saved after a run and loaded on the next one, so that
+ * parsing starts at steady-state speed. A cache is only loaded on the grammar and runtime that wrote it.
+ *
+ * @author RonanLana
+ */
+public class DeadlockDfaCache {
+
+	private static final String HEADER = "DeadlockTracker DFA cache";
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int NO_STATE = -1;
+	private static final int ERROR_STATE = -2;
+
+	private static final int SEMANTIC_NONE = 0;
+	private static final int SEMANTIC_PREDICATE = 1;
+	private static final int SEMANTIC_PRECEDENCE = 2;
+	private static final int SEMANTIC_AND = 3;
+	private static final int SEMANTIC_OR = 4;
+
+	private static int loadedStates = 0;
+
+	private static final Field conflictingAltsField = getConflictingAltsField();     // no accessor on the runtime
+
+	private static Field getConflictingAltsField() {
+		try {
+			Field f = ATNConfigSet.class.getDeclaredField("conflictingAlts");
+			f.setAccessible(true);
+			return f;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static BitSet getConflictingAlts(ATNConfigSet configs) throws IOException {
+		try {
+			return (BitSet) conflictingAltsField.get(configs);
+		} catch (IllegalAccessException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static void setConflictingAlts(ATNConfigSet configs, BitSet alts) throws IOException {
+		try {
+			conflictingAltsField.set(configs, alts);
+		} catch (IllegalAccessException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static long getGrammarChecksum(Parser parser) {
+		CRC32 crc = new CRC32();
+		crc.update(parser.getSerializedATN().getBytes(StandardCharsets.UTF_8));
+		return crc.getValue();
+	}
+
+	private static boolean isEmptyDfa(DFA dfa) {
+		if (!dfa.states.isEmpty()) return false;
+		return dfa.isPrecedenceDfa() ? dfa.s0.edges.length == 0 : dfa.s0 == null;
+	}
+
+	private static class FastGZIPOutputStream extends GZIPOutputStream {
+
+		private FastGZIPOutputStream(OutputStream out) throws IOException {
+			super(out, 1 << 16);
+			def.setLevel(Deflater.BEST_SPEED);
+		}
+
+	}
+
+	// writing: prediction contexts and semantic contexts are pooled, parents and operands coming first
+
+	private static void poolContext(PredictionContext ctx, Map<PredictionContext, Integer> pool, List<PredictionContext> order) {
+		if (pool.containsKey(ctx)) return;
+
+		for (int i = 0; i < ctx.size(); i++) {
+			PredictionContext parent = ctx.getParent(i);
+			if (parent != null) poolContext(parent, pool, order);
+		}
+
+		pool.put(ctx, order.size());
+		order.add(ctx);
+	}
+
+	private static void poolSemanticContext(SemanticContext sem, Map<SemanticContext, Integer> pool, List<SemanticContext> order) {
+		if (pool.containsKey(sem)) return;
+
+		SemanticContext[] opnds = null;
+		if (sem instanceof SemanticContext.AND) {
+			opnds = ((SemanticContext.AND) sem).opnds;
+		} else if (sem instanceof SemanticContext.OR) {
+			opnds = ((SemanticContext.OR) sem).opnds;
+		}
+
+		if (opnds != null) {
+			for (SemanticContext s : opnds) {
+				poolSemanticContext(s, pool, order);
+			}
+		}
+
+		pool.put(sem, order.size());
+		order.add(sem);
+	}
+
+	private static void writeContext(DataOutputStream out, PredictionContext ctx, Map<PredictionContext, Integer> pool) throws IOException {
+		out.writeBoolean(ctx instanceof ArrayPredictionContext);
+		out.writeInt(ctx.size());
+		for (int i = 0; i < ctx.size(); i++) {
+			PredictionContext parent = ctx.getParent(i);
+			out.writeInt((parent != null) ? pool.get(parent) : NO_STATE);
+			out.writeInt(ctx.getReturnState(i));
+		}
+	}
+
+	private static void writeSemanticContext(DataOutputStream out, SemanticContext sem, Map<SemanticContext, Integer> pool) throws IOException {
+		SemanticContext[] opnds;
+		if (SemanticContext.NONE.equals(sem)) {
+			out.writeByte(SEMANTIC_NONE);
+			return;
+		} else if (sem instanceof SemanticContext.Predicate) {
+			SemanticContext.Predicate p = (SemanticContext.Predicate) sem;
+			out.writeByte(SEMANTIC_PREDICATE);
+			out.writeInt(p.ruleIndex);
+			out.writeInt(p.predIndex);
+			out.writeBoolean(p.isCtxDependent);
+			return;
+		} else if (sem instanceof SemanticContext.PrecedencePredicate) {
+			out.writeByte(SEMANTIC_PRECEDENCE);
+			out.writeInt(((SemanticContext.PrecedencePredicate) sem).precedence);
+			return;
+		} else if (sem instanceof SemanticContext.AND) {
+			out.writeByte(SEMANTIC_AND);
+			opnds = ((SemanticContext.AND) sem).opnds;
+		} else {
+			out.writeByte(SEMANTIC_OR);
+			opnds = ((SemanticContext.OR) sem).opnds;
+		}
+
+		out.writeInt(opnds.length);
+		for (SemanticContext s : opnds) {
+			out.writeInt(pool.get(s));
+		}
+	}
+
+	private static void writeBitSet(DataOutputStream out, BitSet bits) throws IOException {
+		if (bits == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		long[] words = bits.toLongArray();
+		out.writeInt(words.length);
+		for (long w : words) {
+			out.writeLong(w);
+		}
+	}
+
+	private static void writeEdges(DataOutputStream out, DFAState[] edges, Map<DFAState, Integer> states) throws IOException {
+		if (edges == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(edges.length);
+		for (DFAState t : edges) {
+			if (t == null) {
+				out.writeInt(NO_STATE);
+			} else if (t == ATNSimulator.ERROR) {
+				out.writeInt(ERROR_STATE);
+			} else {
+				out.writeInt(states.get(t));
+			}
+		}
+	}
+
+	private static void writeState(DataOutputStream out, DFAState d, Map<PredictionContext, Integer> contexts, Map<SemanticContext, Integer> sems) throws IOException {
+		ATNConfigSet configs = d.configs;
+		out.writeBoolean(configs.fullCtx);
+		out.writeInt(configs.uniqueAlt);
+		writeBitSet(out, getConflictingAlts(configs));
+		out.writeBoolean(configs.hasSemanticContext);
+		out.writeBoolean(configs.dipsIntoOuterContext);
+
+		out.writeInt(configs.size());
+		for (ATNConfig c : configs) {
+			out.writeInt(c.state.stateNumber);
+			out.writeInt(c.alt);
+			out.writeInt(contexts.get(c.context));
+			out.writeInt(sems.get(c.semanticContext));
+			out.writeInt(c.reachesIntoOuterContext);
+		}
+
+		out.writeBoolean(d.isAcceptState);
+		out.writeInt(d.prediction);
+		out.writeBoolean(d.requiresFullContext);
+		if (d.predicates == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(d.predicates.length);
+			for (DFAState.PredPrediction p : d.predicates) {
+				out.writeInt(sems.get(p.pred));
+				out.writeInt(p.alt);
+			}
+		}
+	}
+
+	private static void writeDfaCacheFile(DataOutputStream out, Parser parser) throws IOException {
+		out.writeUTF(HEADER);
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(parser.getGrammarFileName());
+		out.writeUTF(RuntimeMetaData.VERSION);
+		out.writeLong(getGrammarChecksum(parser));
+
+		List<DFA> dfas = new ArrayList<>();
+		Map<PredictionContext, Integer> contexts = new HashMap<>();
+		List<PredictionContext> contextOrder = new ArrayList<>();
+		Map<SemanticContext, Integer> sems = new HashMap<>();
+		List<SemanticContext> semOrder = new ArrayList<>();
+
+		for (DFA dfa : parser.getInterpreter().decisionToDFA) {
+			if (isEmptyDfa(dfa)) continue;
+			dfas.add(dfa);
+
+			for (DFAState d : dfa.getStates()) {
+				for (ATNConfig c : d.configs) {
+					poolContext(c.context, contexts, contextOrder);
+					poolSemanticContext(c.semanticContext, sems, semOrder);
+				}
+
+				if (d.predicates != null) {
+					for (DFAState.PredPrediction p : d.predicates) {
+						poolSemanticContext(p.pred, sems, semOrder);
+					}
+				}
+			}
+		}
+
+		out.writeInt(contextOrder.size());
+		for (PredictionContext ctx : contextOrder) {
+			writeContext(out, ctx, contexts);
+		}
+
+		out.writeInt(semOrder.size());
+		for (SemanticContext sem : semOrder) {
+			writeSemanticContext(out, sem, sems);
+		}
+
+		out.writeInt(dfas.size());
+		for (DFA dfa : dfas) {
+			List<DFAState> stateList = dfa.getStates();     // sorted by state number
+			Map<DFAState, Integer> states = new HashMap<>();
+			for (DFAState d : stateList) {
+				states.put(d, states.size());
+			}
+
+			out.writeInt(dfa.decision);
+			out.writeInt(stateList.size());
+			for (DFAState d : stateList) {
+				writeState(out, d, contexts, sems);
+			}
+			for (DFAState d : stateList) {
+				writeEdges(out, d.edges, states);
+			}
+
+			if (dfa.isPrecedenceDfa()) {
+				writeEdges(out, dfa.s0.edges, states);
+			} else {
+				out.writeInt((dfa.s0 != null) ? states.get(dfa.s0) : NO_STATE);
+			}
+		}
+	}
+
+	// reading
+
+	private static PredictionContext readContext(DataInputStream in, List<PredictionContext> pool) throws IOException {
+		boolean array = in.readBoolean();
+		int n = in.readInt();
+
+		PredictionContext[] parents = new PredictionContext[n];
+		int[] returnStates = new int[n];
+		for (int i = 0; i < n; i++) {
+			int p = in.readInt();
+			parents[i] = (p != NO_STATE) ? pool.get(p) : null;
+			returnStates[i] = in.readInt();
+		}
+
+		if (array) return new ArrayPredictionContext(parents, returnStates);
+		return SingletonPredictionContext.create(parents[0], returnStates[0]);     // the empty context comes back as its own instance
+	}
+
+	private static SemanticContext readSemanticContext(DataInputStream in, List<SemanticContext> pool) throws IOException {
+		int type = in.readByte();
+		switch (type) {
+		case SEMANTIC_NONE:
+			return SemanticContext.NONE;
+
+		case SEMANTIC_PREDICATE:
+			return new SemanticContext.Predicate(in.readInt(), in.readInt(), in.readBoolean());
+
+		case SEMANTIC_PRECEDENCE:
+			return new SemanticContext.PrecedencePredicate(in.readInt());
+
+		case SEMANTIC_AND:
+		case SEMANTIC_OR:
+			int n = in.readInt();
+			SemanticContext sem = pool.get(in.readInt());
+			for (int i = 1; i < n; i++) {
+				SemanticContext s = pool.get(in.readInt());
+				sem = (type == SEMANTIC_AND) ? new SemanticContext.AND(sem, s) : new SemanticContext.OR(sem, s);
+			}
+			return sem;
+
+		default:
+			throw new IOException("Unknown semantic context type " + type);
+		}
+	}
+
+	private static BitSet readBitSet(DataInputStream in) throws IOException {
+		int n = in.readInt();
+		if (n < 0) return null;
+
+		long[] words = new long[n];
+		for (int i = 0; i < n; i++) {
+			words[i] = in.readLong();
+		}
+
+		return BitSet.valueOf(words);
+	}
+
+	private static DFAState[] readEdges(DataInputStream in, List<DFAState> states) throws IOException {
+		int n = in.readInt();
+		if (n < 0) return null;
+
+		DFAState[] edges = new DFAState[n];
+		for (int i = 0; i < n; i++) {
+			int t = in.readInt();
+			if (t == ERROR_STATE) {
+				edges[i] = ATNSimulator.ERROR;
+			} else if (t != NO_STATE) {
+				edges[i] = states.get(t);
+			}
+		}
+
+		return edges;
+	}
+
+	private static DFAState readState(DataInputStream in, ATN atn, List<PredictionContext> contexts, List<SemanticContext> sems) throws IOException {
+		ATNConfigSet configs = new ATNConfigSet(in.readBoolean());
+		int uniqueAlt = in.readInt();
+		BitSet conflictingAlts = readBitSet(in);
+		boolean hasSemanticContext = in.readBoolean();
+		boolean dipsIntoOuterContext = in.readBoolean();
+
+		int n = in.readInt();
+		for (int i = 0; i < n; i++) {
+			ATNConfig c = new ATNConfig(atn.states.get(in.readInt()), in.readInt(), contexts.get(in.readInt()), sems.get(in.readInt()));
+			c.reachesIntoOuterContext = in.readInt();
+			configs.add(c);
+		}
+
+		configs.uniqueAlt = uniqueAlt;
+		setConflictingAlts(configs, conflictingAlts);
+		configs.hasSemanticContext = hasSemanticContext;
+		configs.dipsIntoOuterContext = dipsIntoOuterContext;
+		configs.setReadonly(true);
+
+		DFAState d = new DFAState(configs);
+		d.isAcceptState = in.readBoolean();
+		d.prediction = in.readInt();
+		d.requiresFullContext = in.readBoolean();
+
+		int p = in.readInt();
+		if (p >= 0) {
+			d.predicates = new DFAState.PredPrediction[p];
+			for (int i = 0; i < p; i++) {
+				d.predicates[i] = new DFAState.PredPrediction(sems.get(in.readInt()), in.readInt());
+			}
+		}
+
+		return d;
+	}
+
+	private static int readDfaCacheFile(DataInputStream in, Parser parser, String fileName) throws IOException {
+		if (!in.readUTF().contentEquals(HEADER) || in.readInt() != FORMAT_VERSION) {
+			System.out.println("[Warning] '" + fileName + "' is not a DFA cache file, skipped");
+			return 0;
+		}
+
+		String grammar = in.readUTF();
+		String runtime = in.readUTF();
+		long checksum = in.readLong();
+		if (!grammar.contentEquals(parser.getGrammarFileName()) || !runtime.contentEquals(RuntimeMetaData.VERSION) || checksum != getGrammarChecksum(parser)) {
+			System.out.println("[Warning] DFA cache '" + fileName + "' was written for another grammar version, skipped");
+			return 0;
+		}
+
+		ATN atn = parser.getATN();
+
+		List<PredictionContext> contexts = new ArrayList<>();
+		for (int i = in.readInt(); i > 0; i--) {
+			contexts.add(readContext(in, contexts));
+		}
+
+		List<SemanticContext> sems = new ArrayList<>();
+		for (int i = in.readInt(); i > 0; i--) {
+			sems.add(readSemanticContext(in, sems));
+		}
+
+		int count = 0;
+		DFA[] decisionToDFA = parser.getInterpreter().decisionToDFA;
+		for (int k = in.readInt(); k > 0; k--) {
+			DFA dfa = decisionToDFA[in.readInt()];
+
+			List<DFAState> states = new ArrayList<>();
+			for (int i = in.readInt(); i > 0; i--) {
+				DFAState d = readState(in, atn, contexts, sems);
+				d.stateNumber = states.size();
+				states.add(d);
+			}
+			for (DFAState d : states) {
+				d.edges = readEdges(in, states);
+			}
+
+			DFAState[] precedenceEdges = null;
+			int s0 = NO_STATE;
+			if (dfa.isPrecedenceDfa()) {
+				precedenceEdges = readEdges(in, states);
+			} else {
+				s0 = in.readInt();
+			}
+
+			synchronized (dfa.states) {
+				if (!isEmptyDfa(dfa)) continue;     // already learning on this run
+
+				for (DFAState d : states) {
+					dfa.states.put(d, d);
+				}
+
+				if (precedenceEdges != null) {
+					for (int i = 0; i < precedenceEdges.length; i++) {
+						if (precedenceEdges[i] != null) dfa.setPrecedenceStartState(i, precedenceEdges[i]);
+					}
+				} else if (s0 != NO_STATE) {
+					dfa.s0 = states.get(s0);
+				}
+			}
+
+			count += states.size();
+		}
+
+		return count;
+	}
+
+	static void loadDfaCache(DeadlockGraphMaker g) {
+		String fileName = DeadlockConfig.getProperty("dfa_cache_file");
+		if (fileName == null) return;
+
+		File file = new File(fileName.trim());
+		if (!file.isFile()) return;     // written at the end of this run
+
+		long t = DeadlockMetrics.startTimer();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			Parser parser = DeadlockParserFactory.createIdleParser(g);
+			int count = readDfaCacheFile(in, parser, file.getPath());
+			if (count > 0) System.out.println("Loaded " + count + " parser DFA states from '" + file.getPath() + "'");
+
+			loadedStates = DeadlockParserFactory.countDfaStates(parser);
+		} catch (EOFException e) {
+			System.out.println("[Warning] DFA cache '" + file.getPath() + "' ended early, the decisions left out are learned again");
+		} catch (IOException | RuntimeException e) {
+			System.out.println("[Warning] Could not read DFA cache '" + file.getPath() + "': " + e);
+		}
+		DeadlockMetrics.stopTimer(Phase.DFA_CACHE, t);
+	}
+
+	static void saveDfaCache(DeadlockGraphMaker g) {
+		String fileName = DeadlockConfig.getProperty("dfa_cache_file");
+		if (fileName == null) return;
+
+		Parser parser = DeadlockParserFactory.createIdleParser(g);
+		if (DeadlockParserFactory.countDfaStates(parser) == loadedStates) return;     // nothing learned since the cache was loaded
+
+		long t = DeadlockMetrics.startTimer();
+		File file = new File(fileName.trim());
+		File tmp = new File(file.getPath() + ".tmp");     // replaced at once, a concurrent run never reads it half written
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FastGZIPOutputStream(new FileOutputStream(tmp))))) {
+				writeDfaCacheFile(out, parser);
+			}
+
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			e.printStackTrace();
+			tmp.delete();
+		}
+		DeadlockMetrics.stopTimer(Phase.DFA_CACHE, t);
+	}
+
+}
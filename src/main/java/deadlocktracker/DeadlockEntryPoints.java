@@ -0,0 +1,134 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import deadlocktracker.containers.DeadlockClass;
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.Pair;
+import deadlocktracker.strings.InternedNames;
+
+/**
+ * Entry points of the "entry_points" property, compiled for lookup by interned method and class name ids.
+ * Names holding '*' (any run of characters) or '?' (any single character) are compiled as patterns.
+ *
+ * @author RonanLana
+ */
+public class DeadlockEntryPoints {
+
+	private static final Pattern entryPattern = Pattern.compile("([\\w.*?$]*)(\\[([\\w.*?$]*)\\])?");
+
+	private final String entries;
+
+	private final Set<Integer> methods = new HashSet<>();      // method name ids, on any class
+	private final Set<Integer> classes = new HashSet<>();      // class canon name ids, any of their methods
+	private final Map<Integer, Set<Integer>> classMethods = new HashMap<>();    // class canon name id -> method name ids
+
+	private final List<Pair<Pattern, Pattern>> patterns = new LinkedList<>();  // method and class patterns, null matching any
+	private final Map<Long, Boolean> patternMatches = new ConcurrentHashMap<>();   // (method name id, class canon name id) -> match
+
+	private DeadlockEntryPoints(String entries) {
+		this.entries = entries;
+	}
+
+	public static DeadlockEntryPoints compile(String entries) {
+		DeadlockEntryPoints ep = new DeadlockEntryPoints(entries);
+		if (entries == null) return ep;
+
+		Matcher m = entryPattern.matcher(entries);
+		while (m.find()) {
+			String method = m.group(1);
+			String className = m.group(2) != null ? m.group(3) : "";
+			if (method.isEmpty() && className.isEmpty()) continue;
+
+			if (isPattern(method) || isPattern(className)) {
+				ep.patterns.add(new Pair<>(compilePattern(method), compilePattern(className)));
+			} else if (className.isEmpty()) {
+				ep.methods.add(InternedNames.getId(method));
+			} else if (method.isEmpty()) {
+				ep.classes.add(InternedNames.getId(className));
+			} else {
+				ep.classMethods.computeIfAbsent(InternedNames.getId(className), k -> new HashSet<>()).add(InternedNames.getId(method));
+			}
+		}
+
+		return ep;
+	}
+
+	private static boolean isPattern(String name) {
+		return name.indexOf('*') > -1 || name.indexOf('?') > -1;
+	}
+
+	private static Pattern compilePattern(String name) {
+		if (name.isEmpty()) return null;
+
+		StringBuilder sb = new StringBuilder();
+		int start = 0;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '*' || c == '?') {
+				if (i > start) sb.append(Pattern.quote(name.substring(start, i)));
+				sb.append(c == '*' ? ".*" : ".");
+				start = i + 1;
+			}
+		}
+		if (start < name.length()) sb.append(Pattern.quote(name.substring(start)));
+
+		return Pattern.compile(sb.toString());
+	}
+
+	public boolean isCompiledFrom(String entries) {
+		return this.entries == null ? entries == null : this.entries.equals(entries);
+	}
+
+	public boolean matches(DeadlockFunction f) {
+		int fId = InternedNames.lookupId(f.getName());
+		int cId = f.getSourceClass().getCanonId();
+
+		if (methods.contains(fId) || classes.contains(cId)) return true;
+
+		Set<Integer> m = classMethods.get(cId);
+		if (m != null && m.contains(fId)) return true;
+
+		if (patterns.isEmpty()) return false;
+
+		// a pattern is matched once per method name and class, as overloads and overriding classes repeat them
+		long key = InternedNames.getPairKey(InternedNames.getId(f.getName()), cId);
+		Boolean match = patternMatches.get(key);
+		if (match == null) {
+			match = matchesPattern(f.getName(), f.getSourceClass());
+			patternMatches.put(key, match);
+		}
+
+		return match;
+	}
+
+	private boolean matchesPattern(String methodName, DeadlockClass sourceClass) {
+		for (Pair<Pattern, Pattern> p : patterns) {
+			if ((p.left == null || p.left.matcher(methodName).matches())
+					&& (p.right == null || p.right.matcher(sourceClass.getCanonName()).matches())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -23,8 +24,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+
+import deadlocktracker.DeadlockMetrics.Cardinality;
+import deadlocktracker.DeadlockMetrics.Phase;
 import deadlocktracker.containers.DeadlockEntry;
 import deadlocktracker.containers.DeadlockFunction;
 import deadlocktracker.containers.DeadlockStorage;
@@ -32,6 +34,8 @@ import deadlocktracker.containers.Pair;
 import deadlocktracker.graph.DeadlockGraphEntry;
 import deadlocktracker.graph.DeadlockGraphMethod;
 import deadlocktracker.graph.DeadlockGraphNode;
+import deadlocktracker.graph.DeadlockGraphNodeType;
+import deadlocktracker.strings.InternedNames;
 
 /**
  *
@@ -54,21 +58,19 @@ public class DeadlockGraphCruiser {
 	private class FunctionLockElement {
 
 		Integer lockId;
-		DeadlockFunction function;
 		Integer count;
 
-		private FunctionLockElement(Integer lockId, DeadlockFunction function) {
+		private FunctionLockElement(Integer lockId, Integer count) {
 			this.lockId = lockId;
-			this.function = function;
-			this.count = 1;
+			this.count = count;
 		}
 
-		protected void increment() {
-			this.count += 1;
+		protected void add(int count) {
+			this.count += count;
 		}
 
-		protected boolean decrementAndZero() {
-			this.count -= 1;
+		protected boolean subtractAndZero(int count) {
+			this.count -= count;
 			return this.count <= 0;
 		}
 
@@ -84,37 +86,31 @@ public class DeadlockGraphCruiser {
 	static Map<Integer, Set<DeadlockFunction>> lockFunctions = new HashMap<>();
 
 	static Map<Integer, DeadlockFunction> functions = new HashMap<>();
+	static Set<DeadlockFunction> lockReachingFunctions = new HashSet<>();
+	static Map<DeadlockFunction, DeadlockFunction> functionCallers = new HashMap<>();    // first caller found, witness of a call path
 	static Map<Integer, Map<Integer, FunctionLockElement>> lockDependencies = new HashMap<>();
 
-	private static Pattern p = Pattern.compile("([\\w\\d_\\.]*)(\\[([\\w\\d_\\.]*)\\])?");
-	private static List<Pair<String, String>> startingMethods = startingMethods(DeadlockConfig.getProperty("entry_points"));
-
-	private static List<Pair<String, String>> startingMethods(String methodSeq) {
-		List<Pair<String, String>> list = new LinkedList<>();
-		Matcher m = p.matcher(methodSeq);
-		while (m.find()) {
-			if (m.groupCount() >= 3 && m.group(2) != null) {
-				list.add(new Pair<>(m.group(1), m.group(3)));
-			} else if (!m.group(1).isEmpty()) {
-				list.add(new Pair<>(m.group(1), null));
-			}
-		}
+	static Map<DeadlockFunction, Set<DeadlockFunction>> functionCallees = new HashMap<>();
+	static Map<DeadlockFunction, Set<DeadlockFunction>> calleeCallers = new HashMap<>();     // reverse call index
+	static Map<DeadlockFunction, DeadlockFunction> functionComponents = new HashMap<>();   // cruising component, named by one of its functions
 
-		return list;
-	}
+	static Map<Set<Integer>, Integer> milestoneGroups = new HashMap<>();     // functions counted by their milestones
+	static Map<DeadlockFunction, Map<Long, Integer>> functionContributions = new HashMap<>();    // lock-order edges counted from each function
 
-	private static boolean isStartingFunction(DeadlockFunction f) {
-		String fName = f.getName();
-		String cName = DeadlockStorage.getCanonClassName(f.getSourceClass());
+	private static DeadlockEntryPoints entryPoints;
 
-		for (Pair<String, String> p : startingMethods) {
-			if ((fName.contentEquals(p.left) || p.left.isEmpty())
-					&& (p.right == null || cName.contentEquals(p.right))) {
-				return true;
-			}
+	static boolean isStartingFunction(DeadlockFunction f) {
+		String entries = DeadlockConfig.getProperty("entry_points");
+		if (entryPoints == null || !entryPoints.isCompiledFrom(entries)) {
+			entryPoints = DeadlockEntryPoints.compile(entries);   // compiled once per configuration
 		}
 
-		return false;
+		return entryPoints.matches(f);
+	}
+
+	static boolean isRootFunction(DeadlockFunction f, Set<DeadlockFunction> runMethods) {
+		return (isStartingFunction(f) || runMethods.contains(f))
+				&& (!DeadlockConfig.isShardWorker() || DeadlockConfig.isShardRoot(DeadlockStorage.getCanonClassName(f.getSourceClass()) + "." + f.getName()));
 	}
 
 	private static void commitFunctionAcquiredLocks(DeadlockFunction f, FunctionPathNode trace, FunctionPathNode uptrace) {
@@ -151,6 +147,28 @@ public class DeadlockGraphCruiser {
 		uptrace.seqLocks = trace.seqLocks.subList(0, Math.min(uptrace.seqLocks.size(), trace.seqLocks.size()));
 	}
 
+	private static List<Integer> getHeldLocks(List<Integer> seqLocks) {
+		List<Integer> list = new ArrayList<>(seqLocks.size());
+		for (Integer i : seqLocks) {
+			if (i > 0) {
+				list.add(i);
+			}
+		}
+
+		return list;
+	}
+
+	private static void skipLockFreeFunction(DeadlockFunction f, FunctionPathNode uptrace) {
+		// a lock-free callee leaves no locks of its own, only its effect on the caller's trace is reproduced
+		Set<Integer> s = functionMilestones.get(f);
+		int size = s.size();
+		s.addAll(uptrace.acquiredLocks);
+
+		if (s.size() > size || s.size() == 0) {
+			uptrace.seqAcqLocks = getHeldLocks(uptrace.seqLocks);
+		}
+	}
+
 	private static void sourceGraphFunctionLock(int lockId, FunctionPathNode ongoingLocks) {
 		ongoingLocks.seqLocks.add(lockId);
 		ongoingLocks.seqAcqLocks.add(lockId);
@@ -168,15 +186,16 @@ public class DeadlockGraphCruiser {
 
 	private static void sourceGraphFunctionScript(FunctionPathNode ongoingLocks) {
 		if (!ongoingLocks.acquiredLocks.isEmpty()) {
-			String s = "";
+			StringBuilder s = new StringBuilder();
 
 			ListIterator<DeadlockFunction> i = functionStack.listIterator();
 			while (i.hasNext()) {
 				DeadlockFunction f = i.next();
-				s += f.getName() + ",";
+				s.append(f.getName()).append(',');
 			}
+			s.setLength(s.length() - 1);
 
-			System.out.println("[WARNING] " + s.substring(0, s.length() - 1) + " has acquired lock count: "
+			System.out.println("[WARNING] " + s + " has acquired lock count: "
 					+ ongoingLocks.acquiredLocks.size());
 		}
 	}
@@ -220,7 +239,13 @@ public class DeadlockGraphCruiser {
 						for (DeadlockGraphNode n : e.getGraphEntryPoints()) {
 							switch (n.getType()) {
 							case CALL:
-								runSourceGraphFunction(functions.get(n.getValue()), g, ftrace);
+								DeadlockFunction callee = functions.get(n.getValue());
+								if (lockReachingFunctions.contains(callee)) {
+									if (!functionCallers.containsKey(callee)) functionCallers.put(callee, mdf);
+									runSourceGraphFunction(callee, g, ftrace);
+								} else {
+									skipLockFreeFunction(callee, ftrace);
+								}
 								break;
 
 							case LOCK:
@@ -258,18 +283,167 @@ public class DeadlockGraphCruiser {
 		}
 	}
 
-	private void findFunctionLocks(DeadlockGraph graph, DeadlockStorage storage) {
-		prepareFunctionMilestones();
+	private static Set<DeadlockFunction> getFunctionCallees(DeadlockGraphMethod m) {
+		Set<DeadlockFunction> callees = new HashSet<>();
+		for (DeadlockGraphEntry entry : m.getEntryList()) {
+			for (DeadlockGraphNode n : entry.getGraphEntryPoints()) {
+				if (n.getType() == DeadlockGraphNodeType.CALL) {
+					callees.add(functions.get(n.getValue()));
+				}
+			}
+		}
+
+		return callees;
+	}
+
+	private static boolean holdsLockNodes(DeadlockGraphMethod m) {
+		if (m == null) return false;
+
+		for (DeadlockGraphEntry entry : m.getEntryList()) {
+			for (DeadlockGraphNode n : entry.getGraphEntryPoints()) {
+				if (n.getType() != DeadlockGraphNodeType.CALL && n.getType() != DeadlockGraphNodeType.END) {
+					return true;
+				}
+			}
+		}
 
+		return false;
+	}
+
+	private static void indexFunctionCalls(DeadlockFunction f, DeadlockGraphMethod m) {
+		Set<DeadlockFunction> callees = getFunctionCallees(m);
+		functionCallees.put(f, callees);
+
+		for (DeadlockFunction callee : callees) {
+			Set<DeadlockFunction> callers = calleeCallers.get(callee);
+			if (callers == null) {
+				callers = new HashSet<>();
+				calleeCallers.put(callee, callers);
+			}
+			callers.add(f);
+		}
+	}
+
+	private static void unindexFunctionCalls(DeadlockFunction f) {
+		Set<DeadlockFunction> callees = functionCallees.remove(f);
+		if (callees != null) {
+			for (DeadlockFunction callee : callees) {
+				calleeCallers.get(callee).remove(f);
+			}
+		}
+	}
+
+	private static void makeReverseCallIndex(DeadlockGraph graph) {
+		for (Entry<DeadlockFunction, DeadlockGraphMethod> e : graph.getFunctionGraph().entrySet()) {
+			indexFunctionCalls(e.getKey(), e.getValue());
+		}
+	}
+
+	private static Set<DeadlockFunction> getFunctionCallers(Set<DeadlockFunction> callees) {
+		// every function that can reach one of the callees, callees included
+		Set<DeadlockFunction> callers = new HashSet<>(callees);
+		LinkedList<DeadlockFunction> queue = new LinkedList<>(callees);
+
+		while (!queue.isEmpty()) {
+			Set<DeadlockFunction> list = calleeCallers.get(queue.poll());
+			if (list != null) {
+				for (DeadlockFunction f : list) {
+					if (callers.add(f)) {
+						queue.add(f);
+					}
+				}
+			}
+		}
+
+		return callers;
+	}
+
+	private static boolean callsLockReachingFunction(DeadlockFunction f, Set<DeadlockFunction> scope) {
+		for (DeadlockFunction callee : functionCallees.get(f)) {
+			if (!scope.contains(callee) && lockReachingFunctions.contains(callee)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static void markLockReachingFunctions(DeadlockGraph graph, Set<DeadlockFunction> scope) {
+		// reverse reachability from the functions holding LOCK, UNLOCK or SCRIPT nodes, functions off the scope keep their mark
+		Map<DeadlockFunction, DeadlockGraphMethod> functionGraph = graph.getFunctionGraph();
+		LinkedList<DeadlockFunction> queue = new LinkedList<>();
+
+		lockReachingFunctions.removeAll(scope);
+		for (DeadlockFunction f : scope) {
+			if (functionGraph.containsKey(f) && (holdsLockNodes(functionGraph.get(f)) || callsLockReachingFunction(f, scope))) {
+				lockReachingFunctions.add(f);
+				queue.add(f);
+			}
+		}
+
+		while (!queue.isEmpty()) {
+			Set<DeadlockFunction> list = calleeCallers.get(queue.poll());
+			if (list != null) {
+				for (DeadlockFunction f : list) {
+					if (scope.contains(f) && lockReachingFunctions.add(f)) {
+						queue.add(f);
+					}
+				}
+			}
+		}
+
+		DeadlockMetrics.countLockFreeFunctions(functionGraph.size() - lockReachingFunctions.size());
+	}
+
+	private static DeadlockFunction findComponent(Map<DeadlockFunction, DeadlockFunction> parents, DeadlockFunction f) {
+		DeadlockFunction p = parents.get(f);
+		while (p != f) {
+			DeadlockFunction pp = parents.get(p);
+			parents.put(f, pp);
+
+			f = p;
+			p = pp;
+		}
+
+		return f;
+	}
+
+	private static void makeCruiseComponents(DeadlockGraph graph) {
+		// cruising from an entry point only visits functions linked to it through calls of lock-reaching functions
+		Map<DeadlockFunction, DeadlockFunction> parents = new HashMap<>();
+		for (DeadlockFunction f : graph.getFunctionIds().keySet()) {
+			parents.put(f, f);
+		}
+
+		for (Entry<DeadlockFunction, Set<DeadlockFunction>> e : functionCallees.entrySet()) {
+			if (lockReachingFunctions.contains(e.getKey())) {
+				for (DeadlockFunction callee : e.getValue()) {
+					if (parents.containsKey(callee)) {
+						DeadlockFunction c1 = findComponent(parents, e.getKey()), c2 = findComponent(parents, callee);
+						if (c1 != c2) parents.put(c1, c2);
+					}
+				}
+			}
+		}
+
+		functionComponents.clear();
+		for (DeadlockFunction f : parents.keySet()) {
+			functionComponents.put(f, findComponent(parents, f));
+		}
+	}
+
+	private void findFunctionLocks(DeadlockGraph graph, DeadlockStorage storage, Set<DeadlockFunction> region) {
 		Map<DeadlockFunction, DeadlockGraphMethod> functionGraph = graph.getFunctionGraph();
 		Set<DeadlockFunction> runMethods = storage.getRunnableMethods();
 
 		for (Entry<DeadlockFunction, DeadlockGraphMethod> e : functionGraph.entrySet()) {
 			DeadlockFunction f = e.getKey();
-			if (isStartingFunction(f) || runMethods.contains(f)) {
+			if (region.contains(f) && lockReachingFunctions.contains(f) && isRootFunction(f, runMethods)) {
 				// System.out.println("Reading " +
 				// DeadlockStorage.getCanonClassName(f.getSourceClass()) + " >> " +
 				// f.getName());
+				if (!functionCallers.containsKey(f)) functionCallers.put(f, null);
+
 				FunctionPathNode trace = new FunctionPathNode();
 				trace.startAt = 0;
 				runSourceGraphFunction(f, functionGraph, trace);
@@ -287,43 +461,34 @@ public class DeadlockGraphCruiser {
 		return n; // in the end of who knows when
 	}
 
-	private void incrementLockInFunction(Integer i, Integer k, DeadlockFunction nf) {
-		if (functionMilestones.get(nf).contains(k))
+	private static void incrementLockInFunction(Integer i, Integer k, Set<Integer> milestones, Map<Long, Integer> contribution) {
+		if (milestones.contains(k))
 			return;
 
-		Map<Integer, FunctionLockElement> locks = lockDependencies.get(i);
-		if (locks == null) {
-			locks = new HashMap<>();
-			lockDependencies.put(i, locks);
-		}
-
-		if (locks.containsKey(k)) {
-			locks.get(k).increment();
-		} else {
-			locks.put(k, new FunctionLockElement(k, nf));
-		}
+		long key = InternedNames.getPairKey(i, k);
+		Integer count = contribution.get(key);
+		contribution.put(key, (count != null) ? count + 1 : 1);
 	}
 
-	private void decrementLockInFunction(Integer i, Integer k) {
-		Map<Integer, FunctionLockElement> locks = lockDependencies.get(i);
-		if (locks != null && locks.get(-k) != null) {
-			if (locks.get(-k).decrementAndZero()) {
-				locks.remove(-k);
-				if (locks.isEmpty()) {
-					lockDependencies.remove(i);
-				}
+	private static void decrementLockInFunction(Integer i, Integer k, Map<Long, Integer> contribution) {
+		long key = InternedNames.getPairKey(i, -k);
+		Integer count = contribution.get(key);
+		if (count != null) {
+			if (count <= 1) {
+				contribution.remove(key);
+			} else {
+				contribution.put(key, count - 1);
 			}
 		}
 	}
 
-	private void fetchLockDependenciesInFunction(DeadlockFunction f, DeadlockFunction nf,
-			FunctionPathNode n) {
+	private static void fetchLockDependenciesInFunction(DeadlockFunction f, Set<Integer> milestones, Map<Long, Integer> contribution) {
 		List<Integer> fl = functionLocks.get(f).seqIntAcqLocks;
 		Set<Integer> locks = new HashSet<>();
 		for (int a = functionLocks.get(f).startAt; a < fl.size(); a++) {
 			Integer i = fl.get(a); // lockId
 			if (i > 0) {
-				incrementLockInFunction(i, i, nf);
+				incrementLockInFunction(i, i, milestones, contribution);
 
 				int j = fetchUnlockIndex(fl, i, a + 1, fl.size());
 				for (int h = a + 1; h < j; h++) {
@@ -334,9 +499,9 @@ public class DeadlockGraphCruiser {
 							for (int m = h; m < j; m++) {
 								Integer g = fl.get(m);
 								if (g > 0) {
-									incrementLockInFunction(i, g, nf);
+									incrementLockInFunction(i, g, milestones, contribution);
 								} else if (g < 0) {
-									decrementLockInFunction(i, g);
+									decrementLockInFunction(i, g, contribution);
 								}
 							}
 						}
@@ -345,22 +510,103 @@ public class DeadlockGraphCruiser {
 
 				locks.add(i);
 			} else if (i < 0) {
-				decrementLockInFunction(-i, -i);
+				decrementLockInFunction(-i, -i, contribution);
 			}
 		}
 	}
 
-	private void fetchLockDependencies() {
-		Set<DeadlockFunction> r = new HashSet<>();
+	private static Set<Integer> getAcquiredLocks(DeadlockFunction f) {
+		Set<Integer> locks = new HashSet<>();
+		for (Integer i : functionLocks.get(f).seqIntAcqLocks) {
+			if (i > 0) locks.add(i);
+		}
 
-		for (Entry<DeadlockFunction, FunctionPathNode> e : functionLocks.entrySet()) {
-			DeadlockFunction ek = e.getKey();
-			r.add(ek);
+		return locks;
+	}
+
+	private static void makeMilestoneGroups() {
+		milestoneGroups.clear();
+		for (DeadlockFunction f : functionLocks.keySet()) {
+			Set<Integer> s = functionMilestones.get(f);
+			Integer c = milestoneGroups.get(s);
+			milestoneGroups.put(s, (c != null) ? c + 1 : 1);
+		}
+	}
 
-			for (Entry<DeadlockFunction, FunctionPathNode> f : functionLocks.entrySet()) {
-				if (!r.contains(f.getKey())) {
-					fetchLockDependenciesInFunction(ek, f.getKey(), f.getValue());
+	private static Map<Long, Integer> fetchLockDependenciesInFunction(DeadlockFunction f) {
+		// the lock sequence of a function is matched against the milestones of every other function; these only
+		// differ on the locks of that sequence, so one match is done per distinct milestone set seen by it
+		Map<Long, Integer> contribution = new HashMap<>();
+		if (functionLocks.get(f).seqIntAcqLocks.isEmpty()) return contribution;
+
+		Set<Integer> locks = getAcquiredLocks(f);
+		Set<Integer> ownMilestones = functionMilestones.get(f);
+
+		Set<Set<Integer>> masks = new HashSet<>();
+		for (Entry<Set<Integer>, Integer> e : milestoneGroups.entrySet()) {
+			if (e.getValue() == 1 && e.getKey().equals(ownMilestones)) continue;
+
+			Set<Integer> m = new HashSet<>(e.getKey());
+			m.retainAll(locks);
+			masks.add(m);
+		}
+
+		for (Set<Integer> m : masks) {
+			Map<Long, Integer> c = new HashMap<>();
+			fetchLockDependenciesInFunction(f, m, c);
+
+			for (Entry<Long, Integer> e : c.entrySet()) {
+				Integer count = contribution.get(e.getKey());
+				contribution.put(e.getKey(), (count != null) ? count + e.getValue() : e.getValue());
+			}
+		}
+
+		return contribution;
+	}
+
+	private void applyLockContribution(Map<Long, Integer> contribution, boolean add, Set<Integer> changedLocks) {
+		for (Entry<Long, Integer> e : contribution.entrySet()) {
+			Integer i = (int) (e.getKey() >> 32), k = (int) e.getKey().longValue();
+
+			Map<Integer, FunctionLockElement> locks = lockDependencies.get(i);
+			if (add) {
+				if (locks == null) {
+					locks = new HashMap<>();
+					lockDependencies.put(i, locks);
+				}
+
+				FunctionLockElement elem = locks.get(k);
+				if (elem == null) {
+					locks.put(k, new FunctionLockElement(k, e.getValue()));
+					changedLocks.add(i);
+					changedLocks.add(k);
+				} else {
+					elem.add(e.getValue());
 				}
+			} else if (locks.get(k).subtractAndZero(e.getValue())) {
+				locks.remove(k);
+				if (locks.isEmpty()) {
+					lockDependencies.remove(i);
+				}
+
+				changedLocks.add(i);
+				changedLocks.add(k);
+			}
+		}
+	}
+
+	private void fetchLockDependencies(Collection<DeadlockFunction> dirtyFunctions, Set<Integer> changedLocks) {
+		makeMilestoneGroups();
+		for (DeadlockFunction f : dirtyFunctions) {
+			Map<Long, Integer> contribution = functionContributions.remove(f);
+			if (contribution != null) {
+				applyLockContribution(contribution, false, changedLocks);
+			}
+
+			contribution = fetchLockDependenciesInFunction(f);
+			if (!contribution.isEmpty()) {
+				applyLockContribution(contribution, true, changedLocks);
+				functionContributions.put(f, contribution);
 			}
 		}
 	}
@@ -379,54 +625,81 @@ public class DeadlockGraphCruiser {
 		return v1 && v2;
 	}
 
-	private static void makeRemissiveIndexLockFunctions() {
-		Set<Integer> acqLocks = new HashSet<>();
-		for (FunctionPathNode n : functionLocks.values()) {
-			for (Integer l : n.seqIntAcqLocks) {
-				if (l > 0) {
-					acqLocks.add(l);
+	private static void makeRemissiveIndexLockFunctions(Set<Integer> changedLocks) {
+		Map<Integer, Set<DeadlockFunction>> lockFuncs = new HashMap<>();
+		for (Entry<DeadlockFunction, FunctionPathNode> e : functionLocks.entrySet()) {
+			for (Integer i : e.getValue().seqIntAcqLocks) {
+				if (i > 0) {
+					Set<DeadlockFunction> s = lockFuncs.get(i);
+					if (s == null) {
+						s = new HashSet<>(5);
+						lockFuncs.put(i, s);
+					}
+					s.add(e.getKey());
 				}
 			}
 		}
 
-		for (Integer k : acqLocks) {
-			lockFunctions.put(k, new HashSet<>(5));
+		for (Entry<Integer, Set<DeadlockFunction>> e : lockFunctions.entrySet()) {
+			if (!e.getValue().equals(lockFuncs.get(e.getKey()))) changedLocks.add(e.getKey());
+		}
+		for (Integer k : lockFuncs.keySet()) {
+			if (!lockFunctions.containsKey(k)) changedLocks.add(k);
 		}
 
-		for (Entry<DeadlockFunction, FunctionPathNode> e : functionLocks.entrySet()) {
-			for (Integer i : e.getValue().seqIntAcqLocks) {
-				if (i > 0)
-					lockFunctions.get(i).add(e.getKey());
+		lockFunctions = lockFuncs;
+	}
+
+	private void detectDeadlocksInLockDependencies(Set<Integer> changedLocks) {
+		// a cycle is a lock pair taken in both orders, only pairs holding a changed lock are checked again
+		Iterator<DeadlockEntry> it = deadlocks.iterator();
+		while (it.hasNext()) {
+			DeadlockEntry e = it.next();
+			if (changedLocks.contains(e.getLockId1()) || changedLocks.contains(e.getLockId2())) {
+				it.remove();
 			}
 		}
-	}
 
-	private void detectDeadlocksInLockDependencies() {
-		Set<Integer> r = new HashSet<>();
+		for (Integer i : changedLocks) {
+			Map<Integer, FunctionLockElement> locks = lockDependencies.get(i);
+			if (locks == null) continue;
 
-		for (Entry<Integer, Map<Integer, FunctionLockElement>> e : lockDependencies.entrySet()) {
-			Integer ek = e.getKey();
-			r.add(ek);
-
-			for (Entry<Integer, Map<Integer, FunctionLockElement>> f : lockDependencies.entrySet()) {
-				if (!r.contains(f.getKey())) {
-					if (detectDeadlocksInLockSequence(ek, e.getValue().values(), f.getKey(), f.getValue().values())) {
-						for (DeadlockFunction m : lockFunctions.get(ek)) {
-							for (DeadlockFunction n : lockFunctions.get(f.getKey())) {
-								deadlocks.add(new DeadlockEntry(ek, f.getKey(), m, n));
-							}
-						}
+			for (Integer k : locks.keySet()) {
+				if (!k.equals(i)) {
+					Map<Integer, FunctionLockElement> klocks = lockDependencies.get(k);
+					if (klocks != null && detectDeadlocksInLockSequence(i, locks.values(), k, klocks.values())) {
+						deadlocks.add(new DeadlockEntry(i, k, lockFunctions.get(i), lockFunctions.get(k)));
 					}
 				}
 			}
 		}
 	}
 
-	private void detectDeadlocks(Map<Integer, String> LockNames) {
-		fetchLockDependencies();
+	private long countLockOrderEdges() {
+		long edges = 0;
+		for (Entry<Integer, Map<Integer, FunctionLockElement>> e : lockDependencies.entrySet()) {
+			edges += e.getValue().size();
+			if (e.getValue().containsKey(e.getKey())) edges--;
+		}
+
+		return edges;
+	}
+
+	private void detectDeadlocks(Collection<DeadlockFunction> dirtyFunctions, Map<Integer, String> LockNames) {
+		Set<Integer> changedLocks = new HashSet<>();
+
+		long t = DeadlockMetrics.startTimer();
+		fetchLockDependencies(dirtyFunctions, changedLocks);
+		DeadlockMetrics.stopTimer(Phase.CRUISE_LOCK_DEPENDENCIES, t);
+		DeadlockMetrics.setCount(Cardinality.LOCK_ORDER_EDGES, countLockOrderEdges());
+
 		dumpLockDependency(LockNames);
-		makeRemissiveIndexLockFunctions();
-		detectDeadlocksInLockDependencies();
+
+		t = DeadlockMetrics.startTimer();
+		makeRemissiveIndexLockFunctions(changedLocks);
+		detectDeadlocksInLockDependencies(changedLocks);
+		DeadlockMetrics.stopTimer(Phase.CRUISE_DEADLOCKS, t);
+
 		dumpDeadlockFunctions(LockNames);
 	}
 
@@ -438,16 +711,87 @@ public class DeadlockGraphCruiser {
 		}
 	}
 
+	private Set<DeadlockFunction> invalidateFunctionLocks(DeadlockGraph graph, Set<DeadlockFunction> changed) {
+		// the region to cruise again spans the components holding the changed functions, before and after the change
+		Set<DeadlockFunction> reaching = new HashSet<>(lockReachingFunctions);
+		Set<DeadlockFunction> oldComponents = new HashSet<>();
+		for (DeadlockFunction f : changed) {
+			oldComponents.add(functionComponents.get(f));
+
+			unindexFunctionCalls(f);
+			indexFunctionCalls(f, graph.getFunctionGraph().get(f));
+		}
+
+		Set<DeadlockFunction> callers = getFunctionCallers(changed);
+		markLockReachingFunctions(graph, callers);
+		for (DeadlockFunction f : callers) {
+			if (reaching.contains(f) != lockReachingFunctions.contains(f)) {
+				oldComponents.add(functionComponents.get(f));
+			}
+		}
+
+		Set<DeadlockFunction> dirty = new HashSet<>();
+		for (Entry<DeadlockFunction, DeadlockFunction> e : functionComponents.entrySet()) {
+			if (oldComponents.contains(e.getValue())) dirty.add(e.getKey());
+		}
+
+		makeCruiseComponents(graph);
+
+		Set<DeadlockFunction> newComponents = new HashSet<>();
+		for (DeadlockFunction f : dirty) {
+			newComponents.add(functionComponents.get(f));
+		}
+
+		Set<DeadlockFunction> region = new HashSet<>();
+		for (Entry<DeadlockFunction, DeadlockFunction> e : functionComponents.entrySet()) {
+			if (newComponents.contains(e.getValue())) region.add(e.getKey());
+		}
+
+		for (DeadlockFunction f : region) {
+			FunctionPathNode ftrace = new FunctionPathNode();
+			ftrace.startAt = 0;
+			functionLocks.put(f, ftrace);
+
+			functionCallers.remove(f);
+		}
+
+		return region;
+	}
+
+	private static Set<DeadlockFunction> getDirtyContributions(Set<DeadlockFunction> region, Map<DeadlockFunction, Set<Integer>> oldMilestones) {
+		// functions holding locks in the old or new milestones of a changed function are counted again too
+		List<DeadlockFunction> changedMilestones = new LinkedList<>();
+		for (DeadlockFunction f : region) {
+			if (!oldMilestones.get(f).equals(functionMilestones.get(f))) changedMilestones.add(f);
+		}
+
+		Set<DeadlockFunction> dirty = new HashSet<>(region);
+		for (DeadlockFunction f : functionContributions.keySet()) {
+			if (dirty.contains(f)) continue;
+
+			Set<Integer> locks = getAcquiredLocks(f);
+			for (DeadlockFunction nf : changedMilestones) {
+				if (!Collections.disjoint(locks, oldMilestones.get(nf)) || !Collections.disjoint(locks, functionMilestones.get(nf))) {
+					dirty.add(f);
+					break;
+				}
+			}
+		}
+
+		return dirty;
+	}
+
 	private static void dumpLockDependency(Map<Integer, String> LockNames) {
 		System.out.println("Lock dependency:");
 		for (Entry<Integer, Map<Integer, FunctionLockElement>> e : lockDependencies.entrySet()) {
-			String s = LockNames.get(e.getKey()) + " [";
+			StringBuilder s = new StringBuilder();
+			s.append(LockNames.get(e.getKey())).append(" [");
 
 			for (FunctionLockElement lockElem : e.getValue().values()) {
-				s += LockNames.get(lockElem.lockId) + ", ";
+				s.append(LockNames.get(lockElem.lockId)).append(", ");
 			}
 
-			s += "]";
+			s.append(']');
 
 			System.out.println(s);
 		}
@@ -484,12 +828,100 @@ public class DeadlockGraphCruiser {
 		}
 	}
 
+	public Map<Integer, Set<Integer>> getLockOrderEdges() {
+		// held lock -> locks acquired while holding it, a lock taken on itself is left out
+		Map<Integer, Set<Integer>> edges = new HashMap<>();
+		for (Entry<Integer, Map<Integer, FunctionLockElement>> e : lockDependencies.entrySet()) {
+			Set<Integer> locks = new HashSet<>(e.getValue().keySet());
+			locks.remove(e.getKey());
+
+			if (!locks.isEmpty()) edges.put(e.getKey(), locks);
+		}
+
+		return edges;
+	}
+
+	public Set<DeadlockFunction> getLockFunctions(int lockId) {
+		Set<DeadlockFunction> s = lockFunctions.get(lockId);
+		return (s != null) ? s : Collections.<DeadlockFunction>emptySet();
+	}
+
+	public DeadlockFunction getFunction(int functionId) {
+		return functions.get(functionId);
+	}
+
+	public List<DeadlockFunction> getWitnessPath(DeadlockFunction f) {
+		// walks back the first callers found up to an entry point
+		LinkedList<DeadlockFunction> path = new LinkedList<>();
+		Set<DeadlockFunction> visited = new HashSet<>();
+
+		while (f != null && visited.add(f)) {
+			path.addFirst(f);
+			f = functionCallers.get(f);
+		}
+
+		return path;
+	}
+
+	public static void resetCruiser() {
+		deadlocks = new HashSet<>();
+
+		functionCallees.clear();
+		calleeCallers.clear();
+		functionComponents.clear();
+
+		milestoneGroups.clear();
+		functionContributions.clear();
+
+		functionStack.clear();
+		functionMap.clear();
+		functionMilestones.clear();
+
+		functionLocks.clear();
+		lockFunctions.clear();
+
+		functions.clear();
+		lockReachingFunctions.clear();
+		functionCallers.clear();
+		lockDependencies.clear();
+	}
+
 	public Set<DeadlockEntry> runSourceGraph(DeadlockGraph graph, DeadlockStorage storage, Map<Integer, String> LockNames) {
 		createFunctionAcquiredLocks(graph);
 		makeRemissiveIndexFunctions(graph);
-		findFunctionLocks(graph, storage);
+		makeReverseCallIndex(graph);
+
+		long t = DeadlockMetrics.startTimer();
+		prepareFunctionMilestones();
+		markLockReachingFunctions(graph, graph.getFunctionGraph().keySet());
+		makeCruiseComponents(graph);
+		findFunctionLocks(graph, storage, graph.getFunctionGraph().keySet());
+		DeadlockMetrics.stopTimer(Phase.CRUISE_FUNCTION_LOCKS, t);
+
+		detectDeadlocks(new ArrayList<>(functionLocks.keySet()), LockNames);
+		return deadlocks;
+	}
+
+	public Set<DeadlockEntry> updateSourceGraph(DeadlockGraph graph, DeadlockStorage storage, Set<Integer> changedFunctionIds, Map<Integer, String> LockNames) {
+		// the graph last cruised, with the method graphs of the changed functions replaced
+		Set<DeadlockFunction> changed = new HashSet<>();
+		for (Integer id : changedFunctionIds) {
+			DeadlockFunction f = functions.get(id);
+			if (f != null && graph.getFunctionGraph().containsKey(f)) changed.add(f);
+		}
+
+		long t = DeadlockMetrics.startTimer();
+		Set<DeadlockFunction> region = invalidateFunctionLocks(graph, changed);
+
+		Map<DeadlockFunction, Set<Integer>> oldMilestones = new HashMap<>();
+		for (DeadlockFunction f : region) {
+			oldMilestones.put(f, functionMilestones.put(f, new HashSet<>(5)));
+		}
+
+		findFunctionLocks(graph, storage, region);
+		DeadlockMetrics.stopTimer(Phase.CRUISE_FUNCTION_LOCKS, t);
 
-		detectDeadlocks(LockNames);
+		detectDeadlocks(getDirtyContributions(region, oldMilestones), LockNames);
 		return deadlocks;
 	}
 }
@@ -11,6 +11,9 @@
  */
 package deadlocktracker;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -21,24 +24,39 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import deadlocktracker.DeadlockMetrics.Phase;
+import deadlocktracker.DeadlockMetrics.UnresolvedType;
 import deadlocktracker.containers.DeadlockClass;
+import deadlocktracker.containers.DeadlockClassTrie;
 import deadlocktracker.containers.DeadlockEnum;
 import deadlocktracker.containers.DeadlockFunction;
 import deadlocktracker.containers.DeadlockLock;
+import deadlocktracker.containers.DeadlockLockSummary;
+import deadlocktracker.containers.DeadlockLockSummary.MethodSummary;
 import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.containers.DeadlockSymbolTable;
 import deadlocktracker.containers.Pair;
 import deadlocktracker.graph.DeadlockAbstractType;
 import deadlocktracker.graph.DeadlockGraphEntry;
-import deadlocktracker.graph.DeadlockGraphNodeCall;
-import deadlocktracker.graph.DeadlockGraphNodeLock;
-import deadlocktracker.graph.DeadlockGraphNodeScript;
+import deadlocktracker.graph.DeadlockGraphNode;
+import deadlocktracker.graph.DeadlockGraphNodeType;
 import deadlocktracker.graph.DeadlockGraphMethod;
+import deadlocktracker.jfr.DeadlockEvents;
 import deadlocktracker.source.CSharpReader;
+import deadlocktracker.strings.InternedNames;
 import deadlocktracker.strings.LinkedTypes;
 
 import language.java.JavaParser;
+import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeListener;
 
 /**
@@ -48,8 +66,8 @@ import org.antlr.v4.runtime.tree.ParseTreeListener;
 public abstract class DeadlockGraphMaker {
 	protected Map<String, Map<String, DeadlockClass>> PublicClasses;
 	protected Map<String, Map<String, DeadlockClass>> PrivateClasses;
-	protected Map<String, DeadlockClass> AllClasses;
 	protected Map<String, DeadlockLock> Locks;
+	protected Map<Long, DeadlockLock> LockIds;      // (class canon id, identifier id) -> lock
 
 	protected Integer objectSetId;
 	protected Map<Integer, Integer> ElementalDataTypes;
@@ -69,23 +87,26 @@ public abstract class DeadlockGraphMaker {
 	protected Map<Integer, DeadlockClass> ClassDataTypes = new HashMap<>();
 	protected Map<Integer, DeadlockAbstractType> AbstractDataTypes = new HashMap<>();
 	protected Map<Integer, String> BasicDataTypes = new HashMap<>();
-	protected Map<String, Integer> DereferencedDataTypes = new HashMap<>();
+	protected Map<String, Integer> DereferencedDataTypes = new ConcurrentHashMap<>();
 
 	protected Map<Integer, String> EveryDataTypes = new HashMap<>();
 	protected Map<String, Integer> EveryDataTypeIds = new HashMap<>();
 
 	private Map<Integer, Set<Integer>> SuperClasses = new HashMap<>();
-	private Map<Integer, Integer> DataWrapper = new HashMap<>();
+	private Map<Integer, Integer> DataWrapper = new ConcurrentHashMap<>();
 
 	private Map<DeadlockFunction, Integer> GraphFunctionIds = new HashMap<>();
 	private Map<DeadlockFunction, DeadlockGraphMethod> GraphFunctions = new HashMap<>();
 
-	protected DeadlockClass refClass = null;
+	// resolution state of the method node being parsed, held per worker thread
+	protected final ThreadLocal<DeadlockClass> refClass = new ThreadLocal<>();
 
 	private Integer runningFid = 0;
-	private Integer lockId;
+	private DeadlockStorage metadata;
 
-	public abstract void parseSourceFile(String fileName, ParseTreeListener listener);
+	public abstract Parser createParser(TokenStream tokens);
+	public abstract ParseTree parseSourceTree(String fileName) throws IOException;
+	public abstract void readSourceTree(String fileName, ParseTree tree, ParseTreeListener listener);
 	public abstract Integer getLiteralType(ParserRuleContext ctx);
 	public abstract List<ParserRuleContext> getArgumentList(ParserRuleContext ctx);
 	public abstract Set<Integer> getMethodReturnType(DeadlockGraphMethod node, Integer classType, ParserRuleContext methodCall, DeadlockFunction sourceMethod, DeadlockClass sourceClass);
@@ -94,6 +115,14 @@ public abstract class DeadlockGraphMaker {
 	public abstract ParserRuleContext generateExpression(String expressionText);
 	public abstract boolean isUnlockMethodCall(String expressionText);
 
+	public void parseSourceFile(String fileName, ParseTreeListener listener) {
+		try {
+			readSourceTree(fileName, parseSourceTree(fileName), listener);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	protected List<Integer> getArgumentTypes(DeadlockGraphMethod node, ParserRuleContext expList, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
 		List<Integer> ret = new LinkedList<>();
 		for(ParserRuleContext exp : getArgumentList(expList)) {
@@ -118,17 +147,17 @@ public abstract class DeadlockGraphMaker {
 		return ret;
 	}
 
-	private Integer evaluateLockFunction(String methodName, List<Integer> argTypes, Integer dataType, DeadlockGraphMethod node) {
+	private Integer evaluateLockFunction(String methodName, List<Integer> argTypes, Integer dataType, Integer lockId, DeadlockGraphMethod node) {
 		switch(methodName) {
 		case "lock":
 		case "tryLock":
 			//System.out.println("adding lock node " + lockId);
-			node.addGraphEntry(new DeadlockGraphEntry(new DeadlockGraphNodeLock(lockId, true)));
+			node.addGraphEntry(DeadlockGraphEntry.getLockEntry(lockId, true));
 			break;
 
 		case "unlock":
 			//System.out.println("adding unlock node " + lockId);
-			node.addGraphEntry(new DeadlockGraphEntry(new DeadlockGraphNodeLock(lockId, false)));
+			node.addGraphEntry(DeadlockGraphEntry.getLockEntry(lockId, false));
 			break;
 		}
 
@@ -136,14 +165,11 @@ public abstract class DeadlockGraphMaker {
 	}
 
 	private Integer evaluateScriptFunction(String methodName, List<Integer> argTypes, Integer dataType, DeadlockGraphMethod node) {
-		DeadlockGraphEntry entry = new DeadlockGraphEntry();    
-		entry.addGraphEntryPoint(new DeadlockGraphNodeScript());
-
-		node.addGraphEntry(entry);
+		node.addGraphEntry(DeadlockGraphEntry.getScriptEntry());
 		return -2;
 	}
 
-	protected Integer evaluateAbstractFunction(DeadlockGraphMethod node, String methodName, List<Integer> argTypes, Integer dataType, DeadlockAbstractType absType) {
+	protected Integer evaluateAbstractFunction(DeadlockGraphMethod node, String methodName, List<Integer> argTypes, Integer dataType, DeadlockAbstractType absType, Integer lockId) {
 		switch(absType) {
 		case MAP:
 			if(methodName.contentEquals("entrySet")) {
@@ -167,7 +193,7 @@ public abstract class DeadlockGraphMaker {
 			return -2;
 
 		case LOCK:
-			return evaluateLockFunction(methodName, argTypes, dataType, node);
+			return evaluateLockFunction(methodName, argTypes, dataType, lockId, node);
 
 		case SCRIPT:
 			return evaluateScriptFunction(methodName, argTypes, dataType, node);
@@ -193,69 +219,109 @@ public abstract class DeadlockGraphMaker {
 	}
 
 	private Integer getLockId(String identifier, DeadlockClass sourceClass) {
-		String lockName = DeadlockStorage.getCanonClassName(sourceClass) + "." + identifier;
-		DeadlockLock lock = Locks.get(lockName);
+		int identifierId = InternedNames.lookupId(identifier);
+		if(identifierId < 0) return -1;     // not the name of any lock
+
+		return getLockId(identifierId, sourceClass);
+	}
+
+	private Integer getLockId(int identifierId, DeadlockClass sourceClass) {
+		DeadlockLock lock = LockIds.get(InternedNames.getPairKey(sourceClass.getCanonId(), identifierId));
 
 		if(lock != null) return lock.getId();
 
 		for(DeadlockClass mdc : sourceClass.getSuperList()) {
-			Integer ret = getLockId(identifier, mdc);
+			Integer ret = getLockId(identifierId, mdc);
 			if (ret > -1) return ret;
 		}
 
 		if(sourceClass.getParent() != null) {
-			Integer ret = getLockId(identifier, sourceClass.getParent());
+			Integer ret = getLockId(identifierId, sourceClass.getParent());
 			if (ret > -1) return ret;
 		}
 
 		return -1;
 	}
 
-	private boolean isImportEnum(String name, DeadlockClass sourceClass) {
-		String names[] = name.split("\\.");
-		if (names.length == 0) names = new String[]{name};
+	private DeadlockLock getLockByName(String lockName) {
+		// read from the concurrent index, the C# workers may add synchronized locks to Locks meanwhile
+		int idx = lockName.lastIndexOf('.');
+		if(idx < 0) return null;
+
+		int classId = InternedNames.lookupId(lockName.substring(0, idx));
+		int identifierId = InternedNames.lookupId(lockName.substring(idx + 1));
+		if(classId < 0 || identifierId < 0) return null;
 
-		return sourceClass.getEnums().contains(names[names.length - 1]);
+		return LockIds.get(InternedNames.getPairKey(classId, identifierId));
+	}
+
+	private void registerLockId(DeadlockClass sourceClass, String identifier) {
+		DeadlockLock lock = Locks.get(DeadlockStorage.getCanonClassName(sourceClass) + "." + identifier);
+		if(lock != null) {
+			LockIds.put(InternedNames.getPairKey(sourceClass.getCanonId(), InternedNames.getId(identifier)), lock);
+		}
+	}
+
+	private Map<Long, DeadlockLock> generateLockIds() {
+		Map<Long, DeadlockLock> ret = new ConcurrentHashMap<>();
+
+		for(Entry<String, DeadlockLock> e : Locks.entrySet()) {
+			if(e.getValue() == null) continue;
+
+			String lockName = e.getKey();
+			int idx = lockName.lastIndexOf('.');
+
+			int classId = InternedNames.getId(lockName.substring(0, idx));
+			int identifierId = InternedNames.getId(lockName.substring(idx + 1));
+			ret.put(InternedNames.getPairKey(classId, identifierId), e.getValue());
+		}
+
+		return ret;
+	}
+
+	private boolean isImportEnum(String name, DeadlockClass sourceClass) {
+		int idx = name.lastIndexOf('.');
+		return sourceClass.getEnums().contains((idx > -1) ? name.substring(idx + 1) : name);
 	}
 
 	private void setImportEnums(DeadlockClass sourceClass) {
+		DeadlockClassTrie trie = DeadlockStorage.getClassTrie();
+
 		Set<String> importedEnums = new HashSet<>();
 		for (Pair<String, DeadlockClass> e : sourceClass.getImports()) {
 			if (e.getRight() == null) {     // possible candidate for enum item
-				String names[] = e.getLeft().split("\\.");
-				if (names.length == 0) names = new String[]{e.getLeft()};
-
-				DeadlockClass c;
-				String path = names[0];
-				int s = -1;
-
-				int i = 0;
-				while (true) {
-					c = AllClasses.get(path);
-
-					if (c != null) {
-						s = path.length();
-					} else if (s > -1) {
-						if (i == names.length - 1) {
-							if (!names[i].contentEquals("*")) {
-								importedEnums.add(names[names.length - 1]);
-							} else {
-								c = AllClasses.get(path.substring(0, s));
-								if (c.isEnum()) {
-									DeadlockEnum e1 = (DeadlockEnum) c;
-									for (String s1 : e1.getEnumItems()) {
-										importedEnums.add(s1);
-									}
+				String name = e.getLeft();
+
+				DeadlockClass c = null;
+				int node = DeadlockClassTrie.ROOT;
+
+				int st = 0, len = name.length();
+				while (st < len) {
+					int en = name.indexOf('.', st);
+					if (en < 0) en = len;
+
+					node = trie.getChild(node, name, st, en);
+					DeadlockClass nc = trie.getNodeClass(node);
+
+					if (nc != null) {
+						c = nc;
+					} else if (c != null) {
+						if (en == len) {
+							if (en - st != 1 || name.charAt(st) != '*') {
+								importedEnums.add(name.substring(st, en));
+							} else if (c.isEnum()) {
+								DeadlockEnum e1 = (DeadlockEnum) c;
+								for (String s1 : e1.getEnumItems()) {
+									importedEnums.add(s1);
 								}
 							}
 						}
 						break;
+					} else if (node == DeadlockClassTrie.NONE) {
+						break;  // no class path goes any deeper from here
 					}
 
-					i++;
-					if (i >= names.length) break;
-
-					path += "." + names[i];
+					st = en + 1;
 				}
 			}
 		}
@@ -284,18 +350,8 @@ public abstract class DeadlockGraphMaker {
 	}
 
 	private Integer getPrimaryTypeFromLocalVars(String name, DeadlockFunction sourceMethod) {
-		Long nameHash = DeadlockStorage.hash64(name);
-
-		do {
-			Set<Integer> nameTypes = sourceMethod.getLocalVariables().get(nameHash);
-			if(nameTypes != null) {
-				return nameTypes.size() == 1 ? nameTypes.iterator().next() : -2;    // ignore name allocated multiple times
-			}
-
-			sourceMethod = sourceMethod.getParent();
-		} while(sourceMethod != null);
-
-		return null;
+		int t = sourceMethod.getLocalSymbols().get(DeadlockStorage.hash64(name));
+		return (t != DeadlockSymbolTable.NONE) ? t : null;
 	}
 
 	protected Integer getPrimaryType(String name, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
@@ -334,11 +390,33 @@ public abstract class DeadlockGraphMaker {
 			return -1;
 		}
 
-		if(t.equals(ElementalTypes[5]) || t == 0) {
-			lockId = getLockId(name, sourceClass);
+		return t;
+	}
+
+	protected Integer getPrimaryLockId(String name, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
+		Integer t = getPrimaryType(name, sourceMethod, sourceClass);
+		return (t.equals(ElementalTypes[5]) || t == 0) ? getLockId(name, sourceClass) : -1;
+	}
+
+	protected Integer getFieldLockId(int expType, String idName, DeadlockFunction sourceMethod) {
+		// the lock named by a field of the given type, -1 if the field is not a lock
+		if(isIgnoredType(expType)) {
+			return -1;
 		}
 
-		return t;
+		DeadlockClass c = getClassFromType(expType);
+		if(c == null) {
+			List<Integer> cTypes = CompoundDataTypes.get(expType);
+			if(cTypes != null) {
+				c = getClassFromType(cTypes.get(cTypes.size() - 1));
+			}
+		}
+
+		if(c == null || c.isEnum()) {
+			return -1;
+		}
+
+		return getPrimaryLockId(idName, sourceMethod, c);
 	}
 
 	protected Integer getRelevantType(Integer retType, Set<Integer> templateTypes, DeadlockClass c, Integer expType) {
@@ -353,12 +431,13 @@ public abstract class DeadlockGraphMaker {
 				}
 			}
 
-			try {
-				List<Integer> cTypes = CompoundDataTypes.get(expType);
-				retType = cTypes.get(pos);
-			} catch(Exception e) {  // e.g. case where objects of unknown types are being compared with equals()
+			List<Integer> cTypes = CompoundDataTypes.get(expType);
+			if(cTypes == null || pos >= cTypes.size()) {    // e.g. case where objects of unknown types are being compared with equals()
+				DeadlockMetrics.countUnresolvedType(UnresolvedType.UNKNOWN_COMPOUND_TYPE);
 				return -2;
 			}
+
+			retType = cTypes.get(pos);
 		}
 
 		return retType;
@@ -673,17 +752,16 @@ public abstract class DeadlockGraphMaker {
 
 		if (!allMethodImplementations.isEmpty()) {
 			for(List<Pair<DeadlockFunction, Set<Integer>>> mi : allMethodImplementations) {
-				DeadlockGraphEntry entry = new DeadlockGraphEntry();
+				List<Integer> fids = new ArrayList<>(mi.size());
 
 				for(Pair<DeadlockFunction, Set<Integer>> mip : mi) {
 					DeadlockFunction mdf = mip.left;
 					//Set<Integer> tt = mi.right;
 
-					Integer fid = GraphFunctionIds.get(mdf);
-					entry.addGraphEntryPoint(new DeadlockGraphNodeCall(fid));
+					fids.add(GraphFunctionIds.get(mdf));
 				}
 
-				node.addGraphEntry(entry);
+				node.addGraphEntry(DeadlockGraphEntry.getCallEntry(fids));   // fan-outs to the same targets share a single entry
 			}
 		}
 
@@ -760,7 +838,7 @@ public abstract class DeadlockGraphMaker {
 		if (derClass == null) derType = BasicDataTypeIds.get(derTypeName);
 		else derType = ClassDataTypeIds.get(derClass);
 
-		DereferencedDataTypes.put(derTypeName, derType);
+		if (derType != null) DereferencedDataTypes.put(derTypeName, derType);
 		return derType;
 	}
 
@@ -794,7 +872,7 @@ public abstract class DeadlockGraphMaker {
 	private Pair<Integer, String> fetchLockField(String expressionText, boolean isLock, DeadlockGraphMethod node, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
 		ParserRuleContext ctx = generateExpression(expressionText);
 		parseMethodCalls(node, ctx, sourceMethod, sourceClass, true);
-		int typeId = ClassDataTypeIds.get(refClass);
+		int typeId = ClassDataTypeIds.get(refClass.get());
 
 		int idx = Integer.MAX_VALUE;
 
@@ -873,18 +951,20 @@ public abstract class DeadlockGraphMaker {
 							DeadlockClass c = getClassFromType(Math.abs(lockField.getLeft()));
 							if(c != null) {
 								String synchLockName = DeadlockGraphMaker.getSyncLockName(lockField.getRight(), 0);
-								Integer field = c.getFieldVariable(synchLockName);
-								if (field == null) {
-									c.addFieldVariable(0, synchLockName);
-									CSharpReader.processLock(c, "SynchLock", synchLockName, synchLockName);   // create a lock representation of the synchronized modifier
+								synchronized (LockIds) {
+									Integer field = c.getFieldVariable(synchLockName);
+									if (field == null) {
+										c.addFieldVariable(0, synchLockName);
+										CSharpReader.processLock(c, "SynchLock", synchLockName, synchLockName);   // create a lock representation of the synchronized modifier
+										registerLockId(c, synchLockName);
+									}
 								}
 
-								getPrimaryType(synchLockName, sourceMethod, c);     // to retrieve lockId
-
+								Integer lockId = getLockId(synchLockName, c);
 								if (lockField.getLeft() > 0) {
-									evaluateLockFunction("lock", Collections.emptyList(), lockField.getLeft(), node);
+									evaluateLockFunction("lock", Collections.emptyList(), lockField.getLeft(), lockId, node);
 								} else {
-									evaluateLockFunction("unlock", Collections.emptyList(), lockField.getLeft(), node);
+									evaluateLockFunction("unlock", Collections.emptyList(), lockField.getLeft(), lockId, node);
 								}
 							}
 						}
@@ -935,12 +1015,45 @@ public abstract class DeadlockGraphMaker {
 		return cid;
 	}
 
+	private static int countCallFanOut(DeadlockGraphMethod node) {
+		Set<Integer> callees = new HashSet<>();
+		for(DeadlockGraphEntry e : node.getEntryList()) {
+			for(DeadlockGraphNode n : e.getGraphEntryPoints()) {
+				if(n.getType() == DeadlockGraphNodeType.CALL) callees.add(n.getValue());
+			}
+		}
+
+		return callees.size();
+	}
+
+	private void parseSummaryNodes(DeadlockGraphMethod node, MethodSummary summary) {
+		// a method summarized from another module holds its lock events already resolved
+		for(String e : summary.getLockEvents()) {
+			if(e.contentEquals(DeadlockLockSummary.SCRIPT_EVENT)) {
+				node.addGraphEntry(DeadlockGraphEntry.getScriptEntry());
+			} else {
+				DeadlockLock lock = getLockByName(e.substring(1));
+				if(lock != null) node.addGraphEntry(DeadlockGraphEntry.getLockEntry(lock.getId(), e.charAt(0) == '+'));
+			}
+		}
+	}
+
 	private void parseMethodNode(DeadlockFunction method, DeadlockClass sourceClass) {
+		Object event = DeadlockEvents.beginResolveMethod();
 		DeadlockGraphMethod node = GraphFunctions.get(method);
 
+		MethodSummary summary = DeadlockStorage.getLockSummaries().get(method);
+		if(summary != null) {
+			parseSummaryNodes(node, summary);
+		}
+
 		for(ParserRuleContext call : method.getMethodCalls()) {
 			parseMethodCalls(node, call, method, sourceClass);
 		}
+
+		if(event != null) {
+			DeadlockEvents.commitResolveMethod(event, DeadlockStorage.getCanonClassName(sourceClass) + " >> " + method.getName(), method.getMethodCalls().size(), countCallFanOut(node));
+		}
 	}
 
 	private void reinstanceCachedMaps(DeadlockStorage metadata) {
@@ -1002,6 +1115,14 @@ public abstract class DeadlockGraphMaker {
 		}
 	}
 
+	private void generateRunnableMethodNodes() {
+		for(DeadlockFunction f : RunnableMethods) {
+			if(!GraphFunctionIds.containsKey(f)) {   // runnables may also be declared as class methods
+				createGraphFunction(f);
+			}
+		}
+	}
+
 	private void generateSuperReferences(Map<String, Map<String, DeadlockClass>> packageClasses) {
 		for(Map<String, DeadlockClass> m : packageClasses.values()) {
 			for(DeadlockClass c : m.values()) {
@@ -1021,20 +1142,131 @@ public abstract class DeadlockGraphMaker {
 		}
 	}
 
-	private void parseMethodNodes(Map<String, Map<String, DeadlockClass>> packageClasses) {
+	private void listMethodNodes(Map<String, Map<String, DeadlockClass>> packageClasses, List<Pair<DeadlockFunction, DeadlockClass>> methodNodes) {
 		for(Map<String, DeadlockClass> m : packageClasses.values()) {
 			for(DeadlockClass c : m.values()) {
 				for(DeadlockFunction f : c.getMethods()) {
-					parseMethodNode(f, c);
+					methodNodes.add(new Pair<>(f, c));
 				}
 			}
 		}
 	}
 
-	private void parseRunnableMethodNodes() {
+	private int countDataTypes() {
+		return DeadlockStorage.getBasicDataTypes().size() + metadata.getClassDataTypes().size() + metadata.getCompoundDataTypes().size();
+	}
+
+	private void readDeferredBodies(List<Pair<DeadlockFunction, DeadlockClass>> methodNodes) {
+		int dataTypes = countDataTypes();
+		boolean read = false;
+
+		long t = DeadlockMetrics.startTimer();
+		for(Pair<DeadlockFunction, DeadlockClass> p : methodNodes) {
+			if(p.left.readDeferredBody()) {
+				t = DeadlockMetrics.stopTimer(Phase.GRAPH_DEFERRED_BODIES, t);
+				read = true;
+			}
+		}
+
+		if(read && countDataTypes() != dataTypes) {
+			reinstanceCachedMaps(metadata);     // local variables of the bodies may have declared new data types
+		}
+	}
+
+	private void parseMethodNodes(List<Pair<DeadlockFunction, DeadlockClass>> methodNodes, ExecutorService workers) {
+		readDeferredBodies(methodNodes);     // bodies of skeleton files are only read once their method is reached
+
+		for(Pair<DeadlockFunction, DeadlockClass> p : methodNodes) {
+			p.left.getLocalSymbols();   // symbol tables are built ahead, workers only read them
+		}
+
+		if(workers == null) {
+			for(Pair<DeadlockFunction, DeadlockClass> p : methodNodes) {
+				parseMethodNode(p.left, p.right);
+			}
+			return;
+		}
+
+		List<Future<?>> tasks = new LinkedList<>();
+		for(Pair<DeadlockFunction, DeadlockClass> p : methodNodes) {
+			tasks.add(workers.submit(() -> parseMethodNode(p.left, p.right)));
+		}
+
+		try {
+			for(Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if(cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private void listRunnableMethodNodes(List<Pair<DeadlockFunction, DeadlockClass>> methodNodes) {
+		Set<DeadlockFunction> listed = new HashSet<>();
+		for(Pair<DeadlockFunction, DeadlockClass> p : methodNodes) {
+			listed.add(p.left);
+		}
+
 		for(DeadlockFunction f : RunnableMethods) {
-			createGraphFunction(f);
-			parseMethodNode(f, f.getSourceClass());
+			if(listed.add(f)) {
+				methodNodes.add(new Pair<>(f, f.getSourceClass()));
+			}
+		}
+	}
+
+	private void parseReachableMethodNodes(List<Pair<DeadlockFunction, DeadlockClass>> methodNodes, ExecutorService workers) {
+		// starts from the entry points, only resolving the callees found on the way
+		Map<Integer, Pair<DeadlockFunction, DeadlockClass>> unresolvedNodes = new HashMap<>();
+		List<Pair<DeadlockFunction, DeadlockClass>> pending = new LinkedList<>();
+
+		for(Pair<DeadlockFunction, DeadlockClass> p : methodNodes) {
+			if(DeadlockGraphCruiser.isRootFunction(p.left, RunnableMethods)) {
+				pending.add(p);
+			} else {
+				unresolvedNodes.put(GraphFunctionIds.get(p.left), p);
+			}
+		}
+
+		int resolved = 0;
+		while(!pending.isEmpty()) {
+			parseMethodNodes(pending, workers);
+			resolved += pending.size();
+
+			List<Pair<DeadlockFunction, DeadlockClass>> callees = new LinkedList<>();
+			for(Pair<DeadlockFunction, DeadlockClass> p : pending) {
+				for(DeadlockGraphEntry e : GraphFunctions.get(p.left).getEntryList()) {
+					for(DeadlockGraphNode n : e.getGraphEntryPoints()) {
+						if(n.getType() == DeadlockGraphNodeType.CALL) {
+							Pair<DeadlockFunction, DeadlockClass> callee = unresolvedNodes.remove(n.getValue());
+							if(callee != null) callees.add(callee);
+						}
+					}
+				}
+			}
+
+			pending = callees;
+		}
+
+		DeadlockMetrics.countGraphMethods(resolved, unresolvedNodes.size());
+	}
+
+	private void parseMethodNodes(ExecutorService workers) {
+		List<Pair<DeadlockFunction, DeadlockClass>> methodNodes = new LinkedList<>();
+		listMethodNodes(PublicClasses, methodNodes);
+		listMethodNodes(PrivateClasses, methodNodes);
+		listRunnableMethodNodes(methodNodes);
+
+		if(DeadlockConfig.isLazyGraph()) {
+			parseReachableMethodNodes(methodNodes, workers);
+		} else {
+			parseMethodNodes(methodNodes, workers);
+			DeadlockMetrics.countGraphMethods(methodNodes.size(), 0);
 		}
 	}
 
@@ -1073,48 +1305,28 @@ public abstract class DeadlockGraphMaker {
 		return -1;
 	}
 
-	private void includeAllClassesInternal(Map<String, Map<String, DeadlockClass>> map, boolean isPrivate) {
-		if(!isPrivate) {
-			for (Entry<String, Map<String, DeadlockClass>> e : map.entrySet()) {
-				String path = e.getKey();
-
-				for (Entry<String, DeadlockClass> f : e.getValue().entrySet()) {
-					AllClasses.put(path + f.getKey(), f.getValue());
-				}    
-			}
-		} else {
-			for (Entry<String, Map<String, DeadlockClass>> e : map.entrySet()) {
-				String path = e.getKey();
-				int idx = path.lastIndexOf('.');
-				path = path.substring(0, idx + 1);
-
-				for (Entry<String, DeadlockClass> f : e.getValue().entrySet()) {
-					AllClasses.put(path + f.getKey(), f.getValue());
-				}    
+	private void setImportEnums(Map<String, Map<String, DeadlockClass>> packageClasses) {
+		for(Map<String, DeadlockClass> m : packageClasses.values()) {
+			for(DeadlockClass c : m.values()) {
+				setImportEnums(c);
 			}
 		}
 	}
 
-	private void includeAllClasses() {
-		includeAllClassesInternal(PublicClasses, false);
-		includeAllClassesInternal(PrivateClasses, true);
-	}
-
 	public DeadlockGraph generateSourceGraph(DeadlockStorage metadata) {
+		long t = DeadlockMetrics.startTimer();
+		this.metadata = metadata;
 		reinstanceCachedMaps(metadata);
 		objectSetId = defineObjectSet();
 
 		PublicClasses = metadata.getPublicClasses();
 		PrivateClasses = metadata.getPrivateClasses();
 
-		AllClasses = new HashMap<>();
-		includeAllClasses();
-
-		for (DeadlockClass c : AllClasses.values()) {
-			setImportEnums(c);
-		}
+		setImportEnums(PublicClasses);
+		setImportEnums(PrivateClasses);
 
 		Locks = metadata.getLocks();
+		LockIds = generateLockIds();
 		ElementalDataTypes = metadata.getElementalDataTypes();
 		ElementalTypes = metadata.getElementalTypes();
 		ReflectedClasses = metadata.getReflectedClasses();
@@ -1127,27 +1339,49 @@ public abstract class DeadlockGraphMaker {
 
 		generateSuperReferences(PublicClasses);
 		generateSuperReferences(PrivateClasses);
+		t = DeadlockMetrics.stopTimer(Phase.GRAPH_TYPES, t);
 
 		generateMethodNodes(PublicClasses);
 		generateMethodNodes(PrivateClasses);
+		generateRunnableMethodNodes();
 
 		DeadlockFunction.installTypeReferences(ElementalDataTypes, CompoundDataTypes, SuperClasses, EnumDataTypes, IgnoredDataRange, ElementalTypes[0]);
+		t = DeadlockMetrics.stopTimer(Phase.GRAPH_NODES, t);
 
+		int graphWorkers = DeadlockConfig.getGraphWorkers();
+		ExecutorService workers = (graphWorkers > 1) ? Executors.newFixedThreadPool(graphWorkers) : null;
+		long deferred = DeadlockMetrics.getPhaseNanos(Phase.GRAPH_DEFERRED_BODIES);
 		try {
-			parseMethodNodes(PublicClasses);
-			parseMethodNodes(PrivateClasses);
-
-			parseRunnableMethodNodes();
+			parseMethodNodes(workers);
 		} catch (Exception e) {
 			//e.printStackTrace();
 
 			//dumpMemory();
 			throw e;
+		} finally {
+			if(workers != null) workers.shutdown();
 		}
+		DeadlockMetrics.stopTimer(Phase.GRAPH_RESOLVE, t + DeadlockMetrics.getPhaseNanos(Phase.GRAPH_DEFERRED_BODIES) - deferred);    // deferred bodies are accounted apart
 
 		return new DeadlockGraph(GraphFunctionIds, GraphFunctions);
 	}
 
+	public void updateMethodNodes(Collection<DeadlockFunction> methods) {
+		// the given methods get their bodies read again, their graphs are rebuilt over the unchanged declarations
+		List<Pair<DeadlockFunction, DeadlockClass>> methodNodes = new LinkedList<>();
+		for(DeadlockFunction f : methods) {
+			DeadlockGraphMethod node = GraphFunctions.get(f);
+			GraphFunctions.put(f, new DeadlockGraphMethod(node.getId(), node.getSourceName()));
+
+			methodNodes.add(new Pair<>(f, f.getSourceClass()));
+		}
+
+		long t = DeadlockMetrics.startTimer();
+		long deferred = DeadlockMetrics.getPhaseNanos(Phase.GRAPH_DEFERRED_BODIES);
+		parseMethodNodes(methodNodes, null);
+		DeadlockMetrics.stopTimer(Phase.GRAPH_RESOLVE, t + DeadlockMetrics.getPhaseNanos(Phase.GRAPH_DEFERRED_BODIES) - deferred);
+	}
+
 	private List<Pair<Integer, Pair<DeadlockFunction, DeadlockGraphMethod>>> generateDumpEntries() {
 		List<Pair<Integer, Pair<DeadlockFunction, DeadlockGraphMethod>>> dumpData = new LinkedList<>();
 
@@ -1170,6 +1404,14 @@ public abstract class DeadlockGraphMaker {
 		return dumpData;
 	}
 
+	public String getDataTypeName(Integer type) {
+		List<Integer> compound = CompoundDataTypes.get(type);
+		if(compound != null) type = compound.get(compound.size() - 1);     // template arguments are not named
+
+		String name = EveryDataTypes.get(type);
+		return (name != null) ? name : "void";
+	}
+
 	public String translateId(Map<Integer, String> map, Integer i) {
 		if(map.get(i) == null) return "(" + i + ")";
 		return map.get(i);
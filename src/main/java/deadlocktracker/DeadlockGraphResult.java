@@ -11,6 +11,7 @@
  */
 package deadlocktracker;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -18,7 +19,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import deadlocktracker.containers.DeadlockEntry;
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.containers.Pair;
+import deadlocktracker.report.DeadlockReportWriter;
+import deadlocktracker.report.DeadlockWitness;
 
 /**
  *
@@ -26,21 +33,107 @@ import deadlocktracker.containers.DeadlockEntry;
  */
 public class DeadlockGraphResult {
 
+	private static int compareFunctionIds(int[] ids1, int[] ids2) {
+		int n = Math.min(ids1.length, ids2.length);
+		for (int i = 0; i < n; i++) {
+			if (ids1[i] != ids2[i]) return (ids1[i] < ids2[i]) ? -1 : 1;
+		}
+
+		return Integer.compare(ids1.length, ids2.length);
+	}
+
 	private static List<DeadlockEntry> sortDeadlockEntries(Set<DeadlockEntry> deadlocksSet) {
 		List<DeadlockEntry> deadlocks = new ArrayList<>(deadlocksSet);
 
 		Collections.sort(deadlocks, new Comparator<DeadlockEntry>() {
 			@Override
 			public int compare(DeadlockEntry e1, DeadlockEntry e2) {
-				return ((e1.getFunction1().getId() < e2.getFunction1().getId()) ? -1 : ((e1.getFunction1().getId() == e2.getFunction1().getId()) ? ((e1.getFunction2().getId() < e2.getFunction2().getId()) ? -1 : ((e1.getFunction2().getId() == e2.getFunction2().getId()) ? 0 : 1)) : 1));
+				int c = e1.getLockId1().compareTo(e2.getLockId1());
+				if (c != 0) return c;
+
+				c = e1.getLockId2().compareTo(e2.getLockId2());
+				if (c != 0) return c;
+
+				c = compareFunctionIds(e1.getFunctionIds1(), e2.getFunctionIds1());
+				if (c != 0) return c;
+
+				return compareFunctionIds(e1.getFunctionIds2(), e2.getFunctionIds2());
 			}
 		});
 
 		return deadlocks;
 	}
 
-	public static void reportDeadlocks(Set<DeadlockEntry> deadlocksSet, Map<Integer, String> LockNames) {
+	static String getFunctionName(DeadlockFunction f) {
+		return DeadlockStorage.getCanonClassName(f.getSourceClass()) + "." + f.getName();
+	}
+
+	private static void addWitnesses(List<DeadlockWitness> witnesses, String lockName, int[] functionIds, DeadlockGraphCruiser cruiser) {
+		for (int id : functionIds) {
+			DeadlockFunction f = cruiser.getFunction(id);
+
+			List<String> path = new ArrayList<>();
+			for (DeadlockFunction p : cruiser.getWitnessPath(f)) {
+				path.add(getFunctionName(p));
+			}
+
+			witnesses.add(new DeadlockWitness(lockName, getFunctionName(f), path));
+		}
+	}
+
+	private static void writeDeadlocks(List<DeadlockEntry> deadlocks, Map<Integer, String> LockNames, DeadlockGraphCruiser cruiser) {
+		DeadlockReportWriter writer = DeadlockConfig.getReportWriterFromProperty("report_format", "report_file");
+		if (writer == null) return;
+
+		try (DeadlockReportWriter w = writer) {
+			for (DeadlockEntry e : deadlocks) {
+				String lockName1 = LockNames.get(e.getLockId1());
+				String lockName2 = LockNames.get(e.getLockId2());
+
+				List<DeadlockWitness> witnesses = new ArrayList<>();
+				addWitnesses(witnesses, lockName1, e.getFunctionIds1(), cruiser);
+				addWitnesses(witnesses, lockName2, e.getFunctionIds2(), cruiser);
+
+				w.writeDeadlock(lockName1, lockName2, witnesses);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public static void reportMergedDeadlocks(List<Pair<String, String>> deadlocks, Map<String, List<DeadlockWitness>> LockWitnesses) {
+		// cycles found over lock orders merged from several runs, locks held by name
+		DeadlockReportWriter writer = DeadlockConfig.getReportWriterFromProperty("report_format", "report_file");
+		if (writer != null) {
+			try (DeadlockReportWriter w = writer) {
+				for (Pair<String, String> e : deadlocks) {
+					List<DeadlockWitness> witnesses = new ArrayList<>(LockWitnesses.get(e.left));
+					witnesses.addAll(LockWitnesses.get(e.right));
+
+					w.writeDeadlock(e.left, e.right, witnesses);
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		Set<String> locks = new LinkedHashSet<>();
+		for (Pair<String, String> e : deadlocks) {
+			locks.add(e.left);
+			locks.add(e.right);
+		}
+
+		System.out.println();
+		System.out.println("List of deadlocks:");
+		for (String s : locks) {
+			System.out.println(s);
+		}
+	}
+
+	public static void reportDeadlocks(Set<DeadlockEntry> deadlocksSet, Map<Integer, String> LockNames, DeadlockGraphCruiser cruiser) {
 		List<DeadlockEntry> deadlocks = sortDeadlockEntries(deadlocksSet);
+		writeDeadlocks(deadlocks, LockNames, cruiser);
+
 		Set<Integer> locks = new HashSet<>();
 		for (DeadlockEntry e : deadlocks) {
 			locks.add(e.getLockId1());
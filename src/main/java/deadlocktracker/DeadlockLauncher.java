@@ -0,0 +1,219 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import deadlocktracker.DeadlockAnalysisException.Reason;
+import deadlocktracker.graph.maker.CSharpGraph;
+import deadlocktracker.graph.maker.JavaGraph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Command line entry point, running the search without Maven (e.g. from a pre-commit hook).
+ *
+ * @author RonanLana
+ */
+public class DeadlockLauncher {
+
+	private static final int EXIT_CLEAN = 0;
+	private static final int EXIT_DEADLOCKS = 1;
+	private static final int EXIT_USAGE = 2;
+	private static final int EXIT_NO_SOURCES = 2;
+	static final int EXIT_FAILURE = 3;
+
+	private static void printUsage() {
+		System.out.println("Usage: deadlocktracker [options] <source root>...");
+		System.out.println("  -l, --language <Java|C#>      language of the sources (default: Java)");
+		System.out.println("  -e, --entry-points <list>     entry methods, as on the config 'entry_points'");
+		System.out.println("  -f, --format <text|jsonl|sarif>  report format (default: text)");
+		System.out.println("  -o, --output <file>           report file (default: deadlocks.<format>)");
+		System.out.println("  -c, --config <file>           config file read before the options");
+		System.out.println("      --extensions <list>       source file extensions (default: by language)");
+		System.out.println("  -D<key>=<value>               any other config property");
+		System.out.println("      --warm-up                 loads the parsers over small samples, then exits");
+		System.out.println("Exits with 0 when no deadlock is found, 1 when any is, 2 on bad usage or when no source");
+		System.out.println("file is found, 3 when the analysis fails.");
+	}
+
+	private static String getOptionValue(String[] args, int i) {
+		if (i + 1 >= args.length) {
+			System.out.println("[Warning] Missing value for option '" + args[i] + "'");
+			return null;
+		}
+
+		return args[i + 1];
+	}
+
+	private static boolean loadConfigFile(Properties prop, String fileName) {
+		try (FileInputStream fis = new FileInputStream(fileName)) {
+			prop.load(fis);
+			return true;
+		} catch (IOException ex) {
+			System.out.println("[Warning] Could not read config file '" + fileName + "'");
+			return false;
+		}
+	}
+
+	private static String getDefaultExtensions(String language) {
+		return language.trim().equalsIgnoreCase("c#") ? "cs" : "java";
+	}
+
+	private static Properties parseArguments(String[] args) {
+		Properties prop = new Properties();
+		List<String> roots = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			String a = args[i];
+			String key;
+			switch (a) {
+			case "-l":
+			case "--language":
+				key = "language";
+				break;
+
+			case "-e":
+			case "--entry-points":
+				key = "entry_points";
+				break;
+
+			case "-f":
+			case "--format":
+				key = "report_format";
+				break;
+
+			case "-o":
+			case "--output":
+				key = "report_file";
+				break;
+
+			case "--extensions":
+				key = "extensions";
+				break;
+
+			case "-c":
+			case "--config":
+				String fileName = getOptionValue(args, i);
+				if (fileName == null || !loadConfigFile(prop, fileName)) return null;
+				i++;
+				continue;
+
+			default:
+				if (a.startsWith("-D") && a.indexOf('=') > 2) {
+					int s = a.indexOf('=');
+					prop.setProperty(a.substring(2, s), a.substring(s + 1));
+				} else if (a.startsWith("-")) {
+					System.out.println("[Warning] Unknown option '" + a + "'");
+					return null;
+				} else {
+					roots.add(a);
+				}
+				continue;
+			}
+
+			String value = getOptionValue(args, i);
+			if (value == null) return null;
+
+			prop.setProperty(key, value);
+			i++;
+		}
+
+		if (!roots.isEmpty()) prop.setProperty("src_folder", String.join(File.pathSeparator, roots));
+		if (prop.getProperty("src_folder") == null) {
+			System.out.println("[Warning] No source root given");
+			return null;
+		}
+
+		if (prop.getProperty("language") == null) prop.setProperty("language", "Java");
+		if (prop.getProperty("extensions") == null) prop.setProperty("extensions", getDefaultExtensions(prop.getProperty("language")));
+		if (prop.getProperty("entry_points") == null) prop.setProperty("entry_points", "main,run");
+
+		String format = prop.getProperty("report_format");
+		if (format != null) {
+			format = format.trim().toLowerCase();
+			if (format.contentEquals("text")) {
+				prop.remove("report_format");    // the console listing is always printed
+			} else if (prop.getProperty("report_file") == null) {
+				prop.setProperty("report_file", "deadlocks." + format);
+			}
+		}
+
+		return prop;
+	}
+
+	private static void parseSample(DeadlockGraphMaker g, String extension, String content) throws IOException {
+		File f = File.createTempFile("deadlocktracker", extension);
+		try {
+			Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+			g.parseSourceTree(f.getAbsolutePath());
+		} finally {
+			f.delete();
+		}
+	}
+
+	private static void warmUpParsers() throws IOException {
+		// a training run for the class data sharing archive: lexers, parsers and their ATNs get loaded here
+		parseSample(new JavaGraph(), ".java", "package p;\n\nimport java.util.concurrent.locks.Lock;\n\n"
+				+ "public class A extends B implements C {\n\tprivate final Lock l = null;\n\n"
+				+ "\tpublic synchronized void run() {\n\tl.lock();\n\ttry {\n\t\tfor (int i = 0; i < 2; i++) b(i, \"s\");\n\t} finally {\n\t\tl.unlock();\n\t}\n\t}\n}\n");
+		parseSample(new CSharpGraph(), ".cs", "using System;\n\nnamespace P {\n\tpublic class A : B {\n"
+				+ "\t\tprivate readonly object l = new object();\n\n"
+				+ "\t\tpublic void Run() {\n\t\t\tlock (l) {\n\t\t\t\tforeach (var i in b) C(i, \"s\");\n\t\t\t}\n\t\t}\n\t}\n}\n");
+	}
+
+	static int getExitStatus(DeadlockAnalysisException e) {
+		return (e.getReason() == Reason.NO_SOURCE_FILES) ? EXIT_NO_SOURCES : EXIT_FAILURE;
+	}
+
+	public static void main(String[] args) {
+		for (String a : args) {
+			if (a.contentEquals("-h") || a.contentEquals("--help")) {
+				printUsage();
+				return;
+			}
+
+			if (a.contentEquals("--warm-up")) {
+				try {
+					warmUpParsers();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				return;
+			}
+		}
+
+		Properties prop = parseArguments(args);
+		if (prop == null) {
+			printUsage();
+			System.exit(EXIT_USAGE);
+		}
+
+		DeadlockConfig.loadProperties(prop);
+		try {
+			int deadlocks = DeadlockTracker.runDeadlockTracker();
+			System.exit(deadlocks > 0 ? EXIT_DEADLOCKS : EXIT_CLEAN);
+		} catch (DeadlockAnalysisException e) {
+			System.out.println("[Error] " + e.getMessage());
+			System.exit(getExitStatus(e));
+		} catch (RuntimeException e) {
+			e.printStackTrace();    // a crash is no deadlock finding, exit 1 would say otherwise
+			System.exit(EXIT_FAILURE);
+		}
+	}
+
+}
@@ -0,0 +1,277 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockMetrics {
+
+	public enum UnresolvedType {
+		NO_SOURCE_CLASS("type referenced with no source class"),
+		UNKNOWN_PACKAGE("source class package not in project"),
+		UNKNOWN_TYPE("type not declared in project"),
+		UNKNOWN_COMPOUND_TYPE("template argument on unknown compound type");
+
+		private final String description;
+
+		private UnresolvedType(String description) {
+			this.description = description;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	public enum Phase {
+		FILE_DISCOVERY("file discovery"),
+		DFA_CACHE("source files: parser DFA cache"),
+		SOURCE_LEX("source files: lexing"),
+		SOURCE_PARSE("source files: parsing"),
+		SOURCE_READ("source files: reading"),
+		COMPILE_IMPORTS("compile: class index and imports"),
+		COMPILE_HIERARCHY("compile: class hierarchy and locks"),
+		COMPILE_DATA_TYPES("compile: data types"),
+		COMPILE_RUNNABLES("compile: runnable functions"),
+		GRAPH_TYPES("graph: type tables"),
+		GRAPH_NODES("graph: method nodes"),
+		GRAPH_DEFERRED_BODIES("graph: deferred method bodies"),
+		GRAPH_RESOLVE("graph: method resolution"),
+		CRUISE_FUNCTION_LOCKS("cruiser: find function locks"),
+		CRUISE_LOCK_DEPENDENCIES("cruiser: fetch lock dependencies"),
+		CRUISE_DEADLOCKS("cruiser: detect deadlocks");
+
+		private final String description;
+
+		private Phase(String description) {
+			this.description = description;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	public enum Cardinality {
+		FILES("files"),
+		CLASSES("classes"),
+		FUNCTIONS("functions"),
+		GRAPH_NODES("graph nodes"),
+		LOCKS("locks"),
+		LOCK_ORDER_EDGES("lock-order edges"),
+		PARSER_DFA_STATES("parser DFA states"),
+		PARSER_DFA_RESETS("parser DFA resets"),
+		SKELETON_FILES("files read as skeletons");
+
+		private final String description;
+
+		private Cardinality(String description) {
+			this.description = description;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	private static final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+	private static final AtomicLongArray phaseCounts = new AtomicLongArray(Phase.values().length);
+	private static final AtomicLongArray cardinalities = new AtomicLongArray(Cardinality.values().length);
+
+	private static final AtomicLongArray unresolvedTypes = new AtomicLongArray(UnresolvedType.values().length);
+
+	private static final AtomicLong resolvedMethods = new AtomicLong();
+	private static final AtomicLong skippedMethods = new AtomicLong();
+	private static final AtomicLong lockFreeFunctions = new AtomicLong();
+
+	public static void resetMetrics() {
+		for (int i = 0; i < phaseNanos.length(); i++) {
+			phaseNanos.set(i, 0);
+			phaseCounts.set(i, 0);
+		}
+		for (int i = 0; i < cardinalities.length(); i++) {
+			cardinalities.set(i, 0);
+		}
+		for (int i = 0; i < unresolvedTypes.length(); i++) {
+			unresolvedTypes.set(i, 0);
+		}
+
+		resolvedMethods.set(0);
+		skippedMethods.set(0);
+		lockFreeFunctions.set(0);
+	}
+
+	public static long startTimer() {
+		return System.nanoTime();
+	}
+
+	// accounts the time elapsed since start on the phase, returns the current time to chain the next one
+	public static long stopTimer(Phase phase, long start) {
+		long now = System.nanoTime();
+		phaseNanos.addAndGet(phase.ordinal(), now - start);
+		phaseCounts.incrementAndGet(phase.ordinal());
+
+		return now;
+	}
+
+	public static long getPhaseNanos(Phase phase) {
+		return phaseNanos.get(phase.ordinal());
+	}
+
+	public static long getPhaseCount(Phase phase) {
+		return phaseCounts.get(phase.ordinal());
+	}
+
+	public static void setCount(Cardinality c, long count) {
+		cardinalities.set(c.ordinal(), count);
+	}
+
+	public static void addCount(Cardinality c, long count) {
+		cardinalities.addAndGet(c.ordinal(), count);
+	}
+
+	public static long getCount(Cardinality c) {
+		return cardinalities.get(c.ordinal());
+	}
+
+	public static void countUnresolvedType(UnresolvedType category) {
+		unresolvedTypes.incrementAndGet(category.ordinal());
+	}
+
+	public static long[] getUnresolvedTypeCounts() {
+		long[] counts = new long[unresolvedTypes.length()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = unresolvedTypes.get(i);
+		}
+
+		return counts;
+	}
+
+	// the unresolved types counted since the given counts were taken, null if none
+	public static long[] getUnresolvedTypeCountsSince(long[] counts) {
+		long[] diff = null;
+		for (int i = 0; i < counts.length; i++) {
+			long d = unresolvedTypes.get(i) - counts[i];
+			if (d != 0) {
+				if (diff == null) diff = new long[counts.length];
+				diff[i] = d;
+			}
+		}
+
+		return diff;
+	}
+
+	public static void addUnresolvedTypeCounts(long[] counts) {
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) unresolvedTypes.addAndGet(i, counts[i]);
+		}
+	}
+
+	public static long getUnresolvedTypeCount(UnresolvedType category) {
+		return unresolvedTypes.get(category.ordinal());
+	}
+
+	public static void countGraphMethods(long resolved, long skipped) {
+		resolvedMethods.addAndGet(resolved);
+		skippedMethods.addAndGet(skipped);
+	}
+
+	public static long getResolvedMethodCount() {
+		return resolvedMethods.get();
+	}
+
+	public static long getSkippedMethodCount() {
+		return skippedMethods.get();
+	}
+
+	public static void countLockFreeFunctions(long count) {
+		lockFreeFunctions.set(count);
+	}
+
+	public static long getLockFreeFunctionCount() {
+		return lockFreeFunctions.get();
+	}
+
+	public static void reportMetrics() {
+		StringBuilder s = new StringBuilder("Unresolved types:\n");
+		for (UnresolvedType u : UnresolvedType.values()) {
+			s.append(String.format("  %-45s %d\n", u.getDescription(), getUnresolvedTypeCount(u)));
+		}
+
+		s.append("\nGraph methods:\n");
+		s.append(String.format("  %-45s %d\n", "resolved", getResolvedMethodCount()));
+		s.append(String.format("  %-45s %d\n", "skipped, unreachable from entry points", getSkippedMethodCount()));
+		s.append(String.format("  %-45s %d\n", "pruned from cruising, no reachable lock", getLockFreeFunctionCount()));
+
+		s.append("\nCounts:\n");
+		for (Cardinality c : Cardinality.values()) {
+			s.append(String.format("  %-45s %d\n", c.getDescription(), getCount(c)));
+		}
+
+		s.append("\nPhase timings:\n");
+		long total = 0;
+		for (Phase p : Phase.values()) {
+			s.append(String.format("  %-45s %12.3f ms %8d\n", p.getDescription(), getPhaseNanos(p) / 1e6, getPhaseCount(p)));
+			total += getPhaseNanos(p);
+		}
+		s.append(String.format("  %-45s %12.3f ms\n", "total", total / 1e6));
+
+		System.out.println(s);
+	}
+
+	private static void writeJsonEntry(Writer w, String key, long value, boolean first) throws IOException {
+		w.write((first ? "" : ",") + "\"" + key + "\":" + value);
+	}
+
+	public static void writeMetricsFile(String fileName) {
+		try (Writer w = new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8)) {
+			w.write("{\"phases\":{");
+			boolean first = true;
+			for (Phase p : Phase.values()) {
+				w.write((first ? "" : ",") + "\"" + p.name().toLowerCase() + "\":{\"nanos\":" + getPhaseNanos(p) + ",\"count\":" + getPhaseCount(p) + "}");
+				first = false;
+			}
+
+			w.write("},\"counts\":{");
+			first = true;
+			for (Cardinality c : Cardinality.values()) {
+				writeJsonEntry(w, c.name().toLowerCase(), getCount(c), first);
+				first = false;
+			}
+
+			w.write("},\"unresolvedTypes\":{");
+			first = true;
+			for (UnresolvedType u : UnresolvedType.values()) {
+				writeJsonEntry(w, u.name().toLowerCase(), getUnresolvedTypeCount(u), first);
+				first = false;
+			}
+
+			w.write("},\"graphMethods\":{");
+			writeJsonEntry(w, "resolved", getResolvedMethodCount(), true);
+			writeJsonEntry(w, "skipped", getSkippedMethodCount(), false);
+			writeJsonEntry(w, "pruned", getLockFreeFunctionCount(), false);
+			w.write("}}\n");
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
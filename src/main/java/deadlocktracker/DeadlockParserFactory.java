@@ -0,0 +1,126 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContext;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+
+import deadlocktracker.DeadlockMetrics.Cardinality;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Runs the source parsers. The prediction DFAs of a grammar are shared by all its parsers and grow with
+ * every file parsed; past "dfa_state_limit" states they are dropped, and learned again from the next parse.
+ *
+ * @author RonanLana
+ */
+public class DeadlockParserFactory {
+
+	private static final ReentrantReadWriteLock parsing = new ReentrantReadWriteLock();     // DFAs are only dropped between parses
+	private static final Field contextCacheField = getContextCacheField();     // no clear on the runtime
+
+	private static volatile Integer stateLimit = null;
+
+	private static Field getContextCacheField() {
+		try {
+			Field f = PredictionContextCache.class.getDeclaredField("cache");
+			f.setAccessible(true);
+			return f;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static int getStateLimit() {
+		Integer limit = stateLimit;
+		if (limit == null) {
+			limit = DeadlockConfig.getDfaStateLimit();
+			stateLimit = limit;
+		}
+
+		return limit;
+	}
+
+	public static void resetStateLimit() {
+		stateLimit = null;     // read again from the config
+	}
+
+	public static int countDfaStates(Parser parser) {
+		int count = 0;
+		for (DFA dfa : parser.getInterpreter().decisionToDFA) {
+			count += dfa.states.size();
+		}
+
+		return count;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void clearContextCache(PredictionContextCache cache) {
+		try {
+			((Map<PredictionContext, PredictionContext>) contextCacheField.get(cache)).clear();
+		} catch (IllegalAccessException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static void clearDfa(Parser parser, int limit) {
+		parsing.writeLock().lock();
+		try {
+			if (countDfaStates(parser) <= limit) return;     // dropped meanwhile by another worker
+
+			ParserATNSimulator interpreter = parser.getInterpreter();
+			interpreter.clearDFA();
+			clearContextCache(interpreter.getSharedContextCache());
+
+			DeadlockMetrics.addCount(Cardinality.PARSER_DFA_RESETS, 1);
+		} finally {
+			parsing.writeLock().unlock();
+		}
+	}
+
+	public static <P extends Parser, T> T parse(P parser, Function<P, T> rule) {
+		T tree;
+		parsing.readLock().lock();
+		try {
+			tree = rule.apply(parser);
+		} finally {
+			parsing.readLock().unlock();
+		}
+
+		int limit = getStateLimit();
+		if (limit > 0 && countDfaStates(parser) > limit) {     // the DFAs are only walked when bounded
+			clearDfa(parser, limit);
+		}
+
+		return tree;
+	}
+
+	static Parser createIdleParser(DeadlockGraphMaker g) {
+		return g.createParser(new CommonTokenStream(new ListTokenSource(Collections.<Token>emptyList())));
+	}
+
+	public static void countDfaStates(DeadlockGraphMaker g) {
+		DeadlockMetrics.setCount(Cardinality.PARSER_DFA_STATES, countDfaStates(createIdleParser(g)));
+	}
+
+}
@@ -0,0 +1,323 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import org.apache.maven.plugin.AbstractMojo;
+
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import deadlocktracker.DeadlockAnalysisException.Reason;
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.containers.Pair;
+import deadlocktracker.report.DeadlockWitness;
+import deadlocktracker.source.CSharpReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Splits the entry points over local worker JVMs. Each worker builds the graph reachable from its
+ * own entry points and writes the lock orders found there, then these are merged to look for cycles.
+ * Every worker reads the whole source tree itself, as the project tables hold parser state that is
+ * not written out; only method resolution, the graph and its search are split.
+ *
+ * @author RonanLana
+ */
+public class DeadlockShards {
+
+	private static final String EDGE = "edge";
+	private static final String WITNESS = "witness";
+
+	private static Map<String, Set<String>> LockOrders = new TreeMap<>();    // held lock -> locks acquired while holding it
+	private static Map<String, Map<String, List<String>>> LockWitnesses = new TreeMap<>();    // lock -> acquiring function -> call path
+
+	private static void writeLockOrders(String fileName, DeadlockGraphCruiser c, Map<Integer, String> LockNames) throws IOException {
+		Set<Integer> locks = new HashSet<>();
+
+		try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
+			for (Entry<Integer, Set<Integer>> e : c.getLockOrderEdges().entrySet()) {
+				for (Integer k : e.getValue()) {
+					w.write(EDGE + "\t" + LockNames.get(e.getKey()) + "\t" + LockNames.get(k) + "\n");
+				}
+
+				locks.add(e.getKey());
+				locks.addAll(e.getValue());
+			}
+
+			for (Integer i : locks) {
+				for (DeadlockFunction f : c.getLockFunctions(i)) {
+					StringBuilder s = new StringBuilder(WITNESS);
+					s.append('\t').append(LockNames.get(i)).append('\t').append(DeadlockGraphResult.getFunctionName(f));
+					for (DeadlockFunction p : c.getWitnessPath(f)) {
+						s.append('\t').append(DeadlockGraphResult.getFunctionName(p));
+					}
+
+					w.write(s.append('\n').toString());
+				}
+			}
+		}
+	}
+
+	private static void readLockOrders(File file) throws IOException {
+		try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				String[] s = line.split("\t");
+
+				if (s[0].contentEquals(EDGE)) {
+					Set<String> locks = LockOrders.get(s[1]);
+					if (locks == null) {
+						locks = new TreeSet<>();
+						LockOrders.put(s[1], locks);
+					}
+					locks.add(s[2]);
+				} else if (s[0].contentEquals(WITNESS)) {
+					Map<String, List<String>> functions = LockWitnesses.get(s[1]);
+					if (functions == null) {
+						functions = new TreeMap<>();
+						LockWitnesses.put(s[1], functions);
+					}
+
+					if (!functions.containsKey(s[2])) {
+						functions.put(s[2], Arrays.asList(s).subList(3, s.length));
+					}
+				}
+			}
+		}
+	}
+
+	private static List<Pair<String, String>> detectMergedDeadlocks() {
+		List<Pair<String, String>> deadlocks = new ArrayList<>();
+
+		for (Entry<String, Set<String>> e : LockOrders.entrySet()) {
+			for (String k : e.getValue()) {
+				if (e.getKey().compareTo(k) < 0) {
+					Set<String> locks = LockOrders.get(k);
+					if (locks != null && locks.contains(e.getKey())) {
+						deadlocks.add(new Pair<>(e.getKey(), k));
+					}
+				}
+			}
+		}
+
+		return deadlocks;
+	}
+
+	private static List<DeadlockWitness> getLockWitnesses(String lockName) {
+		List<DeadlockWitness> witnesses = new ArrayList<>();
+
+		Map<String, List<String>> functions = LockWitnesses.get(lockName);
+		if (functions != null) {
+			for (Entry<String, List<String>> e : functions.entrySet()) {
+				witnesses.add(new DeadlockWitness(lockName, e.getKey(), e.getValue()));
+			}
+		}
+
+		return witnesses;
+	}
+
+	private static void addCodeSource(Set<String> paths, Class<?> c) {
+		CodeSource cs = c.getProtectionDomain().getCodeSource();
+		if (cs == null) return;
+
+		try {
+			paths.add(new File(cs.getLocation().toURI()).getPath());
+		} catch (URISyntaxException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static String getWorkerClassPath() {
+		// run as a plugin, the launcher class path holds Maven itself, so the archives of the classes in use are given instead
+		Set<String> paths = new LinkedHashSet<>();
+		addCodeSource(paths, DeadlockShards.class);
+		addCodeSource(paths, ParseTreeListener.class);
+		addCodeSource(paths, AbstractMojo.class);
+
+		if (paths.isEmpty()) return System.getProperty("java.class.path");
+		return String.join(File.pathSeparator, paths);
+	}
+
+	private static List<String> getWorkerCommand(int index, int count, File file, File config) {
+		List<String> cmd = new ArrayList<>();
+		cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+
+		String jvmArgs = DeadlockConfig.getProperty("shard_jvm_args");
+		if (jvmArgs != null) {
+			for (String s : jvmArgs.trim().split("\\s+")) {
+				if (!s.isEmpty()) cmd.add(s);
+			}
+		}
+
+		cmd.add("-cp");
+		cmd.add(getWorkerClassPath());
+		cmd.add(DeadlockShards.class.getName());
+		cmd.add(String.valueOf(index));
+		cmd.add(String.valueOf(count));
+		cmd.add(file.getPath());
+		cmd.add(config.getPath());
+
+		return cmd;
+	}
+
+	static int executeShardedTracker(int count) throws DeadlockAnalysisException {
+		try {
+			String folder = DeadlockConfig.getProperty("shard_folder");
+			File dir = (folder != null) ? new File(folder.trim()) : Files.createTempDirectory("deadlocktracker-shards").toFile();
+			dir.mkdirs();
+
+			File config = new File(dir, "shard.cfg");     // the workers get the properties in use, which may not come from the config file
+			try (FileOutputStream fos = new FileOutputStream(config)) {
+				DeadlockConfig.getProperties().store(fos, null);
+			}
+
+			List<Process> workers = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				ProcessBuilder pb = new ProcessBuilder(getWorkerCommand(i, count, new File(dir, "shard-" + i + ".txt"), config));
+				pb.redirectErrorStream(true);
+				pb.redirectOutput(new File(dir, "shard-" + i + ".log"));
+
+				workers.add(pb.start());
+			}
+			System.out.println("Started " + count + " shard workers, writing on '" + dir.getPath() + "'\n");
+
+			List<File> files = new ArrayList<>();
+			List<Integer> failed = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				File file = new File(dir, "shard-" + i + ".txt");
+				File log = new File(dir, "shard-" + i + ".log");
+
+				if (workers.get(i).waitFor() != 0 || !file.isFile()) {
+					System.out.println("[Warning] Shard worker " + i + " failed. See '" + log.getPath() + "'");
+					failed.add(i);
+					continue;
+				}
+
+				readLockOrders(file);
+				files.add(file);
+				files.add(log);
+				System.out.println("Shard " + (i + 1) + "/" + count + " complete");
+			}
+
+			if (!failed.isEmpty()) {
+				// the entry points of a failed worker are not searched, a merged result would hide its deadlocks
+				throw new DeadlockAnalysisException(Reason.ANALYSIS_FAILED, "Shard workers " + failed + " failed, logs kept on '" + dir.getPath() + "'");
+			}
+
+			List<Pair<String, String>> deadlocks = detectMergedDeadlocks();
+
+			Map<String, List<DeadlockWitness>> witnesses = new TreeMap<>();
+			for (Pair<String, String> e : deadlocks) {
+				witnesses.put(e.left, getLockWitnesses(e.left));
+				witnesses.put(e.right, getLockWitnesses(e.right));
+			}
+
+			int edges = 0;
+			for (Set<String> s : LockOrders.values()) {
+				edges += s.size();
+			}
+			System.out.println("\nMerged lock-order edges: " + edges);
+
+			DeadlockGraphResult.reportMergedDeadlocks(deadlocks, witnesses);
+
+			if (folder == null) {
+				config.delete();
+				for (File f : files) {
+					f.delete();
+				}
+				dir.delete();
+			}
+
+			return deadlocks.size();
+		} catch (IOException e) {
+			throw new DeadlockAnalysisException(Reason.ANALYSIS_FAILED, "Sharded run failed: " + e.getMessage(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DeadlockAnalysisException(Reason.ANALYSIS_FAILED, "Sharded run interrupted", e);
+		}
+	}
+
+	private static void executeShardWorker(int index, int count, String fileName, String configName) throws IOException, DeadlockAnalysisException {
+		if (configName != null) {
+			Properties prop = new Properties();
+			try (FileInputStream fis = new FileInputStream(configName)) {
+				prop.load(fis);
+			}
+
+			DeadlockConfig.loadProperties(prop);
+		} else {
+			DeadlockTracker.loadPropertiesFile();
+		}
+		DeadlockConfig.setShard(index, count);
+
+		DeadlockGraphMaker g = DeadlockConfig.getGraphMakerFromProperty(("language"));
+		ParseTreeListener l = DeadlockConfig.getSourceParserFromProperty(("language"));
+
+		String directoryName = DeadlockConfig.getProperty("src_folder");
+		if (l instanceof CSharpReader) ((CSharpReader) l).setSourceDirPrefixPath(directoryName);
+
+		DeadlockStorage md = DeadlockTracker.parseSourceProject(directoryName, g, l);
+		System.out.println("Project parse complete!\n");
+
+		DeadlockGraph mdg = g.generateSourceGraph(md);
+		System.out.println("Project graph generated!\n");
+
+		Map<Integer, String> r = DeadlockTracker.getGraphLockNames(g);
+		DeadlockGraphCruiser c = new DeadlockGraphCruiser();
+		c.runSourceGraph(mdg, md, r);
+
+		writeLockOrders(fileName, c, r);
+		DeadlockMetrics.reportMetrics();
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 3) {
+			System.out.println("Usage: DeadlockShards <shard index> <shard count> <output file> [config file]");
+			System.exit(2);
+		}
+
+		try {
+			executeShardWorker(Integer.parseInt(args[0]), Integer.parseInt(args[1]), args[2], (args.length > 3) ? args[3] : null);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		} catch (DeadlockAnalysisException e) {
+			System.out.println("[Error] " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+}
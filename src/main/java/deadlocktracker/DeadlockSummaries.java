@@ -0,0 +1,359 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import deadlocktracker.containers.DeadlockClass;
+import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
+import deadlocktracker.containers.DeadlockEnum;
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockLockSummary;
+import deadlocktracker.containers.DeadlockLockSummary.MethodSummary;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.graph.DeadlockGraphEntry;
+import deadlocktracker.graph.DeadlockGraphMethod;
+import deadlocktracker.graph.DeadlockGraphNode;
+import deadlocktracker.source.CSharpReader;
+import deadlocktracker.source.JavaReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Lock summaries of a module: the classes it declares, and for each method the locks acquired and
+ * released through its calls, in order. Another module may load them in place of parsing these sources.
+ *
+ * @author RonanLana
+ */
+public class DeadlockSummaries {
+
+	private static final String HEADER = "# DeadlockTracker lock summary";
+	private static final int MAX_LOCK_EVENTS = 10000;
+
+	private static Map<Integer, DeadlockFunction> functions = new HashMap<>();
+	private static Map<DeadlockFunction, List<Integer>> functionEvents = new HashMap<>();    // lock id, negated on unlocks, 0 for scripts
+	private static Map<DeadlockFunction, Integer> functionStack = new HashMap<>();     // stack depth of the functions being summarized
+
+	// results taken while a recursive call was open, they only hold as long as the lowest function they called back stays on the stack
+	private static Map<DeadlockFunction, List<Integer>> openEvents = new HashMap<>();
+	private static Map<DeadlockFunction, Integer> openDepths = new HashMap<>();
+	private static int openDepth = Integer.MAX_VALUE;
+
+	private static List<String> splitList(String s) {
+		if (s.isEmpty()) return Collections.emptyList();
+		return Arrays.asList(s.split(","));
+	}
+
+	private static String joinList(Iterable<String> list) {
+		return String.join(",", list);
+	}
+
+	private static void readLockSummaryFile(String fileName, ParseTreeListener reader) throws IOException {
+		try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8))) {
+			String line = r.readLine();
+			if (line == null || !line.startsWith(HEADER)) {
+				System.out.println("[Warning] '" + fileName + "' is not a lock summary file, skipped");
+				return;
+			}
+
+			String language = line.substring(HEADER.length()).trim();
+			if (!language.equalsIgnoreCase(DeadlockConfig.getProperty("language").trim())) {
+				System.out.println("[Warning] Lock summary '" + fileName + "' was made for " + language + ", skipped");
+				return;
+			}
+
+			List<DeadlockLockSummary> summaries = new ArrayList<>();
+			DeadlockLockSummary summary = null;
+			while ((line = r.readLine()) != null) {
+				String[] s = line.split("\t", -1);
+
+				if (s[0].contentEquals("class")) {
+					summary = new DeadlockLockSummary(DeadlockClassType.valueOf(s[1]), s[2], s[3], Boolean.parseBoolean(s[4]), new ArrayList<>(splitList(s[5])), splitList(s[6]), splitList(s[7]));
+					summaries.add(summary);
+				} else if (s[0].contentEquals("method") && summary != null) {
+					List<String> events = Arrays.asList(s).subList(6, s.length);
+					summary.addMethod(new MethodSummary(s[1], s[2], splitList(s[3]), Boolean.parseBoolean(s[4]), Boolean.parseBoolean(s[5]), events));
+				}
+			}
+
+			for (DeadlockLockSummary ls : summaries) {
+				if (reader instanceof JavaReader) {
+					JavaReader.readLockSummary(ls);
+				} else if (reader instanceof CSharpReader) {
+					CSharpReader.readLockSummary(ls);
+				}
+			}
+
+			System.out.println("Loaded " + summaries.size() + " summarized classes from '" + fileName + "'");
+		}
+	}
+
+	static void readLockSummaries(ParseTreeListener reader) {
+		String files = DeadlockConfig.getProperty("lock_summaries");
+		if (files == null) return;
+
+		for (String s : files.split(",")) {
+			s = s.trim();
+			if (s.isEmpty()) continue;
+
+			try {
+				readLockSummaryFile(s, reader);
+			} catch (IOException e) {
+				System.out.println("[Warning] Could not read lock summary '" + s + "': " + e.getMessage());
+			}
+		}
+	}
+
+	private static List<Integer> compactLockEvents(List<Integer> events) {
+		// a balanced lock segment repeated under the same held locks adds no lock order, only its first occurrence is kept
+		List<Integer> ret = new ArrayList<>(events.size());
+		List<Integer> held = new ArrayList<>();
+		List<Integer> starts = new ArrayList<>();
+		Set<List<Integer>> seen = new HashSet<>();
+
+		for (Integer e : events) {
+			if (e > 0) {
+				held.add(e);
+				starts.add(ret.size());
+				ret.add(e);
+			} else if (e < 0) {
+				int idx = held.lastIndexOf(-e);
+				ret.add(e);
+
+				if (idx < 0) {      // releases a lock held by some caller
+					Collections.fill(starts, -1);
+					seen.clear();
+				} else if (idx < held.size() - 1) {
+					held.remove(idx);
+					starts.remove(idx);
+					for (int i = idx; i < starts.size(); i++) {
+						starts.set(i, -1);
+					}
+				} else {
+					held.remove(idx);
+					int start = starts.remove(idx);
+
+					if (start > -1) {
+						List<Integer> key = new ArrayList<>(held);
+						key.add(Integer.MIN_VALUE);
+						key.addAll(ret.subList(start, ret.size()));
+
+						if (!seen.add(key)) ret.subList(start, ret.size()).clear();
+					}
+				}
+			} else {
+				List<Integer> key = new ArrayList<>(held);
+				key.add(Integer.MIN_VALUE);
+				key.add(0);
+
+				if (seen.add(key)) ret.add(e);
+			}
+		}
+
+		return ret;
+	}
+
+	private static List<Integer> getLockEvents(DeadlockFunction f, Map<DeadlockFunction, DeadlockGraphMethod> g) {
+		List<Integer> events = functionEvents.get(f);
+		if (events != null) return events;
+
+		Integer depth = functionStack.get(f);
+		if (depth != null) {     // recursive calls are taken once
+			openDepth = Math.min(openDepth, depth);
+			return Collections.emptyList();
+		}
+
+		events = openEvents.get(f);
+		if (events != null) {
+			openDepth = Math.min(openDepth, openDepths.get(f));
+			return events;
+		}
+
+		depth = functionStack.size();
+		functionStack.put(f, depth);
+
+		int callerDepth = openDepth;
+		openDepth = Integer.MAX_VALUE;
+
+		events = new ArrayList<>();
+		DeadlockGraphMethod m = g.get(f);
+		if (m != null) {
+			for (DeadlockGraphEntry e : m.getEntryList()) {
+				for (DeadlockGraphNode n : e.getGraphEntryPoints()) {
+					switch (n.getType()) {
+					case CALL:
+						DeadlockFunction callee = functions.get(n.getValue());
+						if (callee != null) events.addAll(getLockEvents(callee, g));
+						break;
+
+					case LOCK:
+						events.add(n.getLockId());
+						break;
+
+					case UNLOCK:
+						events.add(-n.getLockId());
+						break;
+
+					case SCRIPT:
+						events.add(0);
+						break;
+					}
+				}
+			}
+
+			events = compactLockEvents(events);
+		}
+
+		if (events.size() > MAX_LOCK_EVENTS) {
+			System.out.println("[Warning] Lock summary of " + DeadlockGraphResult.getFunctionName(f) + " cut at " + MAX_LOCK_EVENTS + " lock events");
+			events = new ArrayList<>(events.subList(0, MAX_LOCK_EVENTS));
+		}
+
+		functionStack.remove(f);
+		for (Iterator<Entry<DeadlockFunction, Integer>> it = openDepths.entrySet().iterator(); it.hasNext(); ) {
+			Entry<DeadlockFunction, Integer> e = it.next();
+			if (e.getValue() >= depth) {     // called back into f, which is no longer open
+				openEvents.remove(e.getKey());
+				it.remove();
+			}
+		}
+
+		if (openDepth < depth) {     // called back into an open caller, whose events are missing here: f is summed up again on its own summary
+			openEvents.put(f, events);
+			openDepths.put(f, openDepth);
+			openDepth = Math.min(callerDepth, openDepth);
+		} else {
+			functionEvents.put(f, events);
+			openDepth = callerDepth;
+		}
+
+		return events;
+	}
+
+	private static String getTypeName(DeadlockGraphMaker g, Integer type, Set<String> imports) {
+		String name = g.getDataTypeName(type);
+
+		String className = name;
+		while (className.endsWith("[]")) {
+			className = className.substring(0, className.length() - 2);
+		}
+		if (className.indexOf('.') > -1) imports.add(className);
+
+		return name;
+	}
+
+	private static void writeLockSummary(Writer w, DeadlockClass c, DeadlockGraphMaker g, Map<DeadlockFunction, DeadlockGraphMethod> graph, Map<Integer, String> LockNames) throws IOException {
+		Set<String> imports = new LinkedHashSet<>();
+
+		List<String> supers = new ArrayList<>();
+		for (DeadlockClass s : c.getSuperList()) {
+			supers.add(DeadlockStorage.getCanonClassName(s));
+		}
+		imports.addAll(supers);
+
+		List<String> enums = new ArrayList<>();
+		if (c instanceof DeadlockEnum) {
+			enums.addAll(((DeadlockEnum) c).getEnumItems());
+			Collections.sort(enums);
+		}
+
+		StringBuilder methods = new StringBuilder();
+		for (DeadlockFunction f : c.getMethods()) {
+			List<String> params = new ArrayList<>();
+			for (Integer t : f.getParameters()) {
+				params.add(getTypeName(g, t, imports));
+			}
+
+			Integer ret = f.getReturn();
+			methods.append("method\t").append(f.getName())
+					.append('\t').append((ret != null && ret == -1) ? "" : getTypeName(g, ret, imports))
+					.append('\t').append(joinList(params))
+					.append('\t').append(f.isAbstract())
+					.append('\t').append(f.isEllipsis());
+
+			for (Integer e : getLockEvents(f, graph)) {
+				if (e == 0) {
+					methods.append('\t').append(DeadlockLockSummary.SCRIPT_EVENT);
+				} else {
+					String lockName = LockNames.get(Math.abs(e));
+					if (lockName != null) methods.append('\t').append(e > 0 ? '+' : '-').append(lockName);
+				}
+			}
+			methods.append('\n');
+		}
+
+		w.write("class\t" + c.getType() + "\t" + c.getPackageName() + "\t" + c.getPathName() + "\t" + c.isAbstract()
+				+ "\t" + joinList(supers) + "\t" + joinList(imports) + "\t" + joinList(enums) + "\n");
+		w.write(methods.toString());
+	}
+
+	private static boolean isSummarizedClass(DeadlockClass c) {
+		for (DeadlockFunction f : c.getMethods()) {
+			if (DeadlockStorage.getLockSummaries().containsKey(f)) return true;
+		}
+
+		return false;
+	}
+
+	static void writeLockSummaries(String fileName, DeadlockGraphMaker g, DeadlockGraph graph, Map<Integer, String> LockNames) {
+		for (Entry<DeadlockFunction, Integer> e : graph.getFunctionIds().entrySet()) {
+			functions.put(e.getValue(), e.getKey());
+		}
+
+		// public classes only, by canonical name, these are the ones reachable from other modules
+		Map<String, DeadlockClass> classes = new TreeMap<>();
+		for (Map<String, DeadlockClass> m : DeadlockStorage.getPublicClasses().values()) {
+			for (DeadlockClass c : m.values()) {
+				if (!isSummarizedClass(c)) classes.put(DeadlockStorage.getCanonClassName(c), c);
+			}
+		}
+
+		try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
+			w.write(HEADER + " " + DeadlockConfig.getProperty("language").trim() + "\n");
+			for (DeadlockClass c : classes.values()) {
+				writeLockSummary(w, c, g, graph.getFunctionGraph(), LockNames);
+			}
+
+			System.out.println("Lock summaries of " + classes.size() + " classes written on '" + fileName + "'");
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			functions.clear();
+			functionEvents.clear();
+			functionStack.clear();
+			openEvents.clear();
+			openDepths.clear();
+			openDepth = Integer.MAX_VALUE;
+		}
+	}
+
+}
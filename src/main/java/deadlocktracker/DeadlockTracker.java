@@ -17,9 +17,14 @@ import org.apache.maven.plugins.annotations.Mojo;
 
 import org.antlr.v4.runtime.tree.*;
 
+import deadlocktracker.DeadlockAnalysisException.Reason;
+import deadlocktracker.DeadlockMetrics.Cardinality;
+import deadlocktracker.DeadlockMetrics.Phase;
+import deadlocktracker.containers.DeadlockClass;
 import deadlocktracker.containers.DeadlockEntry;
 import deadlocktracker.containers.DeadlockLock;
 import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.graph.DeadlockGraphNode;
 import deadlocktracker.source.JavaReader;
 import deadlocktracker.source.CSharpReader;
 
@@ -39,7 +44,7 @@ import java.util.Set;
 @Mojo(name = "execute")
 public class DeadlockTracker extends AbstractMojo {
 
-	private static boolean isSourceFile(String fName) {
+	static boolean isSourceFile(String fName) {
 		List<String> list = DeadlockConfig.getAssociatedFileExtensions();
 
 		if (list.isEmpty()) {
@@ -55,7 +60,7 @@ public class DeadlockTracker extends AbstractMojo {
 		return false;
 	}
 
-	private static void listSourceFiles(String directoryName, List<String> files) {
+	static void listSourceFiles(String directoryName, List<String> files) {
 		File directory = new File(directoryName);
 
 		// get all the files from a directory
@@ -72,16 +77,71 @@ public class DeadlockTracker extends AbstractMojo {
 		}
 	}
 
-	private static DeadlockStorage parseSourceProject(String directoryName, DeadlockGraphMaker g, ParseTreeListener reader) {
+	static List<String> getSourceRoots(String directoryName) {
+		// several source roots may be given, split as on a class path
+		List<String> roots = new ArrayList<>();
+		for (String s : directoryName.split(File.pathSeparator)) {
+			s = s.trim();
+			if (!s.isEmpty()) roots.add(s);
+		}
+
+		return roots;
+	}
+
+	public static List<String> discoverSourceFiles(String directoryName) {
+		long t = DeadlockMetrics.startTimer();
 		List<String> fileNames = new ArrayList<>();
-		listSourceFiles(directoryName, fileNames);
+		for (String root : getSourceRoots(directoryName)) {
+			File f = new File(root);
+			if (f.isFile()) {
+				fileNames.add(f.getAbsolutePath());
+			} else if (f.isDirectory()) {
+				listSourceFiles(root, fileNames);
+			} else {
+				System.out.println("[Warning] Source folder '" + root + "' not found");
+			}
+		}
+		DeadlockMetrics.stopTimer(Phase.FILE_DISCOVERY, t);
+		DeadlockMetrics.setCount(Cardinality.FILES, fileNames.size());
+
+		return fileNames;
+	}
+
+	static List<String> findProjectFiles(String directoryName) throws DeadlockAnalysisException {
+		if (directoryName == null) {
+			throw new DeadlockAnalysisException(Reason.ANALYSIS_FAILED, "No source folder given, set 'src_folder'");
+		}
+
+		for (String root : getSourceRoots(directoryName)) {
+			if (!new File(root).exists()) {
+				throw new DeadlockAnalysisException(Reason.ANALYSIS_FAILED, "Source folder '" + root + "' not found");
+			}
+		}
+
+		List<String> fileNames = discoverSourceFiles(directoryName);
+		if (fileNames.isEmpty()) {
+			throw new DeadlockAnalysisException(Reason.NO_SOURCE_FILES, "No source file found on '" + directoryName + "'");
+		}
+
+		return fileNames;
+	}
 
+	static DeadlockStorage parseSourceProject(String directoryName, DeadlockGraphMaker g, ParseTreeListener reader) throws DeadlockAnalysisException {
+		List<String> fileNames = findProjectFiles(directoryName);
+
+		DeadlockDfaCache.loadDfaCache(g);
 		for(String fName : fileNames) {
 			System.out.println("Parsing '" + fName + "'");
 			g.parseSourceFile(fName, reader);
 		}
 		System.out.println("Project file reading complete!\n");
 
+		return compileSourceProject(reader);
+	}
+
+	static DeadlockStorage compileSourceProject(ParseTreeListener reader) {
+		DeadlockSummaries.readLockSummaries(reader);
+
 		DeadlockStorage ret;
 		if (reader instanceof JavaReader) {
 			ret = ((JavaReader) reader).compileProjectData();
@@ -94,7 +154,7 @@ public class DeadlockTracker extends AbstractMojo {
 		return ret;     // finally, updates the storage table with relevant associations
 	}
 
-	private static void loadPropertiesFile() {
+	static void loadPropertiesFile() {
 		Properties prop = new Properties();
 		String fileName = "config.cfg";
 		try (FileInputStream fis = new FileInputStream(fileName)) {
@@ -106,7 +166,7 @@ public class DeadlockTracker extends AbstractMojo {
 		DeadlockConfig.loadProperties(prop);
 	}
 
-	private static Map<Integer, String> getGraphLockNames(DeadlockGraphMaker g) {
+	static Map<Integer, String> getGraphLockNames(DeadlockGraphMaker g) {
 		Map<Integer, String> r = new HashMap<>();
 
 		Map<String, DeadlockLock> m = g.getGraphLocks();
@@ -117,35 +177,96 @@ public class DeadlockTracker extends AbstractMojo {
 		return r;
 	}
 
-	private static void executeDeadlockTracker() {
+	private static int countClasses(Map<String, Map<String, DeadlockClass>> packageClasses) {
+		int count = 0;
+		for (Map<String, DeadlockClass> m : packageClasses.values()) {
+			count += m.size();
+		}
+
+		return count;
+	}
+
+	private static void executeDeadlockTracker() throws DeadlockAnalysisException {
 		loadPropertiesFile();
+		runDeadlockTracker();
+	}
+
+	static int runDeadlockTracker() throws DeadlockAnalysisException {
+		String directoryName = DeadlockConfig.getProperty("src_folder");
+
+		int shards = DeadlockConfig.getShardCount();
+		if (shards > 1) {
+			findProjectFiles(directoryName);     // fails before any worker is started
+			return DeadlockShards.executeShardedTracker(shards);
+		}
 
 		DeadlockGraphMaker g = DeadlockConfig.getGraphMakerFromProperty(("language"));
 		ParseTreeListener l = DeadlockConfig.getSourceParserFromProperty(("language"));
 
-		String directoryName = DeadlockConfig.getProperty("src_folder");
 		if (l instanceof CSharpReader) ((CSharpReader) l).setSourceDirPrefixPath(directoryName);
 
 		DeadlockStorage md = parseSourceProject(directoryName, g, l);
 		System.out.println("Project parse complete!\n");
 
+		return analyzeSourceProject(g, md);
+	}
+
+	static DeadlockGraph generateProjectGraph(DeadlockGraphMaker g, DeadlockStorage md) {
 		DeadlockGraph mdg = g.generateSourceGraph(md);
 		System.out.println("Project graph generated!\n");
+		DeadlockParserFactory.countDfaStates(g);     // every source file and deferred body is parsed by now
+		if (!DeadlockConfig.isShardWorker()) DeadlockDfaCache.saveDfaCache(g);     // deferred method bodies are parsed on the graph, the workers of a run would all write it
 
 		Map<Integer, String> r = getGraphLockNames(g);
-		Set<DeadlockEntry> mds = new DeadlockGraphCruiser().runSourceGraph(mdg, md, r);
-		DeadlockGraphResult.reportDeadlocks(mds, r);
+		DeadlockMetrics.setCount(Cardinality.CLASSES, countClasses(DeadlockStorage.getPublicClasses()) + countClasses(DeadlockStorage.getPrivateClasses()));
+		DeadlockMetrics.setCount(Cardinality.FUNCTIONS, mdg.getFunctionGraph().size());
+		DeadlockMetrics.setCount(Cardinality.GRAPH_NODES, DeadlockGraphNode.getNodeCount());
+		DeadlockMetrics.setCount(Cardinality.LOCKS, r.size());
+		String summaryFile = DeadlockConfig.getProperty("lock_summary_file");
+		if (summaryFile != null) DeadlockSummaries.writeLockSummaries(summaryFile, g, mdg, r);
+
+		return mdg;
+	}
+
+	static int reportProjectDeadlocks(Set<DeadlockEntry> mds, Map<Integer, String> r, DeadlockGraphCruiser c) {
+		DeadlockGraphResult.reportDeadlocks(mds, r, c);
+
+		DeadlockMetrics.reportMetrics();
+
+		String metricsFile = DeadlockConfig.getProperty("metrics_file");
+		if (metricsFile != null) DeadlockMetrics.writeMetricsFile(metricsFile);
 
 		//DeadlockGraphMaker.dumpGraph();
+		return mds.size();
+	}
+
+	static int analyzeSourceProject(DeadlockGraphMaker g, DeadlockStorage md) {
+		DeadlockGraph mdg = generateProjectGraph(g, md);
+
+		Map<Integer, String> r = getGraphLockNames(g);
+		DeadlockGraphCruiser c = new DeadlockGraphCruiser();
+		return reportProjectDeadlocks(c.runSourceGraph(mdg, md, r), r, c);
 	}
 
 	@Override
 	public void execute() throws MojoExecutionException {
-		executeDeadlockTracker();
+		try {
+			executeDeadlockTracker();
+		} catch (DeadlockAnalysisException e) {
+			throw new MojoExecutionException(e.getMessage(), e);
+		}
 	}
 
 	public static void main(String[] args) {
-		executeDeadlockTracker();
+		try {
+			executeDeadlockTracker();
+		} catch (DeadlockAnalysisException e) {
+			System.out.println("[Error] " + e.getMessage());
+			System.exit(DeadlockLauncher.getExitStatus(e));
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			System.exit(DeadlockLauncher.EXIT_FAILURE);
+		}
 	}
 
 }
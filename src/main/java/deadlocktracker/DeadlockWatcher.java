@@ -0,0 +1,363 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.containers.Pair;
+import deadlocktracker.graph.DeadlockGraphEntry;
+import deadlocktracker.graph.maker.JavaGraph;
+import deadlocktracker.source.JavaReader;
+import deadlocktracker.source.JavaSkeleton;
+import deadlocktracker.source.CSharpReader;
+import language.java.JavaLexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ *
+ * @author RonanLana
+ */
+@Mojo(name = "watch")
+public class DeadlockWatcher extends AbstractMojo {
+
+	private static final long SETTLE_MILLIS = 100;     // editors save in bursts, changes are collected until the folder settles
+
+	private static Map<String, ParseTree> SourceTrees = new LinkedHashMap<>();    // oldest parse first, dropped past the cap
+	private static Map<String, WatchedFile> WatchedFiles = new HashMap<>();
+	private static Map<WatchKey, Path> WatchedFolders = new HashMap<>();
+	private static Set<String> SourceFiles = new HashSet<>();
+
+	// the project last analyzed, kept to redo the search over edited method bodies
+	private static DeadlockStorage Storage;
+	private static DeadlockGraphMaker GraphMaker;
+	private static DeadlockGraph Graph;
+	static DeadlockGraphCruiser Cruiser;
+	static Map<Integer, String> LockNames;
+
+	private static class WatchedFile {
+		long skeleton;      // declarations of the file, method bodies cut off
+		long[] bodies;      // method bodies in source order
+		boolean[] locking;  // bodies declaring locks when read, these are never read apart
+		int[] starts;       // source offsets of the bodies, on the file as parsed
+		List<Pair<DeadlockFunction, Consumer<List<Token>>>> methods;    // of the bodies, on the last project reading
+	}
+
+	private static void registerFolders(WatchService watcher, Path folder) throws IOException {
+		try (Stream<Path> paths = Files.walk(folder)) {
+			for (Path p : (Iterable<Path>) paths::iterator) {
+				if (Files.isDirectory(p)) {
+					WatchKey key = p.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+					WatchedFolders.put(key, p);
+				}
+			}
+		}
+	}
+
+	private static void resetSourceProject(ParseTreeListener reader) {
+		if (reader instanceof JavaReader) {
+			JavaReader.resetProjectData();
+		} else if (reader instanceof CSharpReader) {
+			CSharpReader.resetProjectData();
+		}
+
+		DeadlockGraphEntry.resetInterned();
+		DeadlockGraphCruiser.resetCruiser();
+		DeadlockMetrics.resetMetrics();
+	}
+
+	private static boolean isWatchingBodies() {
+		// lazy graphs leave methods unresolved, which an edit may make reachable
+		return DeadlockConfig.getProperty("language").trim().equalsIgnoreCase("java") && !DeadlockConfig.isLazyGraph();
+	}
+
+	private static List<List<Token>> readMethodBodies(String fileName, WatchedFile w) throws IOException {
+		CommonTokenStream commonTokenStream = new CommonTokenStream(new JavaLexer(CharStreams.fromFileName(fileName)));
+		commonTokenStream.fill();
+
+		return readMethodBodies(commonTokenStream.getTokens(), w);
+	}
+
+	private static List<List<Token>> readMethodBodies(List<Token> tokens, WatchedFile w) {
+		List<Token> skeleton = new ArrayList<>();
+		Map<Integer, List<Token>> bodies = JavaSkeleton.extractMethodBodies(tokens, skeleton);
+
+		List<Integer> starts = new ArrayList<>(bodies.keySet());
+		Collections.sort(starts);
+
+		w.skeleton = JavaSkeleton.hashTokens(skeleton);
+		w.bodies = new long[starts.size()];
+		w.locking = new boolean[starts.size()];
+		w.starts = new int[starts.size()];
+
+		List<List<Token>> list = new ArrayList<>(starts.size());
+		for (int i = 0; i < starts.size(); i++) {
+			List<Token> body = bodies.get(starts.get(i));
+			w.bodies[i] = JavaSkeleton.hashTokens(body);
+			w.locking[i] = JavaSkeleton.declaresLocks(body);
+			w.starts[i] = starts.get(i);
+
+			list.add(body);
+		}
+
+		return list;
+	}
+
+	private static void matchMethodBodies(WatchedFile w, Map<Integer, Pair<DeadlockFunction, Consumer<List<Token>>>> methodBodies) {
+		w.methods = new ArrayList<>(w.starts.length);
+		for (int start : w.starts) {
+			Pair<DeadlockFunction, Consumer<List<Token>>> p = methodBodies.get(start);
+			if (p == null) {
+				w.methods = null;     // edits on this file are read over the whole project
+				return;
+			}
+
+			w.methods.add(p);
+		}
+	}
+
+	static void analyzeWatchedProject(String directoryName, Set<String> changed) throws DeadlockAnalysisException {
+		DeadlockGraphMaker g = DeadlockConfig.getGraphMakerFromProperty(("language"));
+		ParseTreeListener l = DeadlockConfig.getSourceParserFromProperty(("language"));
+
+		resetSourceProject(l);
+		Graph = null;
+		if (l instanceof CSharpReader) ((CSharpReader) l).setSourceDirPrefixPath(directoryName);
+
+		List<String> fileNames = DeadlockTracker.findProjectFiles(directoryName);
+		SourceFiles = new HashSet<>(fileNames);
+		SourceTrees.keySet().removeAll(changed);
+		SourceTrees.keySet().retainAll(SourceFiles);
+		WatchedFiles.keySet().retainAll(SourceFiles);
+
+		boolean watchingBodies = isWatchingBodies();
+		if (!watchingBodies) WatchedFiles.clear();
+
+		// only files missing from the cache are lexed and parsed again, every tree is read over the fresh project tables
+		int parsed = 0;
+		for (String fName : fileNames) {
+			ParseTree tree = SourceTrees.get(fName);
+			try {
+				if (tree == null) {
+					System.out.println("Parsing '" + fName + "'");
+					if (watchingBodies) {
+						// the bodies are fingerprinted on the tokens lexed for the parse
+						List<Token> tokens = new ArrayList<>();
+						tree = ((JavaGraph) g).parseSourceTree(fName, tokens);
+
+						WatchedFile w = new WatchedFile();
+						readMethodBodies(tokens, w);
+						WatchedFiles.put(fName, w);
+					} else {
+						tree = g.parseSourceTree(fName);
+					}
+					SourceTrees.put(fName, tree);
+					parsed++;
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+				continue;
+			}
+
+			g.readSourceTree(fName, tree, l);
+
+			WatchedFile w = WatchedFiles.get(fName);
+			if (w != null) matchMethodBodies(w, JavaReader.getMethodBodies());
+		}
+		System.out.println("Project file reading complete! (" + parsed + " of " + fileNames.size() + " files parsed)\n");
+
+		int cachedTrees = DeadlockConfig.getWatchCachedTrees();
+		Iterator<String> it = SourceTrees.keySet().iterator();
+		while (SourceTrees.size() > cachedTrees) {
+			it.next();
+			it.remove();
+		}
+
+		Storage = DeadlockTracker.compileSourceProject(l);
+		System.out.println("Project parse complete!\n");
+
+		GraphMaker = g;
+		Graph = DeadlockTracker.generateProjectGraph(g, Storage);
+		LockNames = DeadlockTracker.getGraphLockNames(g);
+		Cruiser = new DeadlockGraphCruiser();
+		DeadlockTracker.reportProjectDeadlocks(Cruiser.runSourceGraph(Graph, Storage, LockNames), LockNames, Cruiser);
+	}
+
+	static boolean updateWatchedProject(Set<String> changed) {
+		// edits confined to method bodies are read over the project in place, other edits need it read again
+		if (Graph == null || !isWatchingBodies()) return false;
+
+		Map<Pair<DeadlockFunction, Consumer<List<Token>>>, List<Token>> edited = new LinkedHashMap<>();
+		Map<String, WatchedFile> editedFiles = new HashMap<>();
+		for (String fName : changed) {
+			boolean source = SourceFiles.contains(fName);
+			if (source != (DeadlockTracker.isSourceFile(fName) && new File(fName).isFile())) return false;    // created or deleted
+			if (!source) continue;
+
+			WatchedFile w = WatchedFiles.get(fName);
+			if (w == null || w.methods == null) return false;
+
+			WatchedFile n = new WatchedFile();
+			List<List<Token>> bodies;
+			try {
+				bodies = readMethodBodies(fName, n);
+			} catch (IOException e) {
+				return false;
+			}
+
+			if (n.skeleton != w.skeleton || n.bodies.length != w.bodies.length) return false;
+			for (int i = 0; i < n.bodies.length; i++) {
+				if (n.bodies[i] != w.bodies[i]) {
+					if (n.locking[i] || w.locking[i]) return false;
+					edited.put(w.methods.get(i), bodies.get(i));
+				}
+			}
+
+			n.methods = w.methods;
+			editedFiles.put(fName, n);
+		}
+
+		DeadlockMetrics.resetMetrics();
+		WatchedFiles.putAll(editedFiles);
+		SourceTrees.keySet().removeAll(editedFiles.keySet());     // stale trees, parsed again on the next project reading
+
+		List<DeadlockFunction> methods = new ArrayList<>(edited.size());
+		Set<Integer> changedIds = new HashSet<>();
+		for (Entry<Pair<DeadlockFunction, Consumer<List<Token>>>, List<Token>> e : edited.entrySet()) {
+			e.getKey().right.accept(e.getValue());     // read when the graph of the method is rebuilt
+			methods.add(e.getKey().left);
+			changedIds.add(e.getKey().left.getId());
+		}
+		System.out.println("Project method bodies updated! (" + methods.size() + " methods changed)\n");
+
+		GraphMaker.updateMethodNodes(methods);
+		DeadlockTracker.reportProjectDeadlocks(Cruiser.updateSourceGraph(Graph, Storage, changedIds, LockNames), LockNames, Cruiser);
+		return true;
+	}
+
+	private static void collectChangedFiles(WatchService watcher, WatchKey key, Set<String> changed) throws IOException {
+		Path folder = WatchedFolders.get(key);
+
+		for (WatchEvent<?> e : key.pollEvents()) {
+			if (e.kind() == StandardWatchEventKinds.OVERFLOW) {
+				changed.addAll(SourceFiles);    // events were lost, every file is parsed again
+				continue;
+			}
+			if (folder == null) continue;
+
+			Path p = folder.resolve((Path) e.context());
+			if (e.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(p)) {
+				registerFolders(watcher, p);
+			}
+
+			changed.add(p.toFile().getAbsolutePath());
+		}
+
+		if (!key.reset()) {
+			WatchedFolders.remove(key);
+		}
+	}
+
+	private static Set<String> awaitSourceChanges(WatchService watcher) throws IOException, InterruptedException {
+		Set<String> changed = new HashSet<>();
+
+		WatchKey key = watcher.take();
+		while (key != null) {
+			collectChangedFiles(watcher, key, changed);
+			key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+		}
+
+		return changed;
+	}
+
+	private static boolean hasSourceChanges(Set<String> changed) {
+		boolean ret = false;
+		for (String fName : changed) {
+			if (SourceFiles.contains(fName) || DeadlockTracker.isSourceFile(fName) && new File(fName).isFile()) {
+				ret = true;
+			}
+		}
+
+		return ret;
+	}
+
+	private static void executeDeadlockWatcher() {
+		DeadlockTracker.loadPropertiesFile();
+
+		String directoryName = DeadlockConfig.getProperty("src_folder");
+		try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+			for (String root : DeadlockTracker.getSourceRoots(directoryName)) {
+				registerFolders(watcher, new File(root).getAbsoluteFile().toPath());
+			}
+
+			Set<String> changed = Collections.emptySet();
+			while (true) {
+				try {
+					if (!updateWatchedProject(changed)) analyzeWatchedProject(directoryName, changed);
+				} catch (DeadlockAnalysisException e) {
+					System.out.println("[Error] " + e.getMessage());
+				}
+				System.out.println("Watching '" + directoryName + "' for changes...\n");
+
+				do {
+					changed = awaitSourceChanges(watcher);
+				} while (!hasSourceChanges(changed));
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		executeDeadlockWatcher();
+	}
+
+	public static void main(String[] args) {
+		executeDeadlockWatcher();
+	}
+
+}
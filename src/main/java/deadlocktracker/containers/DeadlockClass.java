@@ -15,12 +15,15 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import deadlocktracker.strings.InternedNames;
+
 /**
  *
  * @author RonanLana
@@ -31,6 +34,9 @@ public class DeadlockClass {
 	String packName;
 	boolean isAbstract;
 
+	String canonName;
+	int canonId = -1;
+
 	DeadlockClassType type;
 	Set<String> importedEnums = new HashSet<>();
 
@@ -51,7 +57,7 @@ public class DeadlockClass {
 	Map<String, List<String>> fullImportList = new HashMap<>();
 
 	List<DeadlockFunction> methods = new ArrayList<>();
-	Map<String, Integer> fields = new HashMap();
+	Map<String, Integer> fields = Collections.synchronizedMap(new HashMap<>());   // lock fields may be added while method graphs are built
 
 	public DeadlockClass(DeadlockClassType ctype, String className, String packageName, String classPathName, List<String> superNames, boolean abstracted, DeadlockClass parentClass) {
 		type = ctype;
@@ -86,6 +92,14 @@ public class DeadlockClass {
 		return type.equals(DeadlockClassType.INTERFACE);
 	}
 
+	public boolean isAbstract() {
+		return isAbstract;
+	}
+
+	public DeadlockClassType getType() {
+		return type;
+	}
+
 	public DeadlockClass getParent() {
 		return parent;
 	}
@@ -221,6 +235,34 @@ public class DeadlockClass {
 
 	public void setPackageName(String packName) {
 		this.packName = packName;
+
+		canonName = null;
+		canonId = -1;
+	}
+
+	public String getCanonName() {
+		if (canonName == null) {
+			if(packName.charAt(packName.length() - 1) == '.') {
+				canonName = packName + pathName;
+			} else {
+				String restName = pathName;
+
+				int idx = restName.indexOf('.');
+				restName = restName.substring(idx + 1);
+
+				canonName = packName + "." + restName;
+			}
+		}
+
+		return canonName;
+	}
+
+	public int getCanonId() {
+		if (canonId < 0) {
+			canonId = InternedNames.getId(getCanonName());
+		}
+
+		return canonId;
 	}
 
 	public List<String> getSuperNameList() {
@@ -0,0 +1,355 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.containers;
+
+import java.util.Arrays;
+
+/**
+ * Segment trie over dotted package, class and nested class paths. Segments are interned
+ * into int ids, and child edges are keyed by (node, segment id), so walking a dotted name
+ * never creates intermediate strings.
+ *
+ * @author RonanLana
+ */
+public class DeadlockClassTrie {
+
+	public static final int ROOT = 0;
+	public static final int NONE = -1;
+
+	// ---- interned segments ----
+	private String[] segments = new String[64];
+	private int[] segmentSlots = new int[128];     // holds segment id + 1, 0 means empty
+	private int segmentCount = 0;
+
+	// ---- (node, segment) -> child edges ----
+	private long[] edgeKeys = new long[256];
+	private int[] edgeValues = new int[256];        // holds child node + 1, 0 means empty
+	private int edgeCount = 0;
+
+	// ---- node data ----
+	private boolean[] publicPackage = new boolean[64];
+	private boolean[] privateScope = new boolean[64];
+	private DeadlockClass[] publicClass = new DeadlockClass[64];
+	private DeadlockClass[] privateClass = new DeadlockClass[64];
+	private int[] privateOwner = new int[64];
+	private int nodeCount = 1;
+
+	public DeadlockClassTrie() {
+		Arrays.fill(privateOwner, NONE);
+	}
+
+	private static int hashRange(String s, int from, int to) {
+		int h = 0;
+		for (int i = from; i < to; i++) {
+			h = 31 * h + s.charAt(i);
+		}
+
+		return h ^ (h >>> 16);
+	}
+
+	private static int hashEdge(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+	private static boolean matchesRange(String seg, String s, int from, int to) {
+		return seg.length() == to - from && seg.regionMatches(0, s, from, to - from);
+	}
+
+	private int findSegmentSlot(String s, int from, int to) {
+		int mask = segmentSlots.length - 1;
+		int i = hashRange(s, from, to) & mask;
+
+		while (segmentSlots[i] != 0) {
+			if (matchesRange(segments[segmentSlots[i] - 1], s, from, to)) {
+				return i;
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		return i;
+	}
+
+	public int getSegmentId(String s, int from, int to) {
+		int v = segmentSlots[findSegmentSlot(s, from, to)];
+		return v - 1;
+	}
+
+	private int internSegment(String s, int from, int to) {
+		int slot = findSegmentSlot(s, from, to);
+		if (segmentSlots[slot] != 0) {
+			return segmentSlots[slot] - 1;
+		}
+
+		if (segmentCount == segments.length) {
+			segments = Arrays.copyOf(segments, segmentCount * 2);
+		}
+
+		int id = segmentCount++;
+		segments[id] = s.substring(from, to);
+		segmentSlots[slot] = id + 1;
+
+		if (2 * segmentCount > segmentSlots.length) {
+			int[] old = segmentSlots;
+			segmentSlots = new int[old.length * 2];
+
+			int mask = segmentSlots.length - 1;
+			for (int v : old) {
+				if (v != 0) {
+					String seg = segments[v - 1];
+
+					int i = hashRange(seg, 0, seg.length()) & mask;
+					while (segmentSlots[i] != 0) i = (i + 1) & mask;
+					segmentSlots[i] = v;
+				}
+			}
+		}
+
+		return id;
+	}
+
+	private int findEdgeSlot(long key) {
+		int mask = edgeKeys.length - 1;
+		int i = hashEdge(key) & mask;
+
+		while (edgeValues[i] != 0 && edgeKeys[i] != key) {
+			i = (i + 1) & mask;
+		}
+
+		return i;
+	}
+
+	private int getChildBySegment(int node, int segmentId) {
+		if (segmentId < 0) return NONE;
+
+		long key = (((long) node) << 32) | segmentId;
+		return edgeValues[findEdgeSlot(key)] - 1;
+	}
+
+	private int newNode() {
+		if (nodeCount == publicPackage.length) {
+			int n = nodeCount * 2;
+
+			publicPackage = Arrays.copyOf(publicPackage, n);
+			privateScope = Arrays.copyOf(privateScope, n);
+			publicClass = Arrays.copyOf(publicClass, n);
+			privateClass = Arrays.copyOf(privateClass, n);
+
+			privateOwner = Arrays.copyOf(privateOwner, n);
+			Arrays.fill(privateOwner, nodeCount, n, NONE);
+		}
+
+		return nodeCount++;
+	}
+
+	private int addChild(int node, String s, int from, int to) {
+		int segmentId = internSegment(s, from, to);
+		long key = (((long) node) << 32) | segmentId;
+
+		int slot = findEdgeSlot(key);
+		if (edgeValues[slot] != 0) {
+			return edgeValues[slot] - 1;
+		}
+
+		int child = newNode();
+		edgeKeys[slot] = key;
+		edgeValues[slot] = child + 1;
+		edgeCount++;
+
+		if (2 * edgeCount > edgeKeys.length) {
+			long[] oldKeys = edgeKeys;
+			int[] oldValues = edgeValues;
+
+			edgeKeys = new long[oldKeys.length * 2];
+			edgeValues = new int[oldValues.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldValues[i] != 0) {
+					int j = findEdgeSlot(oldKeys[i]);
+					edgeKeys[j] = oldKeys[i];
+					edgeValues[j] = oldValues[i];
+				}
+			}
+		}
+
+		return child;
+	}
+
+	private int insertPath(String path) {
+		int node = ROOT;
+
+		int st = 0, len = path.length();
+		while (st < len) {
+			int en = path.indexOf('.', st);
+			if (en < 0) en = len;
+
+			if (en > st) node = addChild(node, path, st, en);
+			st = en + 1;
+		}
+
+		return node;
+	}
+
+	/**
+	 * Moves one segment down the trie, where the segment is the range [from, to) of s.
+	 */
+	public int getChild(int node, String s, int from, int to) {
+		if (node == NONE) return NONE;
+		return getChildBySegment(node, getSegmentId(s, from, to));
+	}
+
+	public int getNode(String path) {
+		int node = ROOT;
+
+		int st = 0, len = path.length();
+		while (st < len && node != NONE) {
+			int en = path.indexOf('.', st);
+			if (en < 0) en = len;
+
+			if (en > st) node = getChild(node, path, st, en);
+			st = en + 1;
+		}
+
+		return node;
+	}
+
+	public void insertPublicPackage(String packName) {
+		int node = insertPath(packName);     // may grow the node arrays
+		publicPackage[node] = true;
+	}
+
+	public void insertPublicClass(String classPath, DeadlockClass mdc) {
+		int node = insertPath(classPath);
+		publicClass[node] = mdc;
+	}
+
+	public int insertPrivateScope(String scopeName) {
+		int node = insertPath(scopeName);
+		privateScope[node] = true;
+
+		return node;
+	}
+
+	public void insertPrivateClass(String classPath, int scopeNode, DeadlockClass mdc) {
+		int node = insertPath(classPath);
+
+		privateClass[node] = mdc;
+		privateOwner[node] = scopeNode;
+	}
+
+	public boolean isPublicPackage(int node) {
+		return node != NONE && publicPackage[node];
+	}
+
+	public boolean isPrivateScope(int node) {
+		return node != NONE && privateScope[node];
+	}
+
+	public boolean isPrivateClassOf(int node, int scopeNode) {
+		return node != NONE && privateClass[node] != null && privateOwner[node] == scopeNode;
+	}
+
+	/**
+	 * Returns the class registered at a node, private classes taking precedence over public ones.
+	 */
+	public DeadlockClass getNodeClass(int node) {
+		if (node == NONE) return null;
+		return privateClass[node] != null ? privateClass[node] : publicClass[node];
+	}
+
+	public DeadlockClass getPublicClass(int node) {
+		if (node == NONE) return null;
+		return publicClass[node];
+	}
+
+	public DeadlockClass getClass(String path) {
+		return getNodeClass(getNode(path));
+	}
+
+	/**
+	 * Returns the end index (past the trailing '.') of the longest prefix of s that names a
+	 * public package, or -1 if there is none.
+	 */
+	public int getPublicPackageEnd(String s) {
+		int node = ROOT, ret = -1;
+
+		int st = 0, len = s.length();
+		while (st < len) {
+			int en = s.indexOf('.', st);
+			if (en < 0) break;
+
+			node = getChild(node, s, st, en);
+			if (node == NONE) break;
+
+			if (publicPackage[node]) ret = en + 1;
+			st = en + 1;
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Returns the end index of the longest proper prefix of s (one that is followed by a '.')
+	 * naming a private scope, or -1 if there is none. The scope node is placed on scopeOut[0].
+	 */
+	public int getLongestPrivateScopeEnd(String s, int[] scopeOut) {
+		int node = ROOT, ret = -1;
+
+		int st = 0, len = s.length();
+		while (st < len) {
+			int en = s.indexOf('.', st);
+			if (en < 0) break;
+
+			node = getChild(node, s, st, en);
+			if (node == NONE) break;
+
+			if (privateScope[node]) {
+				ret = en;
+				scopeOut[0] = node;
+			}
+			st = en + 1;
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Returns the end index of the shortest proper prefix of s naming a private scope (and not
+	 * a public package), or -1.
+	 */
+	public int getShortestPrivateScopeEnd(String s) {
+		int node = ROOT;
+
+		int st = 0, len = s.length();
+		while (st < len) {
+			int en = s.indexOf('.', st);
+			if (en < 0) break;
+
+			node = getChild(node, s, st, en);
+			if (node == NONE) break;
+
+			if (privateScope[node] && !publicPackage[node]) return en;
+			st = en + 1;
+		}
+
+		return -1;
+	}
+
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+}
@@ -11,7 +11,11 @@
  */
 package deadlocktracker.containers;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 /**
+ * A lock cycle, with the functions acquiring each of its locks held as sorted graph function ids.
  *
  * @author RonanLana
  */
@@ -19,14 +23,36 @@ public class DeadlockEntry {
 
 	Integer lockId1;
 	Integer lockId2;
-	DeadlockFunction f1;
-	DeadlockFunction f2;
+	int[] functionIds1;
+	int[] functionIds2;
+
+	public DeadlockEntry(Integer lockId1, Integer lockId2, Collection<DeadlockFunction> functions1, Collection<DeadlockFunction> functions2) {
+		if (lockId1 > lockId2) {    // cycles are held from their lowest lock id
+			Integer i = lockId1;
+			lockId1 = lockId2;
+			lockId2 = i;
+
+			Collection<DeadlockFunction> f = functions1;
+			functions1 = functions2;
+			functions2 = f;
+		}
 
-	public DeadlockEntry(Integer lockId1, Integer lockId2, DeadlockFunction f1, DeadlockFunction f2) {
 		this.lockId1 = lockId1;
 		this.lockId2 = lockId2;
-		this.f1 = f1;
-		this.f2 = f2;
+		this.functionIds1 = getFunctionIds(functions1);
+		this.functionIds2 = getFunctionIds(functions2);
+	}
+
+	private static int[] getFunctionIds(Collection<DeadlockFunction> functions) {
+		int[] ids = new int[functions.size()];
+
+		int i = 0;
+		for (DeadlockFunction f : functions) {
+			ids[i++] = f.getId();
+		}
+		Arrays.sort(ids);
+
+		return ids;
 	}
 
 	public Integer getLockId1() {
@@ -37,12 +63,33 @@ public class DeadlockEntry {
 		return this.lockId2;
 	}
 
-	public DeadlockFunction getFunction1() {
-		return this.f1;
+	public int[] getFunctionIds1() {
+		return this.functionIds1;
+	}
+
+	public int[] getFunctionIds2() {
+		return this.functionIds2;
+	}
+
+	public long getFunctionPairCount() {
+		return (long) functionIds1.length * functionIds2.length;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof DeadlockEntry)) return false;
+
+		DeadlockEntry e = (DeadlockEntry) o;
+		return lockId1.equals(e.lockId1) && lockId2.equals(e.lockId2)
+				&& Arrays.equals(functionIds1, e.functionIds1) && Arrays.equals(functionIds2, e.functionIds2);
 	}
 
-	public DeadlockFunction getFunction2() {
-		return this.f2;
+	@Override
+	public int hashCode() {
+		int h = 31 * lockId1 + lockId2;
+		h = 31 * h + Arrays.hashCode(functionIds1);
+		return 31 * h + Arrays.hashCode(functionIds2);
 	}
 
 }
@@ -11,11 +11,12 @@
  */
 package deadlocktracker.containers;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.function.IntUnaryOperator;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 
@@ -43,12 +44,18 @@ public class DeadlockFunction {
 
 	private Set<DeadlockLock> locks;
 
-	private Map<Long, List<Integer>> volatileLocalVars = new HashMap<>();
-	private Map<Long, Set<Integer>> localVars = new HashMap<>();
-	private Map<Long, String> localVarNames = new HashMap<>();
+	private long[] volatileLocalNames = new long[4];    // local variables declared on the source reading, by name hash
+	private int[] volatileLocalTypes = new int[4];      // and their type declarations, resolved after the reading
+	private int volatileLocalCount = 0;
+
+	private DeadlockSymbolTable localVars = new DeadlockSymbolTable(4);
 	private Map<Long, Integer> paramVars;
+	private DeadlockSymbolTable localSymbols;
+	private DeadlockSymbolTable localSymbolsParent;     // enclosing scope table flattened into localSymbols
 
 	private List<ParserRuleContext> methodCalls = new LinkedList<>();   // starts off as a string representing the call, after the source readings it will be parsed
+	private ParserRuleContext syncUnlockCall;     // closes the calls of a synchronized method, a body read again goes before it
+	private Runnable deferredBody;     // reads a method body left out of the source reading, once the method is reached
 
 	private List<Integer> paramTypes;
 	private Integer returnType;
@@ -92,44 +99,39 @@ public class DeadlockFunction {
 		locks.add(lock);
 	}
 
-	public Long addLocalVariable(Integer type, String name) {
-		Long hash = DeadlockStorage.hash64(name);
-
-
-		List<Integer> list = volatileLocalVars.get(hash);
-		if(list == null) {
-			list = new LinkedList<>();
+	public long addLocalVariable(int type, String name) {
+		long hash = DeadlockStorage.hash64(name);
 
-			localVarNames.put(hash, name);
-			volatileLocalVars.put(hash, list);
+		if (volatileLocalCount == volatileLocalNames.length) {
+			volatileLocalNames = Arrays.copyOf(volatileLocalNames, 2 * volatileLocalCount);
+			volatileLocalTypes = Arrays.copyOf(volatileLocalTypes, 2 * volatileLocalCount);
 		}
 
-		list.add(type);
-		return hash;
-	}
+		volatileLocalNames[volatileLocalCount] = hash;
+		volatileLocalTypes[volatileLocalCount] = type;
+		volatileLocalCount++;
 
-	public Map<Long, List<Integer>> getVolatileLocalVariables() {
-		return volatileLocalVars;
-	}
-
-	public void clearVolatileLocalVariables() {
-		volatileLocalVars.clear();
+		return hash;
 	}
 
-	public void updateLocalVariable(Long name, Set<Integer> types) {
-		localVars.put(name, types);
-	}
+	public void updateLocalVariables(IntUnaryOperator typeResolver) {
+		for (int i = 0; i < volatileLocalCount; i++) {
+			localVars.bind(volatileLocalNames[i], typeResolver.applyAsInt(volatileLocalTypes[i]));
+		}
 
-	public String getLocalVariableName(Long hash) {
-		return localVarNames.get(hash);
+		volatileLocalCount = 0;
+		localSymbols = null;
 	}
 
-	public Set<String> getLocalVariableNames() {
-		return new HashSet<>(localVarNames.values());
-	}
+	public DeadlockSymbolTable getLocalSymbols() {
+		// local variables from enclosing methods are flattened into this scope, again once those change
+		DeadlockSymbolTable parentSymbols = (parent != null) ? parent.getLocalSymbols() : null;
+		if (localSymbols == null || localSymbolsParent != parentSymbols) {
+			localSymbols = DeadlockSymbolTable.generateScope(localVars, parentSymbols);
+			localSymbolsParent = parentSymbols;
+		}
 
-	public Map<Long, Set<Integer>> getLocalVariables() {
-		return localVars;
+		return localSymbols;
 	}
 
 	public void updateParameterVariable(Long name, Integer type) {
@@ -141,12 +143,47 @@ public class DeadlockFunction {
 	}
 
 	public void addMethodCall(ParserRuleContext methodCall) {
-		methodCalls.add(methodCall);
+		if (syncUnlockCall != null) {
+			methodCalls.add(methodCalls.size() - 1, methodCall);
+		} else {
+			methodCalls.add(methodCall);
+		}
 	}
 
 	public void setSynchronizedModifier(ParserRuleContext lockCall, ParserRuleContext unlockCall) {
 		methodCalls.add(unlockCall);
 		methodCalls.add(0, lockCall);
+		syncUnlockCall = unlockCall;
+	}
+
+	public void clearMethodBody() {
+		// the calls and local variables of the body are dropped, the declaration (parameters, synchronized modifier) is kept
+		if (syncUnlockCall != null) {
+			ParserRuleContext lockCall = methodCalls.get(0);
+			methodCalls.clear();
+			methodCalls.add(lockCall);
+			methodCalls.add(syncUnlockCall);
+		} else {
+			methodCalls.clear();
+		}
+
+		localVars = new DeadlockSymbolTable(4);
+		volatileLocalCount = 0;
+		localSymbols = null;
+	}
+
+	public void setDeferredBody(Runnable reader) {
+		deferredBody = reader;
+	}
+
+	public boolean readDeferredBody() {
+		if (deferredBody == null) return false;
+
+		Runnable reader = deferredBody;
+		deferredBody = null;
+		reader.run();
+
+		return true;
 	}
 
 	public List<ParserRuleContext> getMethodCalls() {
@@ -0,0 +1,143 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.containers;
+
+import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Declaration of a class summarized from another module, with the lock events of each of its methods.
+ *
+ * @author RonanLana
+ */
+public class DeadlockLockSummary {
+
+	public static final String SCRIPT_EVENT = "*";
+
+	public static class MethodSummary {
+
+		private final String name;
+		private final String returnType;     // empty for constructors
+		private final List<String> paramTypes;
+		private final boolean isAbstract;
+		private final boolean isEllipsis;
+		private final List<String> lockEvents;    // "+lock", "-lock" or the script event, in call order
+
+		public MethodSummary(String name, String returnType, List<String> paramTypes, boolean isAbstract, boolean isEllipsis, List<String> lockEvents) {
+			this.name = name;
+			this.returnType = returnType;
+			this.paramTypes = paramTypes;
+			this.isAbstract = isAbstract;
+			this.isEllipsis = isEllipsis;
+			this.lockEvents = lockEvents;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getReturnType() {
+			return returnType;
+		}
+
+		public List<String> getParameterTypes() {
+			return paramTypes;
+		}
+
+		public boolean isAbstract() {
+			return isAbstract;
+		}
+
+		public boolean isEllipsis() {
+			return isEllipsis;
+		}
+
+		public List<String> getLockEvents() {
+			return lockEvents;
+		}
+
+	}
+
+	private final DeadlockClassType type;
+	private final String packageName;
+	private final String pathName;
+	private final boolean isAbstract;
+	private final List<String> superNames;    // canonical names
+	private final List<String> importNames;
+	private final List<String> enumValues;
+	private final List<MethodSummary> methods = new ArrayList<>();
+
+	public DeadlockLockSummary(DeadlockClassType type, String packageName, String pathName, boolean isAbstract, List<String> superNames, List<String> importNames, List<String> enumValues) {
+		this.type = type;
+		this.packageName = packageName;
+		this.pathName = pathName;
+		this.isAbstract = isAbstract;
+		this.superNames = superNames;
+		this.importNames = importNames;
+		this.enumValues = enumValues;
+	}
+
+	public void addMethod(MethodSummary method) {
+		methods.add(method);
+	}
+
+	public DeadlockClassType getType() {
+		return type;
+	}
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+	public String getPathName() {
+		return pathName;
+	}
+
+	public String getName() {
+		return pathName.substring(pathName.lastIndexOf('.') + 1);
+	}
+
+	public boolean isAbstract() {
+		return isAbstract;
+	}
+
+	public List<String> getSuperNames() {
+		return superNames;
+	}
+
+	public List<String> getImportNames() {
+		return importNames;
+	}
+
+	public List<String> getEnumValues() {
+		return enumValues;
+	}
+
+	public List<MethodSummary> getMethods() {
+		return methods;
+	}
+
+	public Set<String> getLockNames() {
+		Set<String> locks = new LinkedHashSet<>();
+		for (MethodSummary m : methods) {
+			for (String e : m.getLockEvents()) {
+				if (!e.contentEquals(SCRIPT_EVENT)) locks.add(e.substring(1));
+			}
+		}
+
+		return locks;
+	}
+
+}
@@ -11,6 +11,7 @@
  */
 package deadlocktracker.containers;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -41,6 +42,9 @@ public class DeadlockStorage {
 	private static Pair<Integer, Integer> ignoredDataRange = null;
 
 	private static Set<DeadlockFunction> RunnableMethods = new HashSet<>();
+	private static Map<DeadlockFunction, DeadlockLockSummary.MethodSummary> LockSummaries = new HashMap<>();    // functions declared by summaries of other modules
+
+	private static DeadlockClassTrie ClassTrie = new DeadlockClassTrie();
 
 	public static Map<String, Map<String, DeadlockClass>> getPublicClasses() {
 		return PublicClasses;
@@ -50,6 +54,60 @@ public class DeadlockStorage {
 		return PrivateClasses;
 	}
 
+	public static DeadlockClassTrie getClassTrie() {
+		return ClassTrie;
+	}
+
+	public static void generateClassTrie() {
+		DeadlockClassTrie trie = new DeadlockClassTrie();
+
+		for(Entry<String, Map<String, DeadlockClass>> e : PublicClasses.entrySet()) {
+			String packName = e.getKey();
+			if(packName == null) continue;
+
+			trie.insertPublicPackage(packName);
+			for(Entry<String, DeadlockClass> f : e.getValue().entrySet()) {
+				trie.insertPublicClass(packName + f.getKey(), f.getValue());
+			}
+		}
+
+		for(Entry<String, Map<String, DeadlockClass>> e : PrivateClasses.entrySet()) {
+			String scopeName = e.getKey();
+			if(scopeName == null) continue;
+
+			int scope = trie.insertPrivateScope(scopeName);
+			String path = scopeName.substring(0, scopeName.lastIndexOf('.') + 1);
+
+			for(Entry<String, DeadlockClass> f : e.getValue().entrySet()) {
+				trie.insertPrivateClass(path + f.getKey(), scope, f.getValue());
+			}
+		}
+
+		ClassTrie = trie;
+	}
+
+	public static void resetStorage() {
+		// tables are cleared in place, the source readers keep references to them
+		PublicClasses.clear();
+		PrivateClasses.clear();
+		Locks.clear();
+		ReadWriteLocks.clear();
+
+		ClassDataTypes.clear();
+		CompoundDataTypes.clear();
+		BasicDataTypes.clear();
+		ElementalDataTypes.clear();
+		Arrays.fill(ElementalTypes, null);
+
+		ReflectedClasses.clear();
+		InheritanceTree.clear();
+		ignoredDataRange = null;
+
+		RunnableMethods.clear();
+		LockSummaries.clear();
+		ClassTrie = new DeadlockClassTrie();
+	}
+
 	public Map<String, DeadlockLock> getLocks() {
 		return Locks;
 	}
@@ -90,6 +148,10 @@ public class DeadlockStorage {
 		return RunnableMethods;
 	}
 
+	public static Map<DeadlockFunction, DeadlockLockSummary.MethodSummary> getLockSummaries() {
+		return LockSummaries;
+	}
+
 	public void setIgnoredDataRange(Pair<Integer, Integer> ign) {
 		ignoredDataRange = ign;
 	}
@@ -149,45 +211,21 @@ public class DeadlockStorage {
 	}
 
 	public static String getCanonClassName(DeadlockClass mdc) {
-		String packName = mdc.getPackageName();
-
-		if(packName.charAt(packName.length() - 1) == '.') {
-			return packName + mdc.getPathName();
-		} else {
-			String restName = mdc.getPathName();
-
-			int idx = restName.indexOf('.');
-			restName = restName.substring(idx + 1);
-
-			return packName + "." + restName;
-		}
+		return mdc.getCanonName();
 	}
 
 	public static Pair<String, String> getPrivatePackageClass(String fullClassName) {
-		String[] names = fullClassName.split("\\.");
-
-		String cname;
-		int i;
-		if (names.length > 0) {
-			cname = names[0] + ".";
-
-			int s = 0;
-			for (i = 1; i < names.length; i++) {
-				if(PublicClasses.get(cname) != null) {
-					s = 1;
-				} else if(PrivateClasses.get(cname.substring(0, cname.length() - 1)) != null) {
-					break;
-				}
-				cname += names[i] + ".";
-			}
+		int len = fullClassName.length(), en = len;
+		while (en > 0 && fullClassName.charAt(en - 1) == '.') en--;
+		if (en == 0) return new Pair<>(fullClassName, "");
 
-			return new Pair<>(cname.substring(0, cname.length() - 1), names[i - 1] + "." + fullClassName.substring(Math.min(cname.length(), fullClassName.length() - 1)));
-		} else {
-			cname = fullClassName;
-			i = 0;
+		String className = fullClassName.substring(0, en);
 
-			return new Pair<>(cname,"");
-		}
+		int idx = ClassTrie.getShortestPrivateScopeEnd(className);
+		if (idx > -1) en = idx;
+
+		int st = fullClassName.lastIndexOf('.', en - 1) + 1;
+		return new Pair<>(fullClassName.substring(0, en), fullClassName.substring(st, en) + "." + fullClassName.substring(Math.min(en + 1, len - 1)));
 	}
 
 	private static Set<String> fetchPackageNamesFromImports(DeadlockClass thisClass) {
@@ -279,49 +317,33 @@ public class DeadlockStorage {
 	}
 
 	private static Pair<String, String> locatePrivateClassPath(String s, String fullClassName) {
-		s = fullClassName;
-
-		int idx = s.length(), idx3 = s.length();
-
-		String t = "", u = "";
-		Map<String, DeadlockClass> m;
-		while(true) {
-			if(PrivateClasses.containsKey(s)) {
-				u = fullClassName.substring(Math.max(s.lastIndexOf('.', s.length() - 1) + 1, 0), idx3 + 1);
-				fullClassName = fullClassName.substring(idx3 + 1);
-				break;
-			}
+		int[] scope = new int[1];
 
-			idx3 = s.lastIndexOf('.');
-			if(idx3 < 0) {
-				break;
-			}
-
-			idx = fullClassName.lastIndexOf('.', idx - 1);
-			if(idx < 0) break;
-
-			s = fullClassName.substring(0, idx);
+		int en = ClassTrie.getLongestPrivateScopeEnd(fullClassName, scope);
+		if (en < 0) {
+			int idx = fullClassName.indexOf('.');
+			return new Pair<>((idx > -1) ? fullClassName.substring(0, idx) : fullClassName, "");
 		}
 
-		m = PrivateClasses.get(s);
-		idx = 0;
-		if(m != null) {
-			while(true) {
-				if(m.containsKey(u + t)) {
-					break;
-				}
+		// walks the remaining segments under the private scope, the shortest registered class path is taken
+		int st = fullClassName.lastIndexOf('.', en - 1) + 1, len = fullClassName.length();
+		int node = scope[0], i = en + 1;
+		while (true) {
+			int idx = fullClassName.indexOf('.', i);
+			if (idx < 0) break;
 
-				idx = fullClassName.indexOf('.', idx + 1);
-				if(idx < 0) {
-					t = fullClassName;
-					break;
-				}
+			node = ClassTrie.getChild(node, fullClassName, i, idx);
+			if (node == DeadlockClassTrie.NONE) break;
 
-				t = fullClassName.substring(0, idx);
+			if (ClassTrie.isPrivateClassOf(node, scope[0])) {
+				len = idx;
+				break;
 			}
+
+			i = idx + 1;
 		}
 
-		return new Pair<>(s, u + t);
+		return new Pair<>(fullClassName.substring(0, en), fullClassName.substring(st, len));
 	}
 
 	private static DeadlockClass locatePrivateClass(String fullClassName, DeadlockClass thisClass) {
@@ -337,14 +359,12 @@ public class DeadlockStorage {
 	}
 
 	public static String getPublicPackageName(String s) {
-		while (true) {
-			if (PublicClasses.get(s) != null) return s;
+		if (PublicClasses.get(s) != null) return s;
 
-			int i = s.substring(0, s.length() - 1).lastIndexOf('.');
-			if (i < 0) return null;
+		int en = ClassTrie.getPublicPackageEnd(s);
+		if (en < 0) return null;
 
-			s = s.substring(0, i + 1);
-		}
+		return (en == s.length()) ? s : s.substring(0, en);
 	}
 
 	public static String getPublicPackageName(DeadlockClass thisClass) {
@@ -364,8 +384,10 @@ public class DeadlockStorage {
 				String className = fullClassName.substring(idx);
 				if (className.contentEquals("*")) return new Pair<>(packName, className);
 
-				DeadlockClass c = PublicClasses.get(packName).get(className);
-				if (c != null) return new Pair<>(packName, className);
+				if (className.indexOf('.') < 0) {
+					DeadlockClass c = ClassTrie.getPublicClass(ClassTrie.getChild(ClassTrie.getNode(packName), fullClassName, idx, fullClassName.length()));
+					if (c != null) return new Pair<>(packName, className);
+				}
 
 				return locatePrivateClassPath(packName, fullClassName);
 			}
@@ -410,8 +432,8 @@ public class DeadlockStorage {
 	}
 
 	// adapted from String.hashCode()
-	public static Long hash64(String string) {
-		Long h = 1125899906842597L; // prime
+	public static long hash64(String string) {
+		long h = 1125899906842597L; // prime
 
 		for (int i = 0; i < string.length(); i++) {
 			h = 31*h + string.charAt(i);
@@ -0,0 +1,132 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.containers;
+
+/**
+ * Open-addressing map from a 64-bit name hash to the type of a local variable. Names bound to
+ * several types resolve to -2, names not present resolve to NONE.
+ *
+ * @author RonanLana
+ */
+public class DeadlockSymbolTable {
+
+	public static final int NONE = Integer.MIN_VALUE;
+
+	private long[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size = 0;
+
+	public DeadlockSymbolTable(int expected) {
+		int cap = 4;
+		while (cap < 2 * expected) cap <<= 1;
+
+		keys = new long[cap];
+		values = new int[cap];
+		used = new boolean[cap];
+	}
+
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+	private int findSlot(long key) {
+		int mask = keys.length - 1;
+		int i = hash(key) & mask;
+
+		while (used[i] && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+
+		return i;
+	}
+
+	public int get(long key) {
+		int i = findSlot(key);
+		return used[i] ? values[i] : NONE;
+	}
+
+	public boolean contains(long key) {
+		return used[findSlot(key)];
+	}
+
+	/**
+	 * Binds a name to one more declared type, names declared with different types resolve to -2.
+	 */
+	public void bind(long key, int value) {
+		int i = findSlot(key);
+		if (used[i] && values[i] != value) value = -2;
+
+		put(key, value);
+	}
+
+	public void put(long key, int value) {
+		int i = findSlot(key);
+		if (!used[i]) {
+			if (2 * (size + 1) > keys.length) {
+				rehash();
+				i = findSlot(key);
+			}
+
+			used[i] = true;
+			keys[i] = key;
+			size++;
+		}
+
+		values[i] = value;
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+
+		keys = new long[oldKeys.length * 2];
+		values = new int[oldKeys.length * 2];
+		used = new boolean[oldKeys.length * 2];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int j = findSlot(oldKeys[i]);
+
+				used[j] = true;
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Flattens a function scope: entries declared locally shadow those inherited from the enclosing scope.
+	 */
+	public static DeadlockSymbolTable generateScope(DeadlockSymbolTable localVars, DeadlockSymbolTable parentScope) {
+		DeadlockSymbolTable table = new DeadlockSymbolTable(localVars.size + (parentScope != null ? parentScope.size : 0));
+		if (parentScope != null) table.putAll(parentScope);
+		table.putAll(localVars);
+
+		return table;
+	}
+
+	private void putAll(DeadlockSymbolTable other) {
+		for (int i = 0; i < other.keys.length; i++) {
+			if (other.used[i]) {
+				put(other.keys[i], other.values[i]);
+			}
+		}
+	}
+
+}
@@ -11,22 +11,85 @@
  */
 package deadlocktracker.graph;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
  * @author RonanLana
  */
 public class DeadlockGraphEntry {
-	List<DeadlockGraphNode> points = new LinkedList<>();
+	// shared entries are immutable, a fan-out to the same ordered target functions is held once
+	private static final Map<List<Integer>, DeadlockGraphEntry> callEntries = new ConcurrentHashMap<>();
+	private static final Map<DeadlockGraphNode, DeadlockGraphEntry> nodeEntries = new ConcurrentHashMap<>();
 
-	public DeadlockGraphEntry() {}
+	List<DeadlockGraphNode> points;
+
+	public DeadlockGraphEntry() {
+		points = new LinkedList<>();
+	}
 
 	public DeadlockGraphEntry(DeadlockGraphNode entry) {
+		points = new LinkedList<>();
 		points.add(entry);
 	}
 
+	private DeadlockGraphEntry(List<DeadlockGraphNode> entries) {
+		points = Collections.unmodifiableList(entries);
+	}
+
+	public static DeadlockGraphEntry getCallEntry(List<Integer> fids) {
+		DeadlockGraphEntry entry = callEntries.get(fids);
+		if (entry == null) {
+			List<DeadlockGraphNode> list = new ArrayList<>(fids.size());
+			for (Integer fid : fids) {
+				list.add(DeadlockGraphNode.intern(new DeadlockGraphNodeCall(fid)));
+			}
+
+			entry = new DeadlockGraphEntry(list);
+			DeadlockGraphEntry prev = callEntries.putIfAbsent(new ArrayList<>(fids), entry);
+			if (prev != null) entry = prev;
+		}
+
+		return entry;
+	}
+
+	public static DeadlockGraphEntry getLockEntry(Integer lockId, boolean isLocking) {
+		return getNodeEntry(new DeadlockGraphNodeLock(lockId, isLocking));
+	}
+
+	public static DeadlockGraphEntry getScriptEntry() {
+		return getNodeEntry(new DeadlockGraphNodeScript());
+	}
+
+	private static DeadlockGraphEntry getNodeEntry(DeadlockGraphNode node) {
+		DeadlockGraphEntry entry = nodeEntries.get(node);
+		if (entry == null) {
+			node = DeadlockGraphNode.intern(node);
+			entry = new DeadlockGraphEntry(Collections.singletonList(node));
+
+			DeadlockGraphEntry prev = nodeEntries.putIfAbsent(node, entry);
+			if (prev != null) entry = prev;
+		}
+
+		return entry;
+	}
+
+	public static void resetInterned() {
+		// dropped along with the graph that shares them, so counts and memory do not build up across runs
+		callEntries.clear();
+		nodeEntries.clear();
+		DeadlockGraphNode.resetInterned();
+	}
+
+	public static int getSharedEntryCount() {
+		return callEntries.size() + nodeEntries.size();
+	}
+
 	public void addGraphEntryPoint(DeadlockGraphNode entry) {
 		points.add(entry);
 	}
@@ -11,11 +11,16 @@
  */
 package deadlocktracker.graph;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  *
  * @author RonanLana
  */
 public class DeadlockGraphNode {
+	private static final Map<DeadlockGraphNode, DeadlockGraphNode> nodes = new ConcurrentHashMap<>();
+
 	int position;
 	int lockid;
 	DeadlockGraphNodeType type;
@@ -43,4 +48,32 @@ public class DeadlockGraphNode {
 		return lockid;
 	}
 
+	public static DeadlockGraphNode intern(DeadlockGraphNode node) {
+		// nodes are value-like, equal nodes are shared
+		DeadlockGraphNode prev = nodes.putIfAbsent(node, node);
+		return (prev != null) ? prev : node;
+	}
+
+	public static void resetInterned() {
+		nodes.clear();
+	}
+
+	public static int getNodeCount() {
+		return nodes.size();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		DeadlockGraphNode n = (DeadlockGraphNode) o;
+		return position == n.position && lockid == n.lockid && type == n.type;
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * (31 * type.ordinal() + position)) + lockid;
+	}
+
 }
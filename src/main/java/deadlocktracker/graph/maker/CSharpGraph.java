@@ -21,18 +21,27 @@ import java.util.Stack;
 
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.TokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
+import deadlocktracker.DeadlockConfig;
 import deadlocktracker.DeadlockGraphMaker;
+import deadlocktracker.DeadlockMetrics;
+import deadlocktracker.DeadlockMetrics.Phase;
+import deadlocktracker.DeadlockParserFactory;
 import deadlocktracker.containers.DeadlockClass;
 import deadlocktracker.containers.DeadlockFunction;
 import deadlocktracker.containers.DeadlockStorage;
 import deadlocktracker.containers.Pair;
 import deadlocktracker.graph.DeadlockAbstractType;
 import deadlocktracker.graph.DeadlockGraphMethod;
+import deadlocktracker.jfr.DeadlockEvents;
+import deadlocktracker.source.CSharpPreprocessor;
 import deadlocktracker.source.CSharpReader;
 import language.csharp.CSharpLexer;
 import language.csharp.CSharpParser;
@@ -43,24 +52,47 @@ import language.csharp.CSharpParser;
  */
 public class CSharpGraph extends DeadlockGraphMaker {
 
-	private static String methodName;
-	private static Stack<Integer> expType = new Stack<>();
+	// expression state is kept per worker thread, as method nodes may be parsed concurrently
+	private final ThreadLocal<String> methodName = new ThreadLocal<>();
+	private final ThreadLocal<Stack<Integer>> expTypes = ThreadLocal.withInitial(Stack::new);
 
 	@Override
-	public void parseSourceFile(String fileName, ParseTreeListener listener) {
-		try {
-			((CSharpReader) listener).setPackageNameFromFilePath(fileName);
-
-			CSharpLexer lexer = new CSharpLexer(CharStreams.fromFileName(fileName));
-			CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
-			CSharpParser parser = new CSharpParser(commonTokenStream);
-			ParseTree tree = parser.compilation_unit();
-
-			ParseTreeWalker walker = new ParseTreeWalker();
-			walker.walk(listener, tree);
-		} catch (IOException e) {
-			e.printStackTrace();
+	public Parser createParser(TokenStream tokens) {
+		return new CSharpParser(tokens);
+	}
+
+	@Override
+	public ParseTree parseSourceTree(String fileName) throws IOException {
+		Object event = DeadlockEvents.beginParseFile();
+		long t = DeadlockMetrics.startTimer();
+		CSharpLexer lexer = new CSharpLexer(CharStreams.fromFileName(fileName));
+		CommonTokenStream commonTokenStream;
+
+		Set<String> symbols = DeadlockConfig.getConditionalSymbols();
+		if (symbols != null) {
+			commonTokenStream = new CommonTokenStream(new ListTokenSource(CSharpPreprocessor.filterInactiveTokens(lexer.getAllTokens(), symbols, fileName)));
+		} else {
+			commonTokenStream = new CommonTokenStream(lexer);
 		}
+		commonTokenStream.fill();
+		t = DeadlockMetrics.stopTimer(Phase.SOURCE_LEX, t);
+
+		CSharpParser parser = (CSharpParser) createParser(commonTokenStream);
+		ParseTree tree = DeadlockParserFactory.parse(parser, CSharpParser::compilation_unit);
+		DeadlockMetrics.stopTimer(Phase.SOURCE_PARSE, t);
+
+		DeadlockEvents.commitParseFile(event, fileName, commonTokenStream.size(), parser.getInterpreter().getPredictionMode().name());
+		return tree;
+	}
+
+	@Override
+	public void readSourceTree(String fileName, ParseTree tree, ParseTreeListener listener) {
+		((CSharpReader) listener).setPackageNameFromFilePath(fileName);
+
+		long t = DeadlockMetrics.startTimer();
+		ParseTreeWalker walker = new ParseTreeWalker();
+		walker.walk(listener, tree);
+		DeadlockMetrics.stopTimer(Phase.SOURCE_READ, t);
 	}
 
 	@Override
@@ -120,6 +152,53 @@ public class CSharpGraph extends DeadlockGraphMaker {
 		return -2;
 	}
 
+	private Integer getMemberType(Integer expType, ParserRuleContext memberCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
+		// type of a member along a primary expression, resolved without visiting any invocations
+		String name;
+		if (memberCtx instanceof CSharpParser.SimpleNameExpressionContext) {
+			name = memberCtx.getText();
+		} else if (memberCtx instanceof CSharpParser.Member_accessContext) {
+			name = ((CSharpParser.Member_accessContext) memberCtx).identifier().getText();
+		} else if (memberCtx instanceof CSharpParser.ThisReferenceExpressionContext) {
+			return getThisType(sourceClass);
+		} else {
+			return -1;
+		}
+
+		Integer typeId = getTypeFromIdentifier(expType, name, sourceMethod);
+		return (typeId != -1) ? typeId : expType;
+	}
+
+	private Integer getMemberLockId(Integer expType, ParserRuleContext memberCtx, DeadlockFunction sourceMethod) {
+		if (memberCtx instanceof CSharpParser.SimpleNameExpressionContext) {
+			return getFieldLockId(expType, memberCtx.getText(), sourceMethod);
+		} else if (memberCtx instanceof CSharpParser.Member_accessContext) {
+			return getFieldLockId(expType, ((CSharpParser.Member_accessContext) memberCtx).identifier().getText(), sourceMethod);
+		}
+
+		return -1;
+	}
+
+	private Integer getInvocationLockId(DeadlockAbstractType absType, CSharpParser.Method_invocationContext exp, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
+		// a lock call acts on the lock its receiver names, the member right before the invoked one, e.g. "a.lock()"
+		if (absType != DeadlockAbstractType.LOCK || !(exp.getParent() instanceof CSharpParser.Primary_expressionContext)) return -1;
+
+		List<ParserRuleContext> members = new LinkedList<>();
+		for (ParseTree ch : ((CSharpParser.Primary_expressionContext) exp.getParent()).children) {
+			if (ch == exp) break;
+			if (ch instanceof ParserRuleContext) members.add((ParserRuleContext) ch);
+		}
+		if (members.size() < 2) return -1;
+
+		Integer expType = !sourceClass.getName().contentEquals("_DefaultClass") ? ClassDataTypeIds.get(sourceClass) : -2;
+		for (ParserRuleContext memberCtx : members.subList(0, members.size() - 2)) {
+			if (expType < 0) return -1;
+			expType = getMemberType(expType, memberCtx, sourceMethod, sourceClass);
+		}
+
+		return (expType >= 0) ? getMemberLockId(expType, members.get(members.size() - 2), sourceMethod) : -1;
+	}
+
 	@Override
 	public Set<Integer> getMethodReturnType(DeadlockGraphMethod node, Integer classType, ParserRuleContext expCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
 		Set<Integer> retTypes = new HashSet<>();
@@ -132,14 +211,14 @@ public class CSharpGraph extends DeadlockGraphMaker {
 		if (expCtx != null) {
 			if (expCtx instanceof CSharpParser.Method_invocationContext) {
 				CSharpParser.Method_invocationContext exp = (CSharpParser.Method_invocationContext) expCtx;
-				String methodName = this.methodName;
+				String methodName = this.methodName.get();
 
 				List<Integer> argTypes = getArgumentTypes(node, exp.argument_list(), sourceMethod, sourceClass);
 
 				if(!ReflectedClasses.containsKey(classType)) {
 					DeadlockAbstractType absType = AbstractDataTypes.get(classType);
 					if(absType != null) {
-						Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType);
+						Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType, getInvocationLockId(absType, exp, sourceMethod, sourceClass));
 						retTypes.add(ret);
 
 						//if(ret == -1 && absType != DeadlockAbstractType.LOCK) System.out.println("SOMETHING OUT OF CALL FOR " + exp.IDENTIFIER().getText() + " ON " + absType /*+ dataNames.get(expType)*/);
@@ -165,7 +244,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 						DeadlockAbstractType absType = AbstractDataTypes.get(classType);
 						if(absType != null) {
 							if (absType == DeadlockAbstractType.LOCK || absType == DeadlockAbstractType.SCRIPT) {
-								Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType);
+								Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType, getInvocationLockId(absType, exp, sourceMethod, sourceClass));
 								retTypes.add(ret);
 
 								//if(ret == -1 && absType != DeadlockAbstractType.LOCK) System.out.println("SOMETHING OUT OF CALL FOR " + exp.IDENTIFIER().getText() + " ON " + absType /*+ dataNames.get(expType)*/);
@@ -195,7 +274,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 		CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
 		CSharpParser parser = new CSharpParser(commonTokenStream);
 
-		return parser.unary_expression();
+		return DeadlockParserFactory.parse(parser, CSharpParser::unary_expression);
 	}
 
 	private Integer getNameType(String name, DeadlockClass sourceClass) {
@@ -210,9 +289,9 @@ public class CSharpGraph extends DeadlockGraphMaker {
 	}
 
 	private Integer getCastType(DeadlockGraphMethod node, CSharpParser.Cast_expressionContext castCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
-		expType.push(0);
+		expTypes.get().push(0);
 		parseMethodCalls(node, castCtx.unary_expression(), sourceMethod, sourceClass);
-		expType.pop();
+		expTypes.get().pop();
 
 		String typeText = castCtx.type_().getText();
 
@@ -228,7 +307,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 	@Override
 	public Set<Integer> parseMethodCalls(DeadlockGraphMethod node, ParserRuleContext exprCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass, boolean filter) {
 		if (filter) {
-			refClass = sourceClass;
+			refClass.set(sourceClass);
 		}
 
 		Set<Integer> ret = new HashSet<>();
@@ -243,9 +322,9 @@ public class CSharpGraph extends DeadlockGraphMaker {
 			} else {
 				if (curCtx != null) {
 					if (!sourceClass.getName().contentEquals("_DefaultClass")) {
-						this.expType.push(ClassDataTypeIds.get(sourceClass));
+						expTypes.get().push(ClassDataTypeIds.get(sourceClass));
 					} else {
-						this.expType.push(-2);
+						expTypes.get().push(-2);
 					}
 
 					int c = 0;
@@ -258,9 +337,9 @@ public class CSharpGraph extends DeadlockGraphMaker {
 								for (Integer expType : metRetTypes) {
 									if(expType == null) System.out.println("null on " + expr.getText() + " src is " + DeadlockStorage.getCanonClassName(sourceClass));
 									if(expType != -1) {
-										if (ClassDataTypes.get(expType) != null) refClass = ClassDataTypes.get(expType);
+										if (ClassDataTypes.get(expType) != null) refClass.set(ClassDataTypes.get(expType));
 
-										this.expType.push(expType);
+										expTypes.get().push(expType);
 										c++;
 
 										if(expType == -2) {     // expType -2 means the former expression type has been excluded from the search
@@ -275,10 +354,10 @@ public class CSharpGraph extends DeadlockGraphMaker {
 						}
 					}
 
-					Integer type = expType.pop();
+					Integer type = expTypes.get().pop();
 					ret.add(type);
 
-					for (int b = 0; b < c; b++) expType.pop();
+					for (int b = 0; b < c; b++) expTypes.get().pop();
 
 					return ret;
 				} else {
@@ -287,23 +366,23 @@ public class CSharpGraph extends DeadlockGraphMaker {
 				}
 			}
 		} else if(exprCtx instanceof CSharpParser.Method_invocationContext) {
-			Set<Integer> r = getMethodReturnType(node, expType.peek(), exprCtx, sourceMethod, sourceClass);
+			Set<Integer> r = getMethodReturnType(node, expTypes.get().peek(), exprCtx, sourceMethod, sourceClass);
 			ret.addAll(r);
 
 			return ret;
 		} else if(exprCtx instanceof CSharpParser.IdentifierContext) {
-			if(isIgnoredType(expType.peek())) {
+			if(isIgnoredType(expTypes.get().peek())) {
 				ret.add(-2);
 				return ret;
 			}
 
 			CSharpParser.IdentifierContext idCtx = (CSharpParser.IdentifierContext) exprCtx;
 
-			DeadlockClass c = getClassFromType(expType.peek());
+			DeadlockClass c = getClassFromType(expTypes.get().peek());
 			Set<Integer> templateTypes = null;
 
 			if(c == null) {
-				List<Integer> cTypes = CompoundDataTypes.get(expType.peek());
+				List<Integer> cTypes = CompoundDataTypes.get(expTypes.get().peek());
 				if(cTypes != null) {
 					c = getClassFromType(cTypes.get(cTypes.size() - 1));
 
@@ -315,10 +394,10 @@ public class CSharpGraph extends DeadlockGraphMaker {
 				}
 
 				if(c == null) {
-					//String typeName = EveryDataTypes.get(expType.peek());
+					//String typeName = EveryDataTypes.get(expTypes.get().peek());
 
 					//System.out.println("FAILED @ " + expType);
-					System.out.println("[Warning] No datatype found for " + idCtx + " on expression " + exprCtx.getText() + " srcclass " + DeadlockStorage.getCanonClassName(sourceClass) + " detected exptype " + expType.peek());
+					System.out.println("[Warning] No datatype found for " + idCtx + " on expression " + exprCtx.getText() + " srcclass " + DeadlockStorage.getCanonClassName(sourceClass) + " detected exptype " + expTypes.get().peek());
 					ret.add(-2);
 					return ret;
 				}
@@ -329,7 +408,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 						return ret;
 					}
 
-					ret.add(expType.peek());
+					ret.add(expTypes.get().peek());
 					return ret;
 				}
 
@@ -351,23 +430,23 @@ public class CSharpGraph extends DeadlockGraphMaker {
 				return ret;
 			}
 
-			ret.add(getRelevantType(type, templateTypes, c, expType.peek()));
+			ret.add(getRelevantType(type, templateTypes, c, expTypes.get().peek()));
 			return ret;
 		} else if(exprCtx instanceof CSharpParser.SimpleNameExpressionContext) {
-			methodName = exprCtx.getText();
+			methodName.set(exprCtx.getText());
 
-			Integer typeId = getTypeFromIdentifier(expType.peek(), exprCtx.getText(), sourceMethod);
-			if (typeId == -1) typeId = expType.peek();
+			Integer typeId = getTypeFromIdentifier(expTypes.get().peek(), exprCtx.getText(), sourceMethod);
+			if (typeId == -1) typeId = expTypes.get().peek();
 			ret.add(typeId);
 
 			return ret;
 		} else if(exprCtx instanceof CSharpParser.Member_accessContext) {
 			CSharpParser.Member_accessContext maCtx = (CSharpParser.Member_accessContext) exprCtx;
 
-			methodName = maCtx.identifier().getText();
+			methodName.set(maCtx.identifier().getText());
 
-			Integer typeId = getTypeFromIdentifier(expType.peek(), maCtx.identifier().getText(), sourceMethod);
-			if (typeId == -1) typeId = expType.peek();
+			Integer typeId = getTypeFromIdentifier(expTypes.get().peek(), maCtx.identifier().getText(), sourceMethod);
+			if (typeId == -1) typeId = expTypes.get().peek();
 			ret.add(typeId);
 
 			return ret;
@@ -396,7 +475,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 				if(exprCtx.getChild(exprCtx.getChildCount() - 1).getText().contentEquals("*")) {
 					String outerName = nameCtx.getText();
 					if (outerName.endsWith("*")) outerName = outerName.substring(0, outerName.lastIndexOf("*"));
-					expType.push(0);
+					expTypes.get().push(0);
 					for (Integer typeId : parseMethodCalls(node, generateDereferencedContext(outerName), sourceMethod, sourceClass)) {
 						if (typeId > -1) {
 							DeadlockClass outerClass = ClassDataTypes.get(typeId);
@@ -410,7 +489,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 							ret.add(derType);
 						}
 					}
-					expType.pop();
+					expTypes.get().pop();
 				}
 
 				DeadlockClass c = DeadlockStorage.locateClass(idName, sourceClass);
@@ -495,7 +574,7 @@ public class CSharpGraph extends DeadlockGraphMaker {
 		CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
 		CSharpParser parser = new CSharpParser(commonTokenStream);
 
-		return parser.unary_expression();
+		return DeadlockParserFactory.parse(parser, CSharpParser::unary_expression);
 	}
 
 	@Override
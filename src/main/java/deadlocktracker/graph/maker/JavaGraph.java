@@ -12,26 +12,41 @@
 package deadlocktracker.graph.maker;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
+import deadlocktracker.DeadlockConfig;
 import deadlocktracker.DeadlockGraphMaker;
+import deadlocktracker.DeadlockMetrics;
+import deadlocktracker.DeadlockMetrics.Cardinality;
+import deadlocktracker.DeadlockMetrics.Phase;
+import deadlocktracker.DeadlockParserFactory;
 import deadlocktracker.containers.DeadlockClass;
 import deadlocktracker.containers.DeadlockFunction;
 import deadlocktracker.containers.DeadlockStorage;
 import deadlocktracker.containers.Pair;
 import deadlocktracker.graph.DeadlockAbstractType;
 import deadlocktracker.graph.DeadlockGraphMethod;
+import deadlocktracker.jfr.DeadlockEvents;
+import deadlocktracker.source.JavaReader;
+import deadlocktracker.source.JavaSkeleton;
 import language.java.JavaLexer;
 import language.java.JavaParser;
 
@@ -41,19 +56,57 @@ import language.java.JavaParser;
  */
 public class JavaGraph extends DeadlockGraphMaker {
 
+	// method bodies cut off the parsed files, handed over to the reader on each reading of their tree
+	private final Map<String, Map<Integer, List<Token>>> deferredBodies = new ConcurrentHashMap<>();
+
 	@Override
-	public void parseSourceFile(String fileName, ParseTreeListener listener) {
-		try {
-			JavaLexer lexer = new JavaLexer(CharStreams.fromFileName(fileName));
-			CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
-			JavaParser parser = new JavaParser(commonTokenStream);
-			ParseTree tree = parser.compilationUnit();
-
-			ParseTreeWalker walker = new ParseTreeWalker();
-			walker.walk(listener, tree);
-		} catch (IOException e) {
-			e.printStackTrace();
+	public Parser createParser(TokenStream tokens) {
+		return new JavaParser(tokens);
+	}
+
+	@Override
+	public ParseTree parseSourceTree(String fileName) throws IOException {
+		return parseSourceTree(fileName, null);
+	}
+
+	// the tokens lexed off the file are added to sourceTokens, when given
+	public ParseTree parseSourceTree(String fileName, List<Token> sourceTokens) throws IOException {
+		Object event = DeadlockEvents.beginParseFile();
+		long t = DeadlockMetrics.startTimer();
+		JavaLexer lexer = new JavaLexer(CharStreams.fromFileName(fileName));
+		CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
+		commonTokenStream.fill();
+		if (sourceTokens != null) sourceTokens.addAll(commonTokenStream.getTokens());
+
+		Map<Integer, List<Token>> bodies = Collections.emptyMap();
+		if (DeadlockConfig.isLazyGraph() && JavaSkeleton.isLockFree(commonTokenStream.getTokens())) {
+			// only the declarations are parsed, method bodies are parsed if the lazy graph reaches them
+			List<Token> skeleton = new ArrayList<>();
+			bodies = JavaSkeleton.extractMethodBodies(commonTokenStream.getTokens(), skeleton);
+			commonTokenStream = new CommonTokenStream(new ListTokenSource(skeleton));
+			commonTokenStream.fill();
+
+			DeadlockMetrics.addCount(Cardinality.SKELETON_FILES, 1);
 		}
+		deferredBodies.put(fileName, bodies);
+		t = DeadlockMetrics.stopTimer(Phase.SOURCE_LEX, t);
+
+		JavaParser parser = (JavaParser) createParser(commonTokenStream);
+		ParseTree tree = DeadlockParserFactory.parse(parser, JavaParser::compilationUnit);
+		DeadlockMetrics.stopTimer(Phase.SOURCE_PARSE, t);
+
+		DeadlockEvents.commitParseFile(event, fileName, commonTokenStream.size(), parser.getInterpreter().getPredictionMode().name());
+		return tree;
+	}
+
+	@Override
+	public void readSourceTree(String fileName, ParseTree tree, ParseTreeListener listener) {
+		((JavaReader) listener).setDeferredBodies(deferredBodies.getOrDefault(fileName, Collections.emptyMap()));
+
+		long t = DeadlockMetrics.startTimer();
+		ParseTreeWalker walker = new ParseTreeWalker();
+		walker.walk(listener, tree);
+		DeadlockMetrics.stopTimer(Phase.SOURCE_READ, t);
 	}
 
 	@Override
@@ -93,6 +146,53 @@ public class JavaGraph extends DeadlockGraphMaker {
 		return -2;
 	}
 
+	private Integer getExpressionType(JavaParser.ExpressionContext expCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
+		// type of a name or field path, resolved without visiting any calls
+		if(expCtx.primary() != null) {
+			JavaParser.PrimaryContext priCtx = expCtx.primary();
+
+			if(priCtx.IDENTIFIER() != null) return getPrimaryType(priCtx.IDENTIFIER().getText(), sourceMethod, sourceClass);
+			if(priCtx.THIS() != null) return getThisType(sourceClass);
+			if(priCtx.expression() != null) return getExpressionType(priCtx.expression(), sourceMethod, sourceClass);
+		} else if(expCtx.bop != null && expCtx.bop.getText().contentEquals(".")) {
+			Integer expType = getExpressionType(expCtx.expression(0), sourceMethod, sourceClass);
+			if(expType < 0) return -1;
+
+			if(expCtx.IDENTIFIER() != null) return getTypeFromIdentifier(expType, expCtx.IDENTIFIER().getText(), sourceMethod);
+			if(expCtx.THIS() != null) return expType;
+		}
+
+		return -1;
+	}
+
+	private Integer getExpressionLockId(JavaParser.ExpressionContext expCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
+		if(expCtx.primary() != null) {
+			JavaParser.PrimaryContext priCtx = expCtx.primary();
+
+			if(priCtx.IDENTIFIER() != null) return getPrimaryLockId(priCtx.IDENTIFIER().getText(), sourceMethod, sourceClass);
+			if(priCtx.expression() != null) return getExpressionLockId(priCtx.expression(), sourceMethod, sourceClass);
+		} else if(expCtx.bop != null && expCtx.bop.getText().contentEquals(".") && expCtx.IDENTIFIER() != null) {
+			Integer expType = getExpressionType(expCtx.expression(0), sourceMethod, sourceClass);
+			if(expType >= 0) return getFieldLockId(expType, expCtx.IDENTIFIER().getText(), sourceMethod);
+		}
+
+		return -1;
+	}
+
+	private Integer getCallLockId(DeadlockAbstractType absType, JavaParser.MethodCallContext methodCall, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
+		// a lock call acts on the lock its receiver names, e.g. "a.lock()" or "this.a.unlock()"
+		if(absType != DeadlockAbstractType.LOCK) return -1;
+
+		if(methodCall.getParent() instanceof JavaParser.ExpressionContext) {
+			JavaParser.ExpressionContext callCtx = (JavaParser.ExpressionContext) methodCall.getParent();
+			if(callCtx.bop != null && callCtx.methodCall() == methodCall) {
+				return getExpressionLockId(callCtx.expression(0), sourceMethod, sourceClass);
+			}
+		}
+
+		return -1;
+	}
+
 	@Override
 	public Set<Integer> getMethodReturnType(DeadlockGraphMethod node, Integer classType, ParserRuleContext methodCallCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass) {
 		Set<Integer> retTypes = new HashSet<>();
@@ -111,7 +211,7 @@ public class JavaGraph extends DeadlockGraphMaker {
 		if(!ReflectedClasses.containsKey(classType)) {
 			DeadlockAbstractType absType = AbstractDataTypes.get(classType);
 			if(absType != null) {
-				Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType);
+				Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType, getCallLockId(absType, methodCall, sourceMethod, sourceClass));
 				retTypes.add(ret);
 
 				//if(ret == -1 && absType != DeadlockAbstractType.LOCK) System.out.println("SOMETHING OUT OF CALL FOR " + methodCall.IDENTIFIER().getText() + " ON " + absType /*+ dataNames.get(expType)*/);
@@ -135,7 +235,7 @@ public class JavaGraph extends DeadlockGraphMaker {
 				DeadlockAbstractType absType = AbstractDataTypes.get(classType);
 				if(absType != null) {
 					if (absType == DeadlockAbstractType.LOCK || absType == DeadlockAbstractType.SCRIPT) {
-						Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType);
+						Integer ret = evaluateAbstractFunction(node, methodName, argTypes, classType, absType, getCallLockId(absType, methodCall, sourceMethod, sourceClass));
 						retTypes.add(ret);
 
 						//if(ret == -1 && absType != DeadlockAbstractType.LOCK) System.out.println("SOMETHING OUT OF CALL FOR " + methodCall.IDENTIFIER().getText() + " ON " + absType /*+ dataNames.get(expType)*/);
@@ -155,7 +255,7 @@ public class JavaGraph extends DeadlockGraphMaker {
 	@Override
 	public Set<Integer> parseMethodCalls(DeadlockGraphMethod node, ParserRuleContext callCtx, DeadlockFunction sourceMethod, DeadlockClass sourceClass, boolean filter) {
 		if (filter) {
-			refClass = sourceClass;
+			refClass.set(sourceClass);
 		}
 
 		JavaParser.ExpressionContext call = (JavaParser.ExpressionContext) callCtx;
@@ -391,7 +491,7 @@ public class JavaGraph extends DeadlockGraphMaker {
 		CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
 		JavaParser parser = new JavaParser(commonTokenStream);
 
-		return parser.expression();
+		return DeadlockParserFactory.parse(parser, JavaParser::expression);
 	}
 
 	@Override
@@ -0,0 +1,49 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.jfr;
+
+/**
+ * Java Flight Recorder hooks. The begin methods return null whenever JFR is missing
+ * from the running JVM or the event is not being recorded, and callers skip the
+ * event's payload in that case.
+ *
+ * @author RonanLana
+ */
+public class DeadlockEvents {
+	private static final boolean available = checkAvailable();
+
+	private static boolean checkAvailable() {
+		try {
+			Class.forName("jdk.jfr.FlightRecorder");
+			return FlightRecorderEvents.isAvailable();
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	public static Object beginParseFile() {
+		return available ? FlightRecorderEvents.beginParseFile() : null;
+	}
+
+	public static void commitParseFile(Object event, String path, int tokens, String predictionMode) {
+		if (event != null) FlightRecorderEvents.commitParseFile(event, path, tokens, predictionMode);
+	}
+
+	public static Object beginResolveMethod() {
+		return available ? FlightRecorderEvents.beginResolveMethod() : null;
+	}
+
+	public static void commitResolveMethod(Object event, String function, int callSites, int fanOut) {
+		if (event != null) FlightRecorderEvents.commitResolveMethod(event, function, callSites, fanOut);
+	}
+
+}
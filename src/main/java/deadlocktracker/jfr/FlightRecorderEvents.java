@@ -0,0 +1,68 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.jfr;
+
+import java.io.File;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Only loaded once the running JVM is known to ship jdk.jfr.
+ *
+ * @author RonanLana
+ */
+class FlightRecorderEvents {
+
+	static boolean isAvailable() {
+		return FlightRecorder.isAvailable();
+	}
+
+	static Object beginParseFile() {
+		ParseFileEvent e = new ParseFileEvent();
+		if (!e.isEnabled()) return null;
+
+		e.begin();
+		return e;
+	}
+
+	static void commitParseFile(Object event, String path, int tokens, String predictionMode) {
+		ParseFileEvent e = (ParseFileEvent) event;
+		e.end();
+		if (e.shouldCommit()) {
+			e.path = path;
+			e.size = new File(path).length();
+			e.tokens = tokens;
+			e.predictionMode = predictionMode;
+			e.commit();
+		}
+	}
+
+	static Object beginResolveMethod() {
+		ResolveMethodEvent e = new ResolveMethodEvent();
+		if (!e.isEnabled()) return null;
+
+		e.begin();
+		return e;
+	}
+
+	static void commitResolveMethod(Object event, String function, int callSites, int fanOut) {
+		ResolveMethodEvent e = (ResolveMethodEvent) event;
+		e.end();
+		if (e.shouldCommit()) {
+			e.function = function;
+			e.callSites = callSites;
+			e.fanOut = fanOut;
+			e.commit();
+		}
+	}
+
+}
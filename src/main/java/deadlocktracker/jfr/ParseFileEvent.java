@@ -0,0 +1,45 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *
+ * @author RonanLana
+ */
+@Name("deadlocktracker.ParseFile")
+@Label("Parse File")
+@Description("Lexing and parsing of one source file")
+@Category("DeadlockTracker")
+@StackTrace(false)
+class ParseFileEvent extends jdk.jfr.Event {
+
+	@Label("Path")
+	String path;
+
+	@Label("Size")
+	@DataAmount(DataAmount.BYTES)
+	long size;
+
+	@Label("Tokens")
+	int tokens;
+
+	@Label("Prediction Mode")
+	String predictionMode;
+
+}
@@ -0,0 +1,40 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *
+ * @author RonanLana
+ */
+@Name("deadlocktracker.ResolveMethod")
+@Label("Resolve Method")
+@Description("Graph construction of one method")
+@Category("DeadlockTracker")
+@StackTrace(false)
+class ResolveMethodEvent extends jdk.jfr.Event {
+
+	@Label("Function")
+	String function;
+
+	@Label("Call Sites")
+	int callSites;
+
+	@Label("Fan-out")
+	int fanOut;
+
+}
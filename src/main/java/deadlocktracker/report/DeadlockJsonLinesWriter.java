@@ -0,0 +1,54 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes one JSON object per line for each finding.
+ *
+ * @author RonanLana
+ */
+public class DeadlockJsonLinesWriter extends DeadlockReportWriter {
+
+	public DeadlockJsonLinesWriter(Writer out) {
+		super(out);
+	}
+
+	@Override
+	public void writeDeadlock(String lockName1, String lockName2, List<DeadlockWitness> witnesses) throws IOException {
+		out.write("{\"type\":\"deadlock\",\"locks\":[");
+		writeString(lockName1);
+		out.write(',');
+		writeString(lockName2);
+		out.write("],\"witnesses\":[");
+
+		boolean first = true;
+		for (DeadlockWitness w : witnesses) {
+			if (!first) out.write(',');
+			first = false;
+
+			out.write("{\"lock\":");
+			writeString(w.getLockName());
+			out.write(",\"function\":");
+			writeString(w.getFunctionName());
+			out.write(",\"callPath\":");
+			writeStringArray(w.getCallPath());
+			out.write('}');
+		}
+
+		out.write("]}\n");
+	}
+
+}
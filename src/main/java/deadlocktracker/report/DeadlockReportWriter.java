@@ -0,0 +1,90 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.report;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Streams findings to a machine-readable report, each one written as soon as it is handed over.
+ *
+ * @author RonanLana
+ */
+public abstract class DeadlockReportWriter implements Closeable {
+
+	protected final Writer out;
+
+	protected DeadlockReportWriter(Writer out) {
+		this.out = (out instanceof BufferedWriter) ? out : new BufferedWriter(out);
+	}
+
+	public abstract void writeDeadlock(String lockName1, String lockName2, List<DeadlockWitness> witnesses) throws IOException;
+
+	protected void writeString(String s) throws IOException {
+		if (s == null) {
+			out.write("null");
+			return;
+		}
+
+		out.write('"');
+		for (int i = 0; i < s.length(); i++) {
+			char ch = s.charAt(i);
+			switch (ch) {
+			case '"':
+				out.write("\\\"");
+				break;
+
+			case '\\':
+				out.write("\\\\");
+				break;
+
+			case '\n':
+				out.write("\\n");
+				break;
+
+			case '\r':
+				out.write("\\r");
+				break;
+
+			case '\t':
+				out.write("\\t");
+				break;
+
+			default:
+				if (ch < 0x20) {
+					out.write(String.format("\\u%04x", (int) ch));
+				} else {
+					out.write(ch);
+				}
+			}
+		}
+		out.write('"');
+	}
+
+	protected void writeStringArray(List<String> list) throws IOException {
+		out.write('[');
+		for (int i = 0; i < list.size(); i++) {
+			if (i > 0) out.write(',');
+			writeString(list.get(i));
+		}
+		out.write(']');
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+}
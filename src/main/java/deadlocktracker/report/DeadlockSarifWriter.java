@@ -0,0 +1,94 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes a SARIF 2.1.0 log, each finding streamed as a result of a single run. Functions are
+ * reported as logical locations, and witness call paths as thread flows.
+ *
+ * @author RonanLana
+ */
+public class DeadlockSarifWriter extends DeadlockReportWriter {
+
+	private static final String RULE_ID = "DL0001";
+
+	private boolean firstResult = true;
+
+	public DeadlockSarifWriter(Writer out) throws IOException {
+		super(out);
+
+		this.out.write("{\"version\":\"2.1.0\",");
+		this.out.write("\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",");
+		this.out.write("\"runs\":[{\"tool\":{\"driver\":{\"name\":\"DeadlockTracker\",\"rules\":[{\"id\":\"" + RULE_ID + "\",");
+		this.out.write("\"shortDescription\":{\"text\":\"Locks acquired in opposite orders\"}}]}},");
+		this.out.write("\"results\":[\n");
+	}
+
+	private void writeLogicalLocation(String functionName) throws IOException {
+		out.write("{\"logicalLocations\":[{\"fullyQualifiedName\":");
+		writeString(functionName);
+		out.write(",\"kind\":\"function\"}]}");
+	}
+
+	@Override
+	public void writeDeadlock(String lockName1, String lockName2, List<DeadlockWitness> witnesses) throws IOException {
+		if (!firstResult) out.write(",\n");
+		firstResult = false;
+
+		out.write("{\"ruleId\":\"" + RULE_ID + "\",\"level\":\"warning\",\"message\":{\"text\":");
+		writeString("Locks " + lockName1 + " and " + lockName2 + " may be acquired in opposite orders");
+		out.write("},\"locations\":[");
+
+		boolean first = true;
+		for (DeadlockWitness w : witnesses) {
+			if (!first) out.write(',');
+			first = false;
+
+			writeLogicalLocation(w.getFunctionName());
+		}
+
+		out.write("],\"codeFlows\":[{\"threadFlows\":[");
+
+		first = true;
+		for (DeadlockWitness w : witnesses) {
+			if (!first) out.write(',');
+			first = false;
+
+			out.write("{\"message\":{\"text\":");
+			writeString("acquires " + w.getLockName());
+			out.write("},\"locations\":[");
+
+			List<String> path = w.getCallPath();
+			for (int i = 0; i < path.size(); i++) {
+				if (i > 0) out.write(',');
+
+				out.write("{\"location\":");
+				writeLogicalLocation(path.get(i));
+				out.write('}');
+			}
+			out.write("]}");
+		}
+
+		out.write("]}]}");
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.write("\n]}]}\n");
+		super.close();
+	}
+
+}
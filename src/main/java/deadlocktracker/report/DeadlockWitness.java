@@ -0,0 +1,45 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.report;
+
+import java.util.List;
+
+/**
+ * A function acquiring a lock of a reported cycle, with a call path reaching it from an entry point.
+ *
+ * @author RonanLana
+ */
+public class DeadlockWitness {
+
+	private final String lockName;
+	private final String functionName;
+	private final List<String> callPath;    // canonical function names, entry point first
+
+	public DeadlockWitness(String lockName, String functionName, List<String> callPath) {
+		this.lockName = lockName;
+		this.functionName = functionName;
+		this.callPath = callPath;
+	}
+
+	public String getLockName() {
+		return lockName;
+	}
+
+	public String getFunctionName() {
+		return functionName;
+	}
+
+	public List<String> getCallPath() {
+		return callPath;
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.source;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+
+import language.csharp.CSharpLexer;
+import language.csharp.CSharpPreprocessorParser;
+
+/**
+ * Drops the tokens of inactive #if/#elif/#else regions, given the defined conditional compilation symbols
+ *
+ * @author RonanLana
+ */
+public class CSharpPreprocessor {
+
+	private static class Region {
+		private final boolean enclosingActive;
+		private boolean taken;
+		private boolean active;
+
+		private Region(boolean enclosingActive, boolean active) {
+			this.enclosingActive = enclosingActive;
+			this.taken = active;
+			this.active = active;
+		}
+	}
+
+	private final CSharpPreprocessorParser parser = new CSharpPreprocessorParser(null);
+	private final Deque<Region> regions = new ArrayDeque<>();
+	private boolean active = true;
+
+	private CSharpPreprocessor(Set<String> symbols) {
+		parser.removeErrorListeners();
+		parser.ConditionalSymbols.clear();
+		parser.ConditionalSymbols.addAll(symbols);
+	}
+
+	public static List<Token> filterInactiveTokens(List<? extends Token> tokens, Set<String> symbols, String fileName) {
+		CSharpPreprocessor preprocessor = new CSharpPreprocessor(symbols);
+
+		List<Token> compiledTokens = new ArrayList<>(tokens.size());
+		List<Token> directiveTokens = new ArrayList<>();
+		try {
+			for (Token token : tokens) {
+				if (token.getChannel() == CSharpLexer.DIRECTIVE || !directiveTokens.isEmpty()) {
+					// a directive spans its line, its whitespaces and comments are not read by the preprocessor
+					if (token.getChannel() == CSharpLexer.DIRECTIVE) directiveTokens.add(token);
+					compiledTokens.add(token);
+
+					if (token.getType() == CSharpLexer.DIRECTIVE_NEW_LINE) {
+						preprocessor.evaluateDirective(directiveTokens);
+						directiveTokens.clear();
+					}
+				} else if (preprocessor.active) {
+					compiledTokens.add(token);
+				}
+			}
+
+			if (!directiveTokens.isEmpty()) preprocessor.evaluateDirective(directiveTokens);    // directive on the last line
+			if (!preprocessor.regions.isEmpty()) throw new IllegalStateException();
+		} catch (RuntimeException e) {
+			System.out.println("[Warning] Unbalanced preprocessor directives on '" + fileName + "', parsing all of its regions");
+			return new ArrayList<>(tokens);
+		}
+
+		return compiledTokens;
+	}
+
+	private void evaluateDirective(List<Token> directiveTokens) {
+		Region region;
+		switch (directiveTokens.get(0).getType()) {
+		case CSharpLexer.IF:
+			boolean value = active && evaluateExpression(directiveTokens);
+			regions.push(new Region(active, value));
+			active = value;
+			break;
+
+		case CSharpLexer.ELIF:
+			region = regions.element();
+			region.active = region.enclosingActive && !region.taken && evaluateExpression(directiveTokens);
+			region.taken |= region.active;
+			active = region.active;
+			break;
+
+		case CSharpLexer.ELSE:
+			region = regions.element();
+			region.active = region.enclosingActive && !region.taken;
+			region.taken = true;
+			active = region.active;
+			break;
+
+		case CSharpLexer.ENDIF:
+			active = regions.pop().enclosingActive;
+			break;
+
+		case CSharpLexer.DEFINE:
+			if (active) parser.ConditionalSymbols.add(directiveTokens.get(1).getText());
+			break;
+
+		case CSharpLexer.UNDEF:
+			if (active) parser.ConditionalSymbols.remove(directiveTokens.get(1).getText());
+			break;
+
+		default:    // #region, #pragma, #line and the like do not change what is compiled
+			break;
+		}
+	}
+
+	private boolean evaluateExpression(List<Token> directiveTokens) {
+		List<Token> expressionTokens = new ArrayList<>(directiveTokens.subList(1, directiveTokens.size()));
+		if (expressionTokens.get(expressionTokens.size() - 1).getType() == CSharpLexer.DIRECTIVE_NEW_LINE) {
+			expressionTokens.remove(expressionTokens.size() - 1);
+		}
+
+		parser.setInputStream(new CommonTokenStream(new ListTokenSource(expressionTokens), CSharpLexer.DIRECTIVE));
+		return parser.preprocessor_expression().value.equals("true");
+	}
+}
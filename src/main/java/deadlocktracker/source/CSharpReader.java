@@ -12,6 +12,11 @@
 package deadlocktracker.source;
 
 import deadlocktracker.DeadlockGraphMaker;
+import deadlocktracker.DeadlockMetrics;
+import deadlocktracker.DeadlockMetrics.Phase;
+import deadlocktracker.DeadlockMetrics.UnresolvedType;
+import deadlocktracker.DeadlockParserFactory;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +36,7 @@ import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
 import deadlocktracker.containers.DeadlockEnum;
 import deadlocktracker.containers.DeadlockFunction;
 import deadlocktracker.containers.DeadlockLock;
+import deadlocktracker.containers.DeadlockLockSummary;
 import deadlocktracker.containers.DeadlockStorage;
 import deadlocktracker.containers.Pair;
 import deadlocktracker.graph.DeadlockAbstractType;
@@ -106,6 +112,9 @@ public class CSharpReader extends CSharpParserBaseListener {
 	private static DeadlockClass defaultClass = new DeadlockClass(DeadlockClassType.CLASS, "_DefaultClass", "_package.", "", Collections.emptyList(), true, null);
 
 	public void setSourceDirPrefixPath(String sourceDirPath) {
+		int r = sourceDirPath.indexOf(File.pathSeparatorChar);     // namespaces are taken from the first source root
+		if (r > -1) sourceDirPath = sourceDirPath.substring(0, r);
+
 		sourceDirPath = sourceDirPath.trim().toLowerCase();
 		sourceDirPath = sourceDirPath.replace('\\', '/');
 
@@ -686,7 +695,7 @@ public class CSharpReader extends CSharpParserBaseListener {
 		CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
 		CSharpParser parser = new CSharpParser(commonTokenStream);
 
-		return parser.unary_expression();
+		return DeadlockParserFactory.parse(parser, CSharpParser::unary_expression);
 	}
 
 	private static void addMethodFromExpression(CSharpParser.Unary_expressionContext ctx) {
@@ -736,7 +745,7 @@ public class CSharpReader extends CSharpParserBaseListener {
 		int typeId = getTypeId(tt, currentCompleteFileClassName);
 		pTypes.add(typeId);
 
-		Long val = method.addLocalVariable(typeId, nameText);
+		long val = method.addLocalVariable(typeId, nameText);
 		params.put(val, typeId);
 	}
 
@@ -1193,15 +1202,17 @@ public class CSharpReader extends CSharpParserBaseListener {
 			return ElementalTypes[6];
 		}
 
-		try {
+		targetClass = null;
+		if (pc != null) {
 			targetClass = pc.getImport(t);
 			if (targetClass == null) {
-				String path = DeadlockStorage.getPublicPackageName(pc);
-				targetClass = PublicClasses.get(path).get(t);
+				Map<String, DeadlockClass> packClasses = PublicClasses.get(DeadlockStorage.getPublicPackageName(pc));
+				if (packClasses != null) {
+					targetClass = packClasses.get(t);
+				} else {
+					DeadlockMetrics.countUnresolvedType(UnresolvedType.UNKNOWN_PACKAGE);
+				}
 			}
-		} catch(NullPointerException e) {
-			if (pc != null) System.out.println("EXCEPTION ON " + t + " ON SRC " + pc.getPackageName() + pc.getPathName());
-			targetClass = null;
 		}
 
 		if(targetClass != null) {
@@ -1257,6 +1268,8 @@ public class CSharpReader extends CSharpParserBaseListener {
 
 					CompoundDataTypes.put(compoundType, ret);
 				}
+			} else {
+				DeadlockMetrics.countUnresolvedType(UnresolvedType.UNKNOWN_TYPE);
 			}
 		}
 
@@ -1272,7 +1285,10 @@ public class CSharpReader extends CSharpParserBaseListener {
 		String type = p.left;
 		if(type.contentEquals("void")) return -2;
 
-		Integer ret = fetchDataType(type, DeadlockStorage.locateClass(p.right));
+		DeadlockClass pc = DeadlockStorage.locateClass(p.right);
+		if(pc == null) DeadlockMetrics.countUnresolvedType(UnresolvedType.NO_SOURCE_CLASS);
+
+		Integer ret = fetchDataType(type, pc);
 		return ret;
 	}
 
@@ -1284,22 +1300,7 @@ public class CSharpReader extends CSharpParserBaseListener {
 			f.updateParameter(i, parseDataType(pList.get(i)));
 		}
 
-		for(Entry<Long, List<Integer>> lv : f.getVolatileLocalVariables().entrySet()) {
-			List<Integer> localList = lv.getValue();
-			Set<Integer> localTypes = new HashSet<>();
-
-			for(int i = 0; i < localList.size(); i++) {
-				Integer type = parseDataType(localList.get(i));
-
-				if(!localTypes.contains(type)) {
-					localTypes.add(type);
-				}
-			}
-
-			f.updateLocalVariable(lv.getKey(), localTypes);
-		}
-
-		f.clearVolatileLocalVariables();
+		f.updateLocalVariables(type -> parseDataType(type));
 
 		for(Entry<Long, Integer> pv : f.getParameterVariables().entrySet()) {
 			f.updateParameterVariable(pv.getKey(), parseDataType(pv.getValue()));
@@ -1489,8 +1490,97 @@ public class CSharpReader extends CSharpParserBaseListener {
 		}
 	}
 
+	public static void readLockSummary(DeadlockLockSummary summary) {
+		Map<String, DeadlockClass> m = PublicClasses.get(summary.getPackageName());
+		if(m != null && m.containsKey(summary.getPathName())) return;   // a class also found on the sources is kept from there
+
+		DeadlockClass mdc;
+		if(summary.getType() == DeadlockClassType.ENUM) {
+			DeadlockEnum mde = new DeadlockEnum(summary.getName(), summary.getPackageName(), summary.getPathName(), summary.getSuperNames(), null);
+			for(String s : summary.getEnumValues()) {
+				mde.addEnumItem(s);
+			}
+
+			mdc = mde;
+		} else {
+			mdc = new DeadlockClass(summary.getType(), summary.getName(), summary.getPackageName(), summary.getPathName(), summary.getSuperNames(), summary.isAbstract(), null);
+		}
+
+		for(String s : summary.getImportNames()) {
+			mdc.addImport(s);
+		}
+		InheritanceTree.put(mdc, new LinkedList<>());
+
+		String fileClass = DeadlockStorage.getCanonClassName(mdc);
+		for(DeadlockLockSummary.MethodSummary ms : summary.getMethods()) {
+			DeadlockFunction method = new DeadlockFunction(ms.getName(), mdc, null, ms.isAbstract());
+
+			Map<Long, Integer> params = new HashMap<>();
+			List<Integer> pTypes = new LinkedList<>();
+			for(String s : ms.getParameterTypes()) {
+				int typeId = getTypeId(s, fileClass);
+				pTypes.add(typeId);
+
+				long val = method.addLocalVariable(typeId, "arg" + pTypes.size());
+				params.put(val, typeId);
+			}
+
+			Integer rType = ms.getReturnType().isEmpty() ? -1 : getTypeId(ms.getReturnType(), fileClass);
+			method.setMethodMetadata(rType, pTypes, params);
+			method.setEllipsis(ms.isEllipsis());
+
+			mdc.addClassMethod(method);
+			DeadlockStorage.getLockSummaries().put(method, ms);
+		}
+
+		for(String s : summary.getLockNames()) {
+			if(!Locks.containsKey(s)) {
+				Locks.put(s, instanceNewLock(s));
+			}
+		}
+
+		if(m != null) {
+			m.put(mdc.getPathName(), mdc);
+		} else {
+			PublicClasses.put(summary.getPackageName(), newPackageClass(mdc.getPathName(), mdc));
+		}
+	}
+
+	public static void resetProjectData() {
+		DeadlockStorage.resetStorage();
+		RunnableFunctions.clear();
+
+		runningId.set(1);
+		runningSyncLockId.set(0);
+		runningTypeId.set(1);
+		runningMethodCallCount.set(0);
+
+		methodCallCountStack.clear();
+		methodStack.clear();
+		classStack.clear();
+
+		readLockWaitingSet.clear();
+		writeLockWaitingSet.clear();
+		readLockQueue.clear();
+		writeLockQueue.clear();
+
+		LinkedDataNames.clear();
+		currentImportList.clear();
+		currentPackageName.clear();
+		currentCompleteFileClassName = null;
+		currentClass = null;
+		customClasses.clear();
+		currentAbstract = false;
+
+		volatileMaskedTypes.clear();
+		volatileDataTypes.clear();
+	}
+
 	public static DeadlockStorage compileProjectData() {
+		long t = DeadlockMetrics.startTimer();
+		DeadlockStorage.generateClassTrie();
 		parseImportClasses();
+		t = DeadlockMetrics.stopTimer(Phase.COMPILE_IMPORTS, t);
 
 		parseSuperClasses(PublicClasses);
 		parseSuperClasses(PrivateClasses);
@@ -1506,6 +1596,7 @@ public class CSharpReader extends CSharpParserBaseListener {
 
 		referenceCustomClasses();
 		referenceReadWriteLocks();
+		t = DeadlockMetrics.stopTimer(Phase.COMPILE_HIERARCHY, t);
 
 		/*
                 for(Entry<Integer, Pair<String, String>> v : volatileDataTypes.entrySet()) {
@@ -1526,12 +1617,14 @@ public class CSharpReader extends CSharpParserBaseListener {
 		 */
 
 		parseDataTypes();
-		fetchDataType("Set<Object>", null);
+		fetchDataType("Set<Object>", null);     // synthetic type, not a source reference
 
 		generateDereferencedDataTypes();
 		generateReflectedDataTypes();
+		t = DeadlockMetrics.stopTimer(Phase.COMPILE_DATA_TYPES, t);
 
 		solveRunnableFunctions();
+		DeadlockMetrics.stopTimer(Phase.COMPILE_RUNNABLES, t);
 
 		return storage;
 	}
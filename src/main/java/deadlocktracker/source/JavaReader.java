@@ -12,6 +12,10 @@
 package deadlocktracker.source;
 
 import deadlocktracker.DeadlockGraphMaker;
+import deadlocktracker.DeadlockMetrics;
+import deadlocktracker.DeadlockMetrics.Phase;
+import deadlocktracker.DeadlockMetrics.UnresolvedType;
+import deadlocktracker.DeadlockParserFactory;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -22,6 +26,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import language.java.JavaLexer;
 import language.java.JavaParser;
@@ -31,15 +36,18 @@ import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
 import deadlocktracker.containers.DeadlockEnum;
 import deadlocktracker.containers.DeadlockFunction;
 import deadlocktracker.containers.DeadlockLock;
+import deadlocktracker.containers.DeadlockLockSummary;
 import deadlocktracker.containers.DeadlockStorage;
 import deadlocktracker.containers.Pair;
-import deadlocktracker.graph.DeadlockAbstractType;
 import deadlocktracker.strings.IgnoredTypes;
 import deadlocktracker.strings.LinkedTypes;
 import deadlocktracker.strings.ReflectedTypes;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 /**
  *
@@ -90,6 +98,8 @@ public class JavaReader extends JavaParserBaseListener {
 	private static Map<Integer, String> LinkedDataNames = new HashMap();
 
 	private static List<String> currentImportList = new ArrayList<>();
+	private static Map<Integer, List<Token>> deferredBodies = new HashMap<>();     // method bodies cut off the file being read, by opening brace offset
+	private static Map<Integer, Pair<DeadlockFunction, Consumer<List<Token>>>> methodBodies = new HashMap<>();     // methods of the file being read by opening brace offset, with a reader of a new body
 	private static String absolutePath = null;
 	private static String currentPackageName;
 	private static String currentCompleteFileClassName;
@@ -99,10 +109,20 @@ public class JavaReader extends JavaParserBaseListener {
 
 	private static Map<Integer, Pair<DeadlockClass, Integer>> volatileMaskedTypes = new HashMap<>();
 	private static Map<Integer, Pair<String, String>> volatileDataTypes = new HashMap<>();  // cannot recover the import classes at the first parsing, so the type definition comes at the second rundown
+	private static Map<String, Map<String, Pair<Integer, long[]>>> ResolvedDataTypes = new HashMap<>();  // file class -> declaration text -> resolved type, unresolved types counted
+
+	public void setDeferredBodies(Map<Integer, List<Token>> bodies) {
+		deferredBodies = bodies;
+	}
+
+	public static Map<Integer, Pair<DeadlockFunction, Consumer<List<Token>>>> getMethodBodies() {
+		return methodBodies;
+	}
 
 	@Override
 	public void enterCompilationUnit(JavaParser.CompilationUnitContext ctx) {
 		currentImportList.clear();
+		methodBodies = new HashMap<>();
 	}
 
 	@Override
@@ -483,6 +503,11 @@ public class JavaReader extends JavaParserBaseListener {
 		method.setMethodMetadata(retParamTypes.left, retParamTypes.right.left, retParamTypes.right.right);
 		methodStack.add(method);
 
+		if(ctx.methodBody().block() != null) {
+			deferMethodBody(method, ctx.methodBody().block());
+			recordMethodBody(method, ctx.methodBody().block());
+		}
+
 		methodCallCountStack.add(runningMethodCallCount.get());
 		runningMethodCallCount.set(0);
 	}
@@ -529,6 +554,9 @@ public class JavaReader extends JavaParserBaseListener {
 
 		method.setMethodMetadata(-1, pTypes.left, pTypes.right);
 		methodStack.add(method);
+
+		deferMethodBody(method, ctx.constructorBody);
+		recordMethodBody(method, ctx.constructorBody);
 	}
 
 	@Override
@@ -537,6 +565,51 @@ public class JavaReader extends JavaParserBaseListener {
 		currentClass.addClassMethod(method);
 	}
 
+	private void deferMethodBody(DeadlockFunction method, JavaParser.BlockContext block) {
+		if(deferredBodies.isEmpty()) return;
+
+		List<Token> body = deferredBodies.get(block.getStart().getStartIndex());
+		if(body != null) {
+			DeadlockClass sourceClass = currentClass;
+			String packageName = currentPackageName;
+			String fileClassName = currentCompleteFileClassName;
+
+			method.setDeferredBody(() -> readDeferredBody(method, body, sourceClass, packageName, fileClassName));
+		}
+	}
+
+	private void recordMethodBody(DeadlockFunction method, JavaParser.BlockContext block) {
+		DeadlockClass sourceClass = currentClass;
+		String packageName = currentPackageName;
+		String fileClassName = currentCompleteFileClassName;
+
+		// an edited body is read over the declarations in place, once the graph asks for it
+		methodBodies.put(block.getStart().getStartIndex(), new Pair<>(method, body -> method.setDeferredBody(() -> {
+			method.clearMethodBody();
+			readDeferredBody(method, body, sourceClass, packageName, fileClassName);
+		})));
+	}
+
+	private void readDeferredBody(DeadlockFunction method, List<Token> body, DeadlockClass sourceClass, String packageName, String fileClassName) {
+		JavaParser parser = new JavaParser(new CommonTokenStream(new ListTokenSource(body)));
+		JavaParser.BlockContext block = DeadlockParserFactory.parse(parser, JavaParser::block);
+
+		// the body is read as if it were still on its file, its local variables being resolved right after
+		currentClass = sourceClass;
+		currentPackageName = packageName;
+		currentCompleteFileClassName = fileClassName;
+
+		methodStack.add(method);
+		int methodCallCount = runningMethodCallCount.getAndSet(0);
+
+		new ParseTreeWalker().walk(this, block);
+
+		runningMethodCallCount.set(methodCallCount);
+		methodStack.pop();
+
+		updateLocalVariableReferences(method);
+	}
+
 	@Override
 	public void enterFieldDeclaration(JavaParser.FieldDeclarationContext ctx) {
 		processVariableDeclarations(true, ctx.typeType().getText(), ctx.variableDeclarators().variableDeclarator());
@@ -567,6 +640,8 @@ public class JavaReader extends JavaParserBaseListener {
 
 	@Override
 	public void enterElementValuePair(JavaParser.ElementValuePairContext ctx) {
+		if(currentClass == null) return;    // annotations placed ahead of the first class declaration
+
 		String lockName = currentPackageName + currentClass.getPathName() + "." + ctx.IDENTIFIER().getText();
 
 		if(!readLockWaitingSet.isEmpty() || !writeLockWaitingSet.isEmpty()) {
@@ -596,7 +671,7 @@ public class JavaReader extends JavaParserBaseListener {
 		CommonTokenStream commonTokenStream = new CommonTokenStream(lexer);
 		JavaParser parser = new JavaParser(commonTokenStream);
 
-		return parser.expression();
+		return DeadlockParserFactory.parse(parser, JavaParser::expression);
 	}
 
 	@Override
@@ -700,7 +775,7 @@ public class JavaReader extends JavaParserBaseListener {
 				int typeId = getTypeId(tt, currentCompleteFileClassName);
 				pTypes.add(typeId);
 
-				Long val = method.addLocalVariable(typeId, fp.variableDeclaratorId().IDENTIFIER().getText());
+				long val = method.addLocalVariable(typeId, fp.variableDeclaratorId().IDENTIFIER().getText());
 				params.put(val, typeId);
 			}
 
@@ -711,7 +786,7 @@ public class JavaReader extends JavaParserBaseListener {
 				int typeId = getTypeId(tt, currentCompleteFileClassName);
 				pTypes.add(typeId);
 
-				Long val = method.addLocalVariable(typeId, lfp.variableDeclaratorId().IDENTIFIER().getText());
+				long val = method.addLocalVariable(typeId, lfp.variableDeclaratorId().IDENTIFIER().getText());
 				params.put(val, typeId);
 
 				method.setEllipsis(true);
@@ -1054,42 +1129,6 @@ public class JavaReader extends JavaParserBaseListener {
 		}
 	}
 
-	private static String parseWrappedType(String s) {
-		int idx = s.indexOf("extends");     // assumes the extended element
-		if(idx > -1) {
-			return s.substring(idx + 7);
-		}
-
-		return s;
-	}
-
-	private static List<String> getWrappedTypes(String type) {
-		List<String> ret = new LinkedList<>();
-
-		int st = type.indexOf('<') + 1, en = 0;
-		int c = 1;
-		for(int i = st; i < type.length(); i++) {
-			char ch = type.charAt(i);
-
-			if(ch == ',') {
-				if(c == 1) {
-					ret.add(parseWrappedType(type.substring(st, i)));
-					st = i + 1;
-				}
-			} else if(ch == '<') {
-				c++;
-			} else if(ch == '>') {
-				c--;
-				en = i;
-			}
-		}
-
-		if(st == en) return null;
-
-		ret.add(type.substring(st, en).trim());
-		return ret;
-	}
-
 	private static Integer filterDataType(Integer ret) {
 		Integer e = ElementalDataTypes.get(ret);
 		if(e != null) ret = e;
@@ -1098,37 +1137,28 @@ public class JavaReader extends JavaParserBaseListener {
 	}
 
 	private static Integer fetchDataType(String type, DeadlockClass pc) {
+		return fetchDataType(JavaTypeSignature.parse(type), pc);
+	}
+
+	private static Integer fetchDataType(JavaTypeSignature type, DeadlockClass pc) {
 		List<Integer> compoundType = new LinkedList<>();
-		String t = type;
+		String t = type.getName();
 
 		Integer ret = -2;
 		DeadlockClass targetClass;     //search for class data type
 
-		int idx = type.indexOf('[');
-		int c = 0;
-		if(idx == -1) {
-			List<String> wrapped = getWrappedTypes(type);
-
-			if(wrapped != null) {
-				for(String s : wrapped) {
-					compoundType.add(fetchDataType(s, pc));
-				}
+		int c = type.getArrayDepth();
+		if(type.getArguments() != null) {
+			for(JavaTypeSignature s : type.getArguments()) {
+				compoundType.add(fetchDataType(s, pc));
 			}
-		} else {
-			c = countOccurrences(type, '[');
-
-			type = type.substring(0, idx);
-			t = type;
 		}
 
-		int en = type.indexOf('<');
-		if(en != -1) t = type.substring(0, en);
-
-		if (IgnoredTypes.isDataTypeIgnored(t)) {
+		if (type.isIgnored()) {
 			return BasicDataTypes.get("Object");
 		}
 
-		switch (DeadlockAbstractType.getValue(t)) {
+		switch (type.getAbstractType()) {
 		case LOCK:
 			return ElementalTypes[5];
 
@@ -1136,15 +1166,17 @@ public class JavaReader extends JavaParserBaseListener {
 			return ElementalTypes[6];
 		}
 
-		try {
+		targetClass = null;
+		if (pc != null) {
 			targetClass = pc.getImport(t);
 			if (targetClass == null) {
-				String path = DeadlockStorage.getPublicPackageName(pc);
-				targetClass = PublicClasses.get(path).get(t);
+				Map<String, DeadlockClass> packClasses = PublicClasses.get(DeadlockStorage.getPublicPackageName(pc));
+				if (packClasses != null) {
+					targetClass = packClasses.get(t);
+				} else {
+					DeadlockMetrics.countUnresolvedType(UnresolvedType.UNKNOWN_PACKAGE);
+				}
 			}
-		} catch(NullPointerException e) {
-			if (pc != null) System.out.println("EXCEPTION ON " + t + " ON SRC " + pc.getPackageName() + pc.getPathName());
-			targetClass = null;
 		}
 
 		if(targetClass != null) {
@@ -1202,7 +1234,10 @@ public class JavaReader extends JavaParserBaseListener {
 				}
 			} else {
 				ret = BasicDataTypes.get(t);
-				if(ret == null) ret = -2;
+				if(ret == null) {
+					DeadlockMetrics.countUnresolvedType(UnresolvedType.UNKNOWN_TYPE);
+					ret = -2;
+				}
 			}
 		}
 
@@ -1218,8 +1253,27 @@ public class JavaReader extends JavaParserBaseListener {
 		String type = p.left;
 		if(type.contentEquals("void")) return -2;
 
-		Integer ret = fetchDataType(type, DeadlockStorage.locateClass(p.right));
-		return ret;
+		Map<String, Pair<Integer, long[]>> scopeTypes = ResolvedDataTypes.get(p.right);
+		if(scopeTypes == null) {
+			scopeTypes = new HashMap<>();
+			ResolvedDataTypes.put(p.right, scopeTypes);
+		}
+
+		Pair<Integer, long[]> ret = scopeTypes.get(type);
+		if(ret == null) {
+			long[] unresolved = DeadlockMetrics.getUnresolvedTypeCounts();
+
+			DeadlockClass pc = DeadlockStorage.locateClass(p.right);
+			if(pc == null) DeadlockMetrics.countUnresolvedType(UnresolvedType.NO_SOURCE_CLASS);
+
+			Integer id = fetchDataType(type, pc);
+			ret = new Pair<>(id, DeadlockMetrics.getUnresolvedTypeCountsSince(unresolved));
+			scopeTypes.put(type, ret);
+		} else if(ret.right != null) {
+			DeadlockMetrics.addUnresolvedTypeCounts(ret.right);    // unresolved types are counted on every declaration, as with no memo
+		}
+
+		return ret.left;
 	}
 
 	private static void updateFunctionReferences(DeadlockFunction f) {
@@ -1230,28 +1284,17 @@ public class JavaReader extends JavaParserBaseListener {
 			f.updateParameter(i, parseDataType(pList.get(i)));
 		}
 
-		for(Entry<Long, List<Integer>> lv : f.getVolatileLocalVariables().entrySet()) {
-			List<Integer> localList = lv.getValue();
-			Set<Integer> localTypes = new HashSet<>();
-
-			for(int i = 0; i < localList.size(); i++) {
-				Integer type = parseDataType(localList.get(i));
-
-				if(!localTypes.contains(type)) {
-					localTypes.add(type);
-				}
-			}
-
-			f.updateLocalVariable(lv.getKey(), localTypes);
-		}
-
-		f.clearVolatileLocalVariables();
+		updateLocalVariableReferences(f);
 
 		for(Entry<Long, Integer> pv : f.getParameterVariables().entrySet()) {
 			f.updateParameterVariable(pv.getKey(), parseDataType(pv.getValue()));
 		}
 	}
 
+	private static void updateLocalVariableReferences(DeadlockFunction f) {
+		f.updateLocalVariables(type -> parseDataType(type));
+	}
+
 	private static void updatePackageReferences(Map<String, Map<String, DeadlockClass>> packageClasses) {
 		for(Map<String, DeadlockClass> m : packageClasses.values()) {
 			for(DeadlockClass mdc : m.values()) {
@@ -1435,8 +1478,100 @@ public class JavaReader extends JavaParserBaseListener {
 		}
 	}
 
+	public static void readLockSummary(DeadlockLockSummary summary) {
+		Map<String, DeadlockClass> m = PublicClasses.get(summary.getPackageName());
+		if(m != null && m.containsKey(summary.getPathName())) return;   // a class also found on the sources is kept from there
+
+		DeadlockClass mdc;
+		if(summary.getType() == DeadlockClassType.ENUM) {
+			DeadlockEnum mde = new DeadlockEnum(summary.getName(), summary.getPackageName(), summary.getPathName(), summary.getSuperNames(), null);
+			for(String s : summary.getEnumValues()) {
+				mde.addEnumItem(s);
+			}
+
+			mdc = mde;
+		} else {
+			mdc = new DeadlockClass(summary.getType(), summary.getName(), summary.getPackageName(), summary.getPathName(), summary.getSuperNames(), summary.isAbstract(), null);
+		}
+
+		for(String s : summary.getImportNames()) {
+			mdc.addImport(s);
+		}
+		InheritanceTree.put(mdc, new LinkedList<>());
+
+		String fileClass = DeadlockStorage.getCanonClassName(mdc);
+		for(DeadlockLockSummary.MethodSummary ms : summary.getMethods()) {
+			DeadlockFunction method = new DeadlockFunction(ms.getName(), mdc, null, ms.isAbstract());
+
+			Map<Long, Integer> params = new HashMap<>();
+			List<Integer> pTypes = new LinkedList<>();
+			for(String s : ms.getParameterTypes()) {
+				int typeId = getTypeId(s, fileClass);
+				pTypes.add(typeId);
+
+				long val = method.addLocalVariable(typeId, "arg" + pTypes.size());
+				params.put(val, typeId);
+			}
+
+			Integer rType = ms.getReturnType().isEmpty() ? -1 : getTypeId(ms.getReturnType(), fileClass);
+			method.setMethodMetadata(rType, pTypes, params);
+			method.setEllipsis(ms.isEllipsis());
+
+			mdc.addClassMethod(method);
+			DeadlockStorage.getLockSummaries().put(method, ms);
+		}
+
+		for(String s : summary.getLockNames()) {
+			if(!Locks.containsKey(s)) {
+				Locks.put(s, instanceNewLock(s));
+			}
+		}
+
+		if(m != null) {
+			m.put(mdc.getPathName(), mdc);
+		} else {
+			PublicClasses.put(summary.getPackageName(), newPackageClass(mdc.getPathName(), mdc));
+		}
+	}
+
+	public static void resetProjectData() {
+		DeadlockStorage.resetStorage();
+		RunnableFunctions.clear();
+
+		runningId.set(1);
+		runningTypeId.set(1);
+		runningMethodCallCount.set(0);
+
+		methodCallCountStack.clear();
+		methodStack.clear();
+		classStack.clear();
+		syncLockStack.clear();
+
+		readLockWaitingSet.clear();
+		writeLockWaitingSet.clear();
+		readLockQueue.clear();
+		writeLockQueue.clear();
+
+		LinkedDataNames.clear();
+		currentImportList.clear();
+		deferredBodies = new HashMap<>();
+		methodBodies = new HashMap<>();
+		currentPackageName = null;
+		currentCompleteFileClassName = null;
+		currentClass = null;
+		customClasses.clear();
+		currentAbstract = false;
+
+		volatileMaskedTypes.clear();
+		volatileDataTypes.clear();
+		ResolvedDataTypes.clear();
+	}
+
 	public static DeadlockStorage compileProjectData() {
+		long t = DeadlockMetrics.startTimer();
+		DeadlockStorage.generateClassTrie();
 		parseImportClasses();
+		t = DeadlockMetrics.stopTimer(Phase.COMPILE_IMPORTS, t);
 
 		parseSuperClasses(PublicClasses);
 		parseSuperClasses(PrivateClasses);
@@ -1452,6 +1587,7 @@ public class JavaReader extends JavaParserBaseListener {
 
 		referenceCustomClasses();
 		referenceReadWriteLocks();
+		t = DeadlockMetrics.stopTimer(Phase.COMPILE_HIERARCHY, t);
 
 		/*
                 for(Entry<Integer, Pair<String, String>> v : volatileDataTypes.entrySet()) {
@@ -1466,12 +1602,14 @@ public class JavaReader extends JavaParserBaseListener {
 		 */
 
 		parseDataTypes();
-		fetchDataType("Set<Object>", null);
+		fetchDataType("Set<Object>", null);     // synthetic type, not a source reference
 
 		generateDereferencedDataTypes();
 		generateReflectedDataTypes();
+		t = DeadlockMetrics.stopTimer(Phase.COMPILE_DATA_TYPES, t);
 
 		solveRunnableFunctions();
+		DeadlockMetrics.stopTimer(Phase.COMPILE_RUNNABLES, t);
 
 		return storage;
 	}
@@ -0,0 +1,256 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.source;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.Token;
+
+import deadlocktracker.containers.DeadlockStorage;
+import language.java.JavaLexer;
+
+/**
+ * Token-level split of a Java source file with no locking into its declarations and its method bodies.
+ * The bodies are cut off the skeleton the parser reads, and kept aside to be parsed if their method is reached.
+ *
+ * @author RonanLana
+ */
+public class JavaSkeleton {
+
+	private enum Scope {
+		CLASS_BODY,         // members are read, method bodies may be deferred
+		ENUM_CONSTANTS,     // becomes a class body past the constant list
+		OTHER
+	}
+
+	// no synchronized blocks or modifiers, lock types, lock fields or lock/unlock calls
+	public static boolean isLockFree(List<Token> tokens) {
+		for (Token t : tokens) {
+			if (t.getType() == JavaLexer.SYNCHRONIZED) return false;
+			if (t.getType() == JavaLexer.IDENTIFIER && (t.getText().contains("Lock") || t.getText().contains("lock"))) return false;
+		}
+
+		return true;
+	}
+
+	// synchronized blocks, lock variables or lock initializers, which declare locks when the body is read
+	public static boolean declaresLocks(List<Token> body) {
+		for (int i = 0; i < body.size(); i++) {
+			Token t = body.get(i);
+			if (t.getType() == JavaLexer.SYNCHRONIZED) return true;
+
+			if (t.getType() == JavaLexer.IDENTIFIER && t.getText().contains("Lock")) {
+				Token next = nextToken(body, i);
+				if (next != null && (next.getType() == JavaLexer.IDENTIFIER || next.getType() == JavaLexer.LPAREN || next.getType() == JavaLexer.LT)) return true;
+			}
+		}
+
+		return false;
+	}
+
+	// layout and comments are left out, so only edits to the code change the hash
+	public static long hashTokens(List<Token> tokens) {
+		StringBuilder s = new StringBuilder();
+		for (Token t : tokens) {
+			if (t.getChannel() == Token.DEFAULT_CHANNEL) s.append(t.getText()).append(' ');
+		}
+
+		return DeadlockStorage.hash64(s.toString());
+	}
+
+	// fills the skeleton with the tokens to parse, returns the cut method bodies by the source index of their opening brace
+	public static Map<Integer, List<Token>> extractMethodBodies(List<Token> tokens, List<Token> skeleton) {
+		Map<Integer, List<Token>> bodies = new HashMap<>();
+		Deque<Scope> scopes = new ArrayDeque<>();
+
+		Scope pendingScope = Scope.OTHER;
+		boolean pendingBody = false;    // a parameter list was closed on a class body, a brace now opens a method body
+		boolean initializer = false;    // a field initializer is read up to its semicolon, its parentheses close no parameter list
+		int parens = 0;
+		Token previous = null;
+
+		for (int i = 0; i < tokens.size(); i++) {
+			Token t = tokens.get(i);
+			skeleton.add(t);
+			if (t.getChannel() != Token.DEFAULT_CHANNEL) continue;
+
+			Scope scope = scopes.isEmpty() ? Scope.OTHER : scopes.peek();
+			switch (t.getType()) {
+			case JavaLexer.CLASS:
+				if (previous == null || previous.getType() != JavaLexer.DOT) pendingScope = Scope.CLASS_BODY;    // not a class literal
+				pendingBody = false;
+				break;
+
+			case JavaLexer.ENUM:
+				pendingScope = Scope.ENUM_CONSTANTS;
+				pendingBody = false;
+				break;
+
+			case JavaLexer.INTERFACE:
+				pendingScope = Scope.OTHER;
+				pendingBody = false;
+				break;
+
+			case JavaLexer.LPAREN:
+				parens++;
+				pendingBody = false;
+				break;
+
+			case JavaLexer.RPAREN:
+				parens--;
+				pendingBody = parens == 0 && scope == Scope.CLASS_BODY && !initializer;
+				break;
+
+			case JavaLexer.ASSIGN:
+				if (scope == Scope.CLASS_BODY && parens == 0) initializer = true;    // not an annotation element value
+				pendingBody = false;
+				break;
+
+			case JavaLexer.NEW:
+				if (scope == Scope.CLASS_BODY) initializer = true;
+				pendingBody = false;
+				break;
+
+			case JavaLexer.THROWS:
+			case JavaLexer.IDENTIFIER:
+			case JavaLexer.DOT:
+			case JavaLexer.COMMA:
+				break;
+
+			case JavaLexer.SEMI:
+				if (scope == Scope.ENUM_CONSTANTS && parens == 0) {
+					scopes.pop();
+					scopes.push(Scope.CLASS_BODY);
+				}
+				if (scope == Scope.CLASS_BODY) initializer = false;
+				pendingBody = false;
+				break;
+
+			case JavaLexer.LBRACE:
+				if (pendingBody) {
+					int end = findBodyEnd(tokens, i);
+					if (end >= 0 && !declaresTypes(tokens, i, end)) {
+						bodies.put(t.getStartIndex(), new ArrayList<>(tokens.subList(i, end + 1)));
+						skeleton.add(tokens.get(end));
+
+						i = end;
+						previous = tokens.get(end);
+						pendingBody = false;
+						continue;
+					}
+				}
+
+				scopes.push(pendingScope);
+				pendingScope = Scope.OTHER;
+				pendingBody = false;
+				break;
+
+			case JavaLexer.RBRACE:
+				if (!scopes.isEmpty()) scopes.pop();
+				pendingBody = false;
+				break;
+
+			default:
+				pendingBody = false;
+			}
+
+			previous = t;
+		}
+
+		return bodies;
+	}
+
+	private static int findBodyEnd(List<Token> tokens, int start) {
+		int depth = 0;
+		for (int i = start; i < tokens.size(); i++) {
+			Token t = tokens.get(i);
+			if (t.getChannel() != Token.DEFAULT_CHANNEL) continue;
+
+			if (t.getType() == JavaLexer.LBRACE) {
+				depth++;
+			} else if (t.getType() == JavaLexer.RBRACE) {
+				depth--;
+				if (depth == 0) return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private static Token nextToken(List<Token> tokens, int i) {
+		for (i++; i < tokens.size(); i++) {
+			if (tokens.get(i).getChannel() == Token.DEFAULT_CHANNEL) return tokens.get(i);
+		}
+
+		return null;
+	}
+
+	// local and anonymous classes are registered when their body is read, so such a body is never deferred
+	private static boolean declaresTypes(List<Token> tokens, int start, int end) {
+		Deque<Integer> creators = new ArrayDeque<>();     // parenthesis depths of the "new" argument lists
+		boolean pendingNew = false;
+		int parens = 0;
+		Token previous = null;
+
+		for (int i = start + 1; i < end; i++) {
+			Token t = tokens.get(i);
+			if (t.getChannel() != Token.DEFAULT_CHANNEL) continue;
+
+			switch (t.getType()) {
+			case JavaLexer.CLASS:
+				if (previous == null || previous.getType() != JavaLexer.DOT) return true;
+				break;
+
+			case JavaLexer.INTERFACE:
+			case JavaLexer.ENUM:
+				return true;
+
+			case JavaLexer.NEW:
+				pendingNew = previous == null || previous.getType() != JavaLexer.COLONCOLON;    // not a constructor reference
+				break;
+
+			case JavaLexer.LPAREN:
+				if (pendingNew) {
+					creators.push(parens);
+					pendingNew = false;
+				}
+				parens++;
+				break;
+
+			case JavaLexer.RPAREN:
+				parens--;
+				if (!creators.isEmpty() && creators.peek() == parens) {
+					creators.pop();
+
+					Token next = nextToken(tokens, i);
+					if (next != null && next.getType() == JavaLexer.LBRACE) return true;
+				}
+				break;
+
+			case JavaLexer.LBRACK:
+			case JavaLexer.LBRACE:
+			case JavaLexer.SEMI:
+				pendingNew = false;
+				break;
+			}
+
+			previous = t;
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import deadlocktracker.graph.DeadlockAbstractType;
+import deadlocktracker.strings.IgnoredTypes;
+
+/**
+ * Parsed form of a declared Java type, e.g. "Map<Integer,List<Pair<Item,Short>>>" or "Item[][]".
+ * Signatures are memoized by their declaration text, so each distinct text is parsed once.
+ *
+ * @author RonanLana
+ */
+public class JavaTypeSignature {
+	private static final Map<String, JavaTypeSignature> signatures = new HashMap<>();
+
+	private final String name;      // type name, stripped of type arguments and array brackets
+	private final int arrayDepth;
+	private final List<JavaTypeSignature> arguments;    // null on non-parameterized types
+
+	private final boolean ignored;
+	private final DeadlockAbstractType abstractType;
+
+	public static JavaTypeSignature parse(String type) {
+		JavaTypeSignature sig = signatures.get(type);
+		if (sig == null) {
+			sig = new JavaTypeSignature(type);
+			signatures.put(type, sig);
+		}
+
+		return sig;
+	}
+
+	private JavaTypeSignature(String type) {
+		String t = type;
+		List<JavaTypeSignature> args = null;
+
+		int idx = type.indexOf('[');
+		int c = 0;
+		if(idx == -1) {
+			List<String> wrapped = getWrappedTypes(type);
+
+			if(wrapped != null) {
+				args = new ArrayList<>(wrapped.size());
+				for(String s : wrapped) {
+					args.add(parse(s));
+				}
+			}
+		} else {
+			c = countOccurrences(type, '[');
+
+			type = type.substring(0, idx);
+			t = type;
+		}
+
+		int en = type.indexOf('<');
+		if(en != -1) t = type.substring(0, en);
+
+		name = t;
+		arrayDepth = c;
+		arguments = (args != null) ? Collections.unmodifiableList(args) : null;
+
+		ignored = IgnoredTypes.isDataTypeIgnored(t);
+		abstractType = DeadlockAbstractType.getValue(t);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getArrayDepth() {
+		return arrayDepth;
+	}
+
+	public List<JavaTypeSignature> getArguments() {
+		return arguments;
+	}
+
+	public boolean isIgnored() {
+		return ignored;
+	}
+
+	public DeadlockAbstractType getAbstractType() {
+		return abstractType;
+	}
+
+	private static int countOccurrences(String haystack, char needle) {
+		int count = 0;
+		for (int i = 0; i < haystack.length(); i++) {
+			if (haystack.charAt(i) == needle) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private static String parseWrappedType(String s) {
+		int idx = s.indexOf("extends");     // assumes the extended element
+		if(idx > -1) {
+			return s.substring(idx + 7);
+		}
+
+		return s;
+	}
+
+	private static List<String> getWrappedTypes(String type) {
+		List<String> ret = new LinkedList<>();
+
+		int st = type.indexOf('<') + 1, en = 0;
+		int c = 1;
+		for(int i = st; i < type.length(); i++) {
+			char ch = type.charAt(i);
+
+			if(ch == ',') {
+				if(c == 1) {
+					ret.add(parseWrappedType(type.substring(st, i)));
+					st = i + 1;
+				}
+			} else if(ch == '<') {
+				c++;
+			} else if(ch == '>') {
+				c--;
+				en = i;
+			}
+		}
+
+		if(st == en) return null;
+
+		ret.add(type.substring(st, en).trim());
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		String s = name;
+		if (arguments != null) s += arguments;
+		for (int i = 0; i < arrayDepth; i++) s += "[]";
+
+		return s;
+	}
+}
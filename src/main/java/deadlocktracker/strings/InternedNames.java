@@ -0,0 +1,64 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.strings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class InternedNames {
+	private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+	private static final List<String> names = new ArrayList<>();
+
+	public static int getId(String name) {
+		Integer id = ids.get(name);
+		if (id == null) {
+			id = insertId(name);
+		}
+
+		return id;
+	}
+
+	private static synchronized int insertId(String name) {
+		Integer id = ids.get(name);
+		if (id == null) {
+			id = names.size();
+
+			names.add(name);
+			ids.put(name, id);
+		}
+
+		return id;
+	}
+
+	public static int lookupId(String name) {
+		Integer id = ids.get(name);
+		return (id != null) ? id : -1;
+	}
+
+	public static synchronized String getName(int id) {
+		return names.get(id);
+	}
+
+	public static synchronized int size() {
+		return names.size();
+	}
+
+	public static long getPairKey(int left, int right) {
+		return (((long) left) << 32) | (right & 0xFFFFFFFFL);
+	}
+}
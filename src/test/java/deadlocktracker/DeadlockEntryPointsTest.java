@@ -0,0 +1,85 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+import deadlocktracker.containers.DeadlockClass;
+import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
+import deadlocktracker.containers.DeadlockFunction;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockEntryPointsTest {
+
+	private static DeadlockFunction function(String packageName, String className, String name) {
+		DeadlockClass c = new DeadlockClass(DeadlockClassType.CLASS, className, packageName + ".", className, new LinkedList<String>(), false, null);
+		return new DeadlockFunction(name, c, null, false);
+	}
+
+	@Test
+	public void testExactEntries() {
+		DeadlockEntryPoints ep = DeadlockEntryPoints.compile("run,[net.server.Channel],handle[net.server.Handler]");
+
+		assertTrue(ep.matches(function("net.client", "Task", "run")));
+		assertTrue(ep.matches(function("net.server", "Channel", "close")));
+		assertTrue(ep.matches(function("net.server", "Handler", "handle")));
+
+		assertFalse(ep.matches(function("net.server", "Handler", "close")));
+		assertFalse(ep.matches(function("net.server", "Worker", "handle")));
+		assertFalse(ep.matches(function("net.server", "Channel2", "close")));
+		assertFalse(ep.matches(function("net.client", "Task", "runner")));
+	}
+
+	@Test
+	public void testGlobEntries() {
+		DeadlockEntryPoints ep = DeadlockEntryPoints.compile("handle*[net.server.channel.handlers.*],r?n,[net.*.S*r]");
+
+		assertTrue(ep.matches(function("net.server.channel.handlers", "LoginHandler", "handlePacket")));
+		assertTrue(ep.matches(function("net.server.channel.handlers", "LoginHandler", "handle")));
+		assertFalse(ep.matches(function("net.server.channel.handlers", "LoginHandler", "validate")));
+		assertFalse(ep.matches(function("net.server.channel", "Handler", "handlePacket")));
+
+		assertTrue(ep.matches(function("app", "Task", "run")));
+		assertTrue(ep.matches(function("app", "Task", "ran")));
+		assertFalse(ep.matches(function("app", "Task", "rn")));
+		assertFalse(ep.matches(function("app", "Task", "rune")));
+
+		assertTrue(ep.matches(function("net.login", "Server", "start")));
+		assertFalse(ep.matches(function("net.login", "Service", "start")));
+	}
+
+	@Test
+	public void testQuotedNames() {
+		// characters other than the wildcards match themselves
+		DeadlockEntryPoints ep = DeadlockEntryPoints.compile("run[app.Task*]");
+
+		assertTrue(ep.matches(function("app", "Task$1", "run")));
+		assertFalse(ep.matches(function("appx", "Task", "run")));
+		assertFalse(ep.matches(function("app", "Task", "run2")));
+	}
+
+	@Test
+	public void testCompiledFrom() {
+		assertTrue(DeadlockEntryPoints.compile("run").isCompiledFrom("run"));
+		assertFalse(DeadlockEntryPoints.compile("run").isCompiledFrom("run,main"));
+		assertTrue(DeadlockEntryPoints.compile(null).isCompiledFrom(null));
+		assertFalse(DeadlockEntryPoints.compile(null).matches(function("app", "Task", "run")));
+	}
+}
@@ -0,0 +1,217 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import deadlocktracker.containers.DeadlockEntry;
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.graph.DeadlockGraphEntry;
+import deadlocktracker.graph.DeadlockGraphMethod;
+import deadlocktracker.source.JavaReader;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockGraphCruiserTest {
+
+	private static final String BANK = "package app;\n\n"
+			+ "import java.util.concurrent.locks.ReentrantLock;\n\n"
+			+ "public class Bank implements Runnable {\n"
+			+ "\tprivate final ReentrantLock a = new ReentrantLock();\n"
+			+ "\tprivate final ReentrantLock b = new ReentrantLock();\n"
+			+ "\tprivate final ReentrantLock c = new ReentrantLock();\n\n"
+			+ "\tpublic void run() {\n\t\ttransfer();\n\t\taudit();\n\t}\n\n"
+			+ "\tvoid transfer() {\n\t\ta.lock();\n\t\tb.lock();\n\t\ta.unlock();\n\t\tb.unlock();\n\t}\n\n"
+			+ "\tvoid audit() {\n\t\tb.lock();\n\t\tc.lock();\n\t\tb.unlock();\n\t\tc.unlock();\n\t}\n\n"
+			+ "\tvoid report() {\n\t\tc.lock();\n\t\tlog();\n\t\tc.unlock();\n\t}\n\n"
+			+ "\tvoid log() {\n\t}\n"
+			+ "}\n";
+
+	private static final String CLERK = "package app;\n\n"
+			+ "public class Clerk implements Runnable {\n"
+			+ "\tprivate Bank bank;\n\n"
+			+ "\tpublic void run() {\n\t\tbank.report();\n\t}\n"
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private DeadlockStorage storage;
+	private DeadlockGraph graph;
+	private Map<Integer, String> lockNames;
+
+	private void writeSource(File dir, String name, String content) throws IOException {
+		Files.write(new File(dir, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Before
+	public void loadProject() throws IOException, DeadlockAnalysisException {
+		File dir = folder.newFolder("app");
+		writeSource(dir, "Bank.java", BANK);
+		writeSource(dir, "Clerk.java", CLERK);
+
+		Properties prop = new Properties();
+		prop.setProperty("src_folder", folder.getRoot().getPath());
+		prop.setProperty("language", "Java");
+		prop.setProperty("extensions", "java");
+		prop.setProperty("entry_points", "run");
+		prop.setProperty("graph_workers", "1");
+		DeadlockConfig.loadProperties(prop);
+
+		JavaReader.resetProjectData();
+		DeadlockGraphEntry.resetInterned();
+		DeadlockGraphCruiser.resetCruiser();
+
+		DeadlockGraphMaker g = DeadlockConfig.getGraphMakerFromProperty("language");
+		ParseTreeListener l = DeadlockConfig.getSourceParserFromProperty("language");
+
+		storage = DeadlockTracker.parseSourceProject(folder.getRoot().getPath(), g, l);
+		graph = g.generateSourceGraph(storage);
+		lockNames = DeadlockTracker.getGraphLockNames(g);
+	}
+
+	private DeadlockFunction getFunction(String name) {
+		for (DeadlockFunction f : graph.getFunctionIds().keySet()) {
+			if (f.getName().contentEquals(name) && f.getSourceClass().getName().contentEquals("Bank")) return f;
+		}
+
+		throw new IllegalArgumentException(name);
+	}
+
+	private int getLockId(String name) {
+		for (Entry<Integer, String> e : lockNames.entrySet()) {
+			if (e.getValue().contentEquals("app.Bank." + name)) return e.getKey();
+		}
+
+		throw new IllegalArgumentException(name);
+	}
+
+	// replaces the method graph of a function, entries given as "+lock", "-lock" or "call"
+	private Set<Integer> editFunction(String name, String... entries) {
+		DeadlockFunction f = getFunction(name);
+		DeadlockGraphMethod m = new DeadlockGraphMethod(f.getId(), graph.getFunctionGraph().get(f).getSourceName());
+
+		for (String e : entries) {
+			if (e.startsWith("+") || e.startsWith("-")) {
+				m.addGraphEntry(DeadlockGraphEntry.getLockEntry(getLockId(e.substring(1)), e.startsWith("+")));
+			} else {
+				m.addGraphEntry(DeadlockGraphEntry.getCallEntry(Collections.singletonList(getFunction(e).getId())));
+			}
+		}
+
+		graph.getFunctionGraph().put(f, m);
+		return Collections.singleton(f.getId());
+	}
+
+	private Set<String> describe(Set<DeadlockEntry> deadlocks, DeadlockGraphCruiser c) {
+		Set<String> s = new TreeSet<>();
+		for (DeadlockEntry e : deadlocks) {
+			String l1 = lockNames.get(e.getLockId1()), l2 = lockNames.get(e.getLockId2());
+			s.add((l1.compareTo(l2) < 0) ? l1 + " " + l2 : l2 + " " + l1);
+		}
+
+		for (Entry<Integer, Set<Integer>> e : c.getLockOrderEdges().entrySet()) {
+			for (Integer k : e.getValue()) {
+				s.add("edge " + lockNames.get(e.getKey()) + " " + lockNames.get(k));
+			}
+		}
+
+		return s;
+	}
+
+	private void assertUpdateMatchesRun(Runnable edit, Set<Integer> changedIds) {
+		DeadlockGraphCruiser c = new DeadlockGraphCruiser();
+		c.runSourceGraph(graph, storage, lockNames);
+
+		assertUpdateMatchesRun(c, edit, changedIds);
+	}
+
+	private void assertUpdateMatchesRun(DeadlockGraphCruiser c, Runnable edit, Set<Integer> changedIds) {
+		edit.run();
+		Set<String> updated = describe(c.updateSourceGraph(graph, storage, changedIds, lockNames), c);
+
+		DeadlockGraphCruiser.resetCruiser();
+		DeadlockGraphCruiser r = new DeadlockGraphCruiser();
+		Set<String> rerun = describe(r.runSourceGraph(graph, storage, lockNames), r);
+
+		assertFalse(rerun.isEmpty());
+		assertEquals(rerun, updated);
+	}
+
+	@Test
+	public void testReversedLockOrder() {
+		// b is now taken before a, against the order of transfer
+		assertUpdateMatchesRun(() -> editFunction("audit", "+b", "+a", "-b", "-a"), Collections.singleton(getFunction("audit").getId()));
+	}
+
+	@Test
+	public void testRemovedLocks() {
+		assertUpdateMatchesRun(() -> editFunction("transfer"), Collections.singleton(getFunction("transfer").getId()));
+	}
+
+	@Test
+	public void testAddedCall() {
+		// log is reached holding c, and now takes b
+		assertUpdateMatchesRun(() -> editFunction("log", "+b", "+a", "-b", "-a", "audit"), Collections.singleton(getFunction("log").getId()));
+	}
+
+	@Test
+	public void testLockHeldOnCall() {
+		// log, still lock-free, is now reached holding a
+		assertUpdateMatchesRun(() -> editFunction("report", "+a", "log", "-a"), Collections.singleton(getFunction("report").getId()));
+	}
+
+	@Test
+	public void testSuccessiveEdits() {
+		// counts left by an update are taken back by the next one
+		DeadlockGraphCruiser c = new DeadlockGraphCruiser();
+		c.runSourceGraph(graph, storage, lockNames);
+		c.updateSourceGraph(graph, storage, editFunction("audit", "+b", "+a", "-b", "-a"), lockNames);
+		c.updateSourceGraph(graph, storage, editFunction("log", "+c", "+b", "-c", "-b"), lockNames);
+
+		assertUpdateMatchesRun(c, () -> editFunction("audit", "+b", "+c", "-b", "-c"), Collections.singleton(getFunction("audit").getId()));
+	}
+
+	@Test
+	public void testSeveralFunctions() {
+		DeadlockFunction report = getFunction("report");
+		DeadlockFunction run = getFunction("run");
+
+		assertUpdateMatchesRun(() -> {
+			editFunction("report", "+c", "+a", "-c", "-a");
+			editFunction("run", "transfer");
+		}, new TreeSet<>(Arrays.asList(report.getId(), run.getId())));
+	}
+
+}
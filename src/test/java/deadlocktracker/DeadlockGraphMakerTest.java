@@ -0,0 +1,147 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.graph.DeadlockGraphEntry;
+import deadlocktracker.graph.DeadlockGraphNode;
+import deadlocktracker.source.JavaReader;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockGraphMakerTest {
+
+	private static final String BANK = "package app;\n\n"
+			+ "import java.util.concurrent.locks.ReentrantLock;\n\n"
+			+ "public class Bank implements Runnable {\n"
+			+ "\tprivate final ReentrantLock a = new ReentrantLock();\n"
+			+ "\tprivate final ReentrantLock b = new ReentrantLock();\n"
+			+ "\tprivate Ledger ledger = new Ledger();\n\n"
+			+ "\tpublic void run() {\n\t\ttransfer();\n\t\taudit();\n\t\tsettle();\n\t}\n\n"
+			+ "\tvoid transfer() {\n\t\ta.lock();\n\t\tthis.b.lock();\n\t\t(a).unlock();\n\t\tthis.b.unlock();\n\t}\n\n"
+			+ "\tvoid audit() {\n\t\tledger.l.lock();\n\t\tthis.ledger.l.unlock();\n\t}\n\n"
+			+ "\tvoid settle() {\n\t\tlookup().lock();\n\t\tlookup().unlock();\n\t}\n\n"
+			+ "\tReentrantLock lookup() {\n\t\treturn a;\n\t}\n"
+			+ "}\n";
+
+	private static final String LEDGER = "package app;\n\n"
+			+ "import java.util.concurrent.locks.ReentrantLock;\n\n"
+			+ "public class Ledger {\n"
+			+ "\tReentrantLock l = new ReentrantLock();\n"
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private DeadlockGraph graph;
+	private Map<Integer, String> lockNames;
+
+	private void loadProject(int workers) throws IOException, DeadlockAnalysisException {
+		File dir = new File(folder.getRoot(), "app");
+		if (!dir.isDirectory()) {
+			dir = folder.newFolder("app");
+			Files.write(new File(dir, "Bank.java").toPath(), BANK.getBytes(StandardCharsets.UTF_8));
+			Files.write(new File(dir, "Ledger.java").toPath(), LEDGER.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Properties prop = new Properties();
+		prop.setProperty("src_folder", folder.getRoot().getPath());
+		prop.setProperty("language", "Java");
+		prop.setProperty("extensions", "java");
+		prop.setProperty("entry_points", "run");
+		prop.setProperty("graph_workers", String.valueOf(workers));
+		DeadlockConfig.loadProperties(prop);
+
+		JavaReader.resetProjectData();
+		DeadlockGraphEntry.resetInterned();
+
+		DeadlockGraphMaker g = DeadlockConfig.getGraphMakerFromProperty("language");
+		ParseTreeListener l = DeadlockConfig.getSourceParserFromProperty("language");
+
+		DeadlockStorage storage = DeadlockTracker.parseSourceProject(folder.getRoot().getPath(), g, l);
+		graph = g.generateSourceGraph(storage);
+		lockNames = DeadlockTracker.getGraphLockNames(g);
+	}
+
+	// the method graph of a Bank function, as "+lock", "-lock" or "call" entries
+	private List<String> describe(String name) {
+		for (DeadlockFunction f : graph.getFunctionIds().keySet()) {
+			if (f.getName().contentEquals(name) && f.getSourceClass().getName().contentEquals("Bank")) {
+				List<String> s = new LinkedList<>();
+				for (DeadlockGraphEntry e : graph.getFunctionGraph().get(f).getEntryList()) {
+					for (DeadlockGraphNode n : e.getGraphEntryPoints()) {
+						switch (n.getType()) {
+						case LOCK:
+							s.add("+" + lockNames.get(n.getLockId()));
+							break;
+
+						case UNLOCK:
+							s.add("-" + lockNames.get(n.getLockId()));
+							break;
+
+						default:
+							s.add("call");
+						}
+					}
+				}
+
+				return s;
+			}
+		}
+
+		throw new IllegalArgumentException(name);
+	}
+
+	private void assertLockCalls() {
+		assertEquals(Arrays.asList("+app.Bank.a", "+app.Bank.b", "-app.Bank.a", "-app.Bank.b"), describe("transfer"));
+		assertEquals(Arrays.asList("+app.Ledger.l", "-app.Ledger.l"), describe("audit"));
+
+		// the receiver is the result of a call, no lock is named by it
+		assertEquals(Arrays.asList("call", "call", "+null", "call", "call", "-null"), describe("settle"));
+	}
+
+	@Test
+	public void testLockCallReceivers() throws IOException, DeadlockAnalysisException {
+		loadProject(1);
+		assertLockCalls();
+	}
+
+	@Test
+	public void testLockCallReceiversOnWorkers() throws IOException, DeadlockAnalysisException {
+		loadProject(4);
+		assertLockCalls();
+
+		loadProject(4);
+		assertLockCalls();
+	}
+
+}
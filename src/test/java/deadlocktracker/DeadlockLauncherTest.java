@@ -0,0 +1,33 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockLauncherTest {
+
+	@Test
+	public void testWarmUpWithoutConfig() {
+		// the CDS training run parses its samples before any config gets loaded
+		DeadlockConfig.loadProperties(null);
+		assertNull(DeadlockConfig.getProperty("language"));
+
+		DeadlockLauncher.main(new String[] {"--warm-up"});
+	}
+
+}
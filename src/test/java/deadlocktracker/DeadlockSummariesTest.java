@@ -0,0 +1,148 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import deadlocktracker.containers.DeadlockFunction;
+import deadlocktracker.containers.DeadlockStorage;
+import deadlocktracker.graph.DeadlockGraphEntry;
+import deadlocktracker.graph.DeadlockGraphNode;
+import deadlocktracker.source.JavaReader;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockSummariesTest {
+
+	// a and b call back into each other, a gets summarized first
+	private static final String A = "package lib;\n\n"
+			+ "import java.util.concurrent.locks.ReentrantLock;\n\n"
+			+ "public class A {\n"
+			+ "\tprivate final ReentrantLock l1 = new ReentrantLock();\n"
+			+ "\tprivate B b;\n\n"
+			+ "\tpublic void a() {\n\t\tl1.lock();\n\t\tb.b();\n\t\tl1.unlock();\n\t}\n"
+			+ "}\n";
+
+	private static final String B = "package lib;\n\n"
+			+ "import java.util.concurrent.locks.ReentrantLock;\n\n"
+			+ "public class B {\n"
+			+ "\tprivate final ReentrantLock l2 = new ReentrantLock();\n"
+			+ "\tprivate A a;\n\n"
+			+ "\tpublic void b() {\n\t\tl2.lock();\n\t\ta.a();\n\t\tl2.unlock();\n\t}\n"
+			+ "}\n";
+
+	private static final String WORKER = "package app;\n\n"
+			+ "import lib.B;\n\n"
+			+ "public class Worker implements Runnable {\n"
+			+ "\tprivate B b;\n\n"
+			+ "\tpublic void run() {\n\t\tb.b();\n\t}\n"
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private DeadlockGraphMaker g;
+	private DeadlockGraph graph;
+	private Map<Integer, String> lockNames;
+
+	private void loadModule(File root, Properties prop) throws IOException, DeadlockAnalysisException {
+		prop.setProperty("src_folder", root.getPath());
+		prop.setProperty("language", "Java");
+		prop.setProperty("extensions", "java");
+		prop.setProperty("entry_points", "run");
+		prop.setProperty("graph_workers", "1");
+		DeadlockConfig.loadProperties(prop);
+
+		JavaReader.resetProjectData();
+		DeadlockGraphEntry.resetInterned();
+
+		g = DeadlockConfig.getGraphMakerFromProperty("language");
+		ParseTreeListener l = DeadlockConfig.getSourceParserFromProperty("language");
+
+		DeadlockStorage storage = DeadlockTracker.parseSourceProject(root.getPath(), g, l);
+		graph = g.generateSourceGraph(storage);
+		lockNames = DeadlockTracker.getGraphLockNames(g);
+	}
+
+	private File writeModule(String name, String... sources) throws IOException {
+		File root = folder.newFolder(name);
+		File dir = new File(root, name);
+		dir.mkdir();
+
+		for (int i = 0; i < sources.length; i += 2) {
+			Files.write(new File(dir, sources[i]).toPath(), sources[i + 1].getBytes(StandardCharsets.UTF_8));
+		}
+
+		return root;
+	}
+
+	// the lock events of a method graph, as "+lock" or "-lock" entries
+	private List<String> describe(String className, String name) {
+		for (DeadlockFunction f : graph.getFunctionIds().keySet()) {
+			if (f.getName().contentEquals(name) && f.getSourceClass().getName().contentEquals(className)) {
+				List<String> s = new LinkedList<>();
+				for (DeadlockGraphEntry e : graph.getFunctionGraph().get(f).getEntryList()) {
+					for (DeadlockGraphNode n : e.getGraphEntryPoints()) {
+						switch (n.getType()) {
+						case LOCK:
+							s.add("+" + lockNames.get(n.getLockId()));
+							break;
+
+						case UNLOCK:
+							s.add("-" + lockNames.get(n.getLockId()));
+							break;
+
+						default:
+						}
+					}
+				}
+
+				return s;
+			}
+		}
+
+		throw new IllegalArgumentException(name);
+	}
+
+	@Test
+	public void testRecursiveSummaries() throws IOException, DeadlockAnalysisException {
+		File summary = new File(folder.getRoot(), "lib.summary");
+		loadModule(writeModule("lib", "A.java", A, "B.java", B), new Properties());
+		DeadlockSummaries.writeLockSummaries(summary.getPath(), g, graph, lockNames);
+
+		Properties prop = new Properties();
+		prop.setProperty("lock_summaries", summary.getPath());
+		loadModule(writeModule("app", "Worker.java", WORKER), prop);
+
+		// b calls back into a, which calls b again: only that innermost call is left out
+		assertEquals(Arrays.asList("+lib.A.l1", "+lib.B.l2", "-lib.B.l2", "-lib.A.l1"), describe("A", "a"));
+		assertEquals(Arrays.asList("+lib.B.l2", "+lib.A.l1", "+lib.B.l2", "-lib.B.l2", "-lib.A.l1", "-lib.B.l2"), describe("B", "b"));
+	}
+
+}
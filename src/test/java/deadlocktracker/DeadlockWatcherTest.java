@@ -0,0 +1,174 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockWatcherTest {
+
+	private static final String BANK = "package app;\n\n"
+			+ "import java.util.concurrent.locks.ReentrantLock;\n\n"
+			+ "public class Bank implements Runnable {\n"
+			+ "\tprivate final ReentrantLock a = new ReentrantLock();\n"
+			+ "\tprivate final ReentrantLock b = new ReentrantLock();\n"
+			+ "\tprivate Ledger ledger = new Ledger();\n\n"
+			+ "\tpublic void run() {\n\t\ttransfer();\n\t}\n\n"
+			+ "\tvoid transfer() {\n\t\ta.lock();\n\t\tb.lock();\n\t\ta.unlock();\n\t\tb.unlock();\n\t}\n\n"
+			+ "\tpublic synchronized void audit() {\n\t\tledger.check();\n\t}\n"
+			+ "}\n";
+
+	private static final String LEDGER = "package app;\n\n"
+			+ "public class Ledger {\n"
+			+ "\tpublic void check() {\n\t}\n"
+			+ "}\n";
+
+	private static final String CLERK = "package app;\n\n"
+			+ "public class Clerk implements Runnable {\n"
+			+ "\tprivate Bank bank;\n\n"
+			+ "\tpublic void run() {\n\t\tbank.audit();\n\t}\n"
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File bank;
+	private String source = BANK;
+	private File report;
+
+	private File writeSource(String name, String content) throws IOException {
+		File f = new File(folder.getRoot(), "app" + File.separator + name);
+		Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return f;
+	}
+
+	@Before
+	public void writeProject() throws IOException, DeadlockAnalysisException {
+		folder.newFolder("app");
+		bank = writeSource("Bank.java", BANK);
+		writeSource("Ledger.java", LEDGER);
+		writeSource("Clerk.java", CLERK);
+		report = folder.newFile("deadlocks.jsonl");
+
+		Properties prop = new Properties();
+		prop.setProperty("src_folder", folder.getRoot().getPath());
+		prop.setProperty("language", "Java");
+		prop.setProperty("extensions", "java");
+		prop.setProperty("entry_points", "run");
+		prop.setProperty("graph_workers", "1");
+		prop.setProperty("report_format", "jsonl");
+		prop.setProperty("report_file", report.getPath());
+		DeadlockConfig.loadProperties(prop);
+
+		DeadlockWatcher.analyzeWatchedProject(folder.getRoot().getPath(), Collections.<String>emptySet());
+	}
+
+	private String readReport() throws IOException {
+		return new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private Set<String> readLockOrders() {
+		Set<String> s = new TreeSet<>();
+		for (Entry<Integer, Set<Integer>> e : DeadlockWatcher.Cruiser.getLockOrderEdges().entrySet()) {
+			for (Integer k : e.getValue()) {
+				s.add(DeadlockWatcher.LockNames.get(e.getKey()) + " " + DeadlockWatcher.LockNames.get(k));
+			}
+		}
+
+		return s;
+	}
+
+	private boolean editBank(String target, String replacement) throws IOException {
+		// the edit is kept only once the watcher took it in, as the watch loop would read the project again otherwise
+		String edited = source.replace(target, replacement);
+		writeSource("Bank.java", edited);
+
+		boolean updated = DeadlockWatcher.updateWatchedProject(Collections.singleton(bank.getAbsolutePath()));
+		if (updated) source = edited;
+		return updated;
+	}
+
+	private void assertUpdateMatchesAnalysis() throws IOException, DeadlockAnalysisException {
+		String updated = readReport();
+		Set<String> orders = readLockOrders();
+
+		DeadlockWatcher.analyzeWatchedProject(folder.getRoot().getPath(), Collections.<String>emptySet());
+		assertEquals(readReport(), updated);
+		assertEquals(readLockOrders(), orders);
+	}
+
+	@Test
+	public void testEditedBody() throws IOException, DeadlockAnalysisException {
+		assertTrue(readReport().isEmpty());
+
+		// audit, reached from another thread, now takes b then a
+		assertTrue(editBank("\t\tledger.check();\n", "\t\tb.lock();\n\t\ta.lock();\n\t\tb.unlock();\n\t\ta.unlock();\n"));
+		assertTrue(readReport().contains("app.Bank.a"));
+		assertUpdateMatchesAnalysis();
+	}
+
+	@Test
+	public void testSynchronizedBody() throws IOException, DeadlockAnalysisException {
+		assertTrue(editBank("\t\tledger.check();\n", "\t\tLedger a = ledger;\n\t\ta.check();\n"));
+
+		// audit returns holding a, taken within its monitor, now the field again
+		assertTrue(editBank("\t\tLedger a = ledger;\n\t\ta.check();\n", "\t\ta.lock();\n"));
+		assertTrue(readLockOrders().contains("app.Bank.synchLock_ app.Bank.a"));
+		assertUpdateMatchesAnalysis();
+	}
+
+	@Test
+	public void testSuccessiveEdits() throws IOException, DeadlockAnalysisException {
+		assertTrue(editBank("\t\tledger.check();\n", "\t\tb.lock();\n\t\ta.lock();\n\t\tb.unlock();\n\t\ta.unlock();\n"));
+		assertTrue(editBank("\t\ta.lock();\n\t\tb.lock();\n\t\ta.unlock();\n\t\tb.unlock();\n", "\t\tLedger l = ledger;\n"));     // transfer, down to a local variable
+		assertFalse(readReport().contains("app.Bank.b"));
+		assertUpdateMatchesAnalysis();
+	}
+
+	@Test
+	public void testLayoutEdit() throws IOException, DeadlockAnalysisException {
+		assertTrue(editBank("\t\tledger.check();\n", "\t\t// checked on every audit\n\t\tledger.check();\n\n"));
+		assertUpdateMatchesAnalysis();
+	}
+
+	@Test
+	public void testDeclarationEdits() throws IOException {
+		// edited declarations, bodies declaring locks and new files need the project read again
+		assertFalse(editBank("\tvoid transfer() {", "\tvoid transfer(int n) {"));
+		assertFalse(editBank("\t\tledger.check();\n", "\t\tsynchronized (ledger) {\n\t\t\tledger.check();\n\t\t}\n"));
+		assertFalse(editBank("\t\tledger.check();\n", "\t\tReentrantLock c = new ReentrantLock();\n"));
+
+		File teller = writeSource("Teller.java", "package app;\n\npublic class Teller {\n}\n");
+		assertFalse(DeadlockWatcher.updateWatchedProject(Collections.singleton(teller.getAbsolutePath())));
+	}
+
+}
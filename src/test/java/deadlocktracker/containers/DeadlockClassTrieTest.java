@@ -0,0 +1,83 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.containers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockClassTrieTest {
+
+	private static DeadlockClass newClass(String packageName, String className) {
+		return new DeadlockClass(DeadlockClassType.CLASS, className, packageName + ".", className, new LinkedList<String>(), false, null);
+	}
+
+	@Test
+	public void testGrowth() {
+		// several hundred nodes and segments, past the initial array sizes
+		DeadlockClassTrie trie = new DeadlockClassTrie();
+		DeadlockClass[] classes = new DeadlockClass[200];
+
+		for (int i = 0; i < classes.length; i++) {
+			String pack = "org.p" + i;
+			classes[i] = newClass(pack, "C" + i);
+
+			trie.insertPublicPackage(pack);
+			trie.insertPublicClass(pack + ".C" + i, classes[i]);
+		}
+
+		assertEquals(2 + 2 * classes.length, trie.getNodeCount());
+		for (int i = 0; i < classes.length; i++) {
+			assertSame(classes[i], trie.getClass("org.p" + i + ".C" + i));
+			assertTrue(trie.isPublicPackage(trie.getNode("org.p" + i)));
+			assertEquals(("org.p" + i + ".").length(), trie.getPublicPackageEnd("org.p" + i + ".C" + i));
+		}
+
+		assertFalse(trie.isPublicPackage(trie.getNode("org")));
+		assertNull(trie.getClass("org.p0.C1"));
+		assertEquals(DeadlockClassTrie.NONE, trie.getNode("org.p200"));
+	}
+
+	@Test
+	public void testPrivateScopes() {
+		DeadlockClassTrie trie = new DeadlockClassTrie();
+		DeadlockClass outer = newClass("app", "Outer"), inner = newClass("app", "Inner");
+
+		trie.insertPublicPackage("app");
+		trie.insertPublicClass("app.Outer", outer);
+
+		int scope = trie.insertPrivateScope("app.Outer");
+		trie.insertPrivateClass("app.Outer.Inner", scope, inner);
+
+		assertSame(inner, trie.getClass("app.Outer.Inner"));
+		assertTrue(trie.isPrivateClassOf(trie.getNode("app.Outer.Inner"), scope));
+		assertFalse(trie.isPrivateClassOf(trie.getNode("app.Outer"), scope));
+
+		int[] scopeOut = new int[1];
+		assertEquals("app.Outer".length(), trie.getLongestPrivateScopeEnd("app.Outer.Inner", scopeOut));
+		assertEquals(scope, scopeOut[0]);
+		assertEquals("app.Outer".length(), trie.getShortestPrivateScopeEnd("app.Outer.Inner.x"));
+		assertEquals(-1, trie.getShortestPrivateScopeEnd("app.Other.x"));
+	}
+}
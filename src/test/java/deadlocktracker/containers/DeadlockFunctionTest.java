@@ -0,0 +1,79 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.containers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+import deadlocktracker.containers.DeadlockClass.DeadlockClassType;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockFunctionTest {
+
+	private static final DeadlockClass source = new DeadlockClass(DeadlockClassType.CLASS, "A", "app.", "A", new LinkedList<String>(), false, null);
+
+	private static int getLocalType(DeadlockFunction f, String name) {
+		return f.getLocalSymbols().get(DeadlockStorage.hash64(name));
+	}
+
+	@Test
+	public void testLocalVariableTypes() {
+		DeadlockFunction f = new DeadlockFunction("m", source, null, false);
+		f.addLocalVariable(10, "a");
+		f.addLocalVariable(11, "b");
+		f.addLocalVariable(11, "b");
+		f.addLocalVariable(12, "c");
+		f.addLocalVariable(13, "c");
+		f.updateLocalVariables(type -> type + 100);     // resolves the declared types
+
+		assertEquals(110, getLocalType(f, "a"));
+		assertEquals(111, getLocalType(f, "b"));
+		assertEquals(-2, getLocalType(f, "c"));
+		assertEquals(DeadlockSymbolTable.NONE, getLocalType(f, "d"));
+
+		// a later reading, as of a deferred body, binds on top of the earlier one
+		f.addLocalVariable(14, "a");
+		f.addLocalVariable(15, "d");
+		f.updateLocalVariables(type -> type + 100);
+
+		assertEquals(-2, getLocalType(f, "a"));
+		assertEquals(115, getLocalType(f, "d"));
+	}
+
+	@Test
+	public void testEnclosingScopes() {
+		DeadlockFunction outer = new DeadlockFunction("m", source, null, false);
+		DeadlockFunction inner = new DeadlockFunction("run", source, outer, false);
+
+		outer.addLocalVariable(1, "a");
+		outer.addLocalVariable(2, "b");
+		outer.updateLocalVariables(type -> type);
+		inner.addLocalVariable(3, "b");
+		inner.updateLocalVariables(type -> type);
+
+		assertEquals(1, getLocalType(inner, "a"));
+		assertEquals(3, getLocalType(inner, "b"));     // shadows the enclosing declaration
+
+		// changes on the enclosing scope reach a scope flattened before them
+		outer.addLocalVariable(4, "c");
+		outer.updateLocalVariables(type -> type);
+
+		assertEquals(4, getLocalType(inner, "c"));
+		assertEquals(3, getLocalType(inner, "b"));
+	}
+}
@@ -0,0 +1,274 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class DeadlockReportWriterTest {
+
+	// names carrying every character the writers escape
+	private static final String LOCK1 = "app.Bank.\"a\"";
+	private static final String LOCK2 = "app.Bank.b\\c\td";
+	private static final String RUN = "app.Bank.run(java.lang.String)\r\n";
+	private static final String TRANSFER = "app.Bank.transfer\u0001é";
+
+	private static final List<DeadlockWitness> WITNESSES = Arrays.asList(
+			new DeadlockWitness(LOCK1, TRANSFER, Arrays.asList(RUN, TRANSFER)),
+			new DeadlockWitness(LOCK2, RUN, Arrays.asList(RUN)));
+
+	// a strict reader of the JSON values written by the report writers
+	private static class JsonReader {
+
+		private final String s;
+		private int pos = 0;
+
+		JsonReader(String s) {
+			this.s = s;
+		}
+
+		static Object parse(String s) {
+			JsonReader r = new JsonReader(s);
+			Object value = r.readValue();
+			r.skipSpaces();
+			if (r.pos != s.length()) throw r.error();
+
+			return value;
+		}
+
+		private IllegalArgumentException error() {
+			return new IllegalArgumentException("Invalid JSON at " + pos + ": " + s);
+		}
+
+		private void skipSpaces() {
+			while (pos < s.length() && " \t\r\n".indexOf(s.charAt(pos)) > -1) pos++;
+		}
+
+		private void expect(char ch) {
+			skipSpaces();
+			if (pos >= s.length() || s.charAt(pos) != ch) throw error();
+			pos++;
+		}
+
+		private boolean accept(char ch) {
+			skipSpaces();
+			if (pos < s.length() && s.charAt(pos) == ch) {
+				pos++;
+				return true;
+			}
+
+			return false;
+		}
+
+		private Object readValue() {
+			skipSpaces();
+			if (pos >= s.length()) throw error();
+
+			char ch = s.charAt(pos);
+			if (ch == '{') {
+				pos++;
+				Map<String, Object> m = new LinkedHashMap<>();
+				if (accept('}')) return m;
+
+				do {
+					skipSpaces();
+					String key = readString();
+					expect(':');
+					m.put(key, readValue());
+				} while (accept(','));
+				expect('}');
+
+				return m;
+			} else if (ch == '[') {
+				pos++;
+				List<Object> list = new ArrayList<>();
+				if (accept(']')) return list;
+
+				do {
+					list.add(readValue());
+				} while (accept(','));
+				expect(']');
+
+				return list;
+			} else if (ch == '"') {
+				return readString();
+			} else if (s.startsWith("null", pos)) {
+				pos += 4;
+				return null;
+			}
+
+			throw error();
+		}
+
+		private String readString() {
+			if (pos >= s.length() || s.charAt(pos) != '"') throw error();
+			pos++;
+
+			StringBuilder sb = new StringBuilder();
+			while (pos < s.length()) {
+				char ch = s.charAt(pos++);
+				if (ch == '"') return sb.toString();
+				if (ch < 0x20) throw error();     // control characters are escaped on JSON strings
+
+				if (ch == '\\') {
+					if (pos >= s.length()) throw error();
+
+					char e = s.charAt(pos++);
+					switch (e) {
+					case '"':
+					case '\\':
+					case '/':
+						sb.append(e);
+						break;
+
+					case 'n':
+						sb.append('\n');
+						break;
+
+					case 'r':
+						sb.append('\r');
+						break;
+
+					case 't':
+						sb.append('\t');
+						break;
+
+					case 'u':
+						if (pos + 4 > s.length()) throw error();
+						sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+						pos += 4;
+						break;
+
+					default:
+						throw error();
+					}
+				} else {
+					sb.append(ch);
+				}
+			}
+
+			throw error();
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getObject(Object o, String key) {
+		return (Map<String, Object>) ((Map<String, Object>) o).get(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> getList(Object o, String key) {
+		return (List<Object>) ((Map<String, Object>) o).get(key);
+	}
+
+	private static Object get(Object o, String key) {
+		return ((Map<?, ?>) o).get(key);
+	}
+
+	private static String getFunctionName(Object location) {
+		return (String) get(getList(location, "logicalLocations").get(0), "fullyQualifiedName");
+	}
+
+	private static String write(DeadlockReportWriter w, StringWriter s, int deadlocks) throws IOException {
+		for (int i = 0; i < deadlocks; i++) {
+			w.writeDeadlock(LOCK1, LOCK2, WITNESSES);
+		}
+		w.close();
+
+		return s.toString();
+	}
+
+	@Test
+	public void testJsonLines() throws IOException {
+		StringWriter s = new StringWriter();
+		String[] lines = write(new DeadlockJsonLinesWriter(s), s, 2).split("\n");
+		assertEquals(2, lines.length);
+
+		for (String line : lines) {
+			Object o = JsonReader.parse(line);
+			assertEquals("deadlock", get(o, "type"));
+			assertEquals(Arrays.asList(LOCK1, LOCK2), getList(o, "locks"));
+
+			List<Object> witnesses = getList(o, "witnesses");
+			assertEquals(WITNESSES.size(), witnesses.size());
+			for (int i = 0; i < witnesses.size(); i++) {
+				DeadlockWitness w = WITNESSES.get(i);
+				assertEquals(w.getLockName(), get(witnesses.get(i), "lock"));
+				assertEquals(w.getFunctionName(), get(witnesses.get(i), "function"));
+				assertEquals(w.getCallPath(), getList(witnesses.get(i), "callPath"));
+			}
+		}
+	}
+
+	@Test
+	public void testSarif() throws IOException {
+		StringWriter s = new StringWriter();
+		Object log = JsonReader.parse(write(new DeadlockSarifWriter(s), s, 2));
+		assertEquals("2.1.0", get(log, "version"));
+
+		List<Object> runs = getList(log, "runs");
+		assertEquals(1, runs.size());
+
+		Object driver = getObject(get(runs.get(0), "tool"), "driver");
+		assertEquals("DeadlockTracker", get(driver, "name"));
+		String ruleId = (String) get(getList(driver, "rules").get(0), "id");
+
+		List<Object> results = getList(runs.get(0), "results");
+		assertEquals(2, results.size());
+		for (Object r : results) {
+			assertEquals(ruleId, get(r, "ruleId"));
+
+			String message = (String) get(getObject(r, "message"), "text");
+			assertTrue(message.contains(LOCK1) && message.contains(LOCK2));
+
+			List<Object> locations = getList(r, "locations");
+			List<Object> threadFlows = getList(getList(r, "codeFlows").get(0), "threadFlows");
+			assertEquals(WITNESSES.size(), locations.size());
+			assertEquals(WITNESSES.size(), threadFlows.size());
+
+			for (int i = 0; i < WITNESSES.size(); i++) {
+				DeadlockWitness w = WITNESSES.get(i);
+				assertEquals(w.getFunctionName(), getFunctionName(locations.get(i)));
+				assertTrue(((String) get(getObject(threadFlows.get(i), "message"), "text")).endsWith(w.getLockName()));
+
+				List<String> path = new ArrayList<>();
+				for (Object l : getList(threadFlows.get(i), "locations")) {
+					path.add(getFunctionName(get(l, "location")));
+				}
+				assertEquals(w.getCallPath(), path);
+			}
+		}
+	}
+
+	@Test
+	public void testEmptySarif() throws IOException {
+		StringWriter s = new StringWriter();
+		Object log = JsonReader.parse(write(new DeadlockSarifWriter(s), s, 0));
+		assertTrue(getList(getList(log, "runs").get(0), "results").isEmpty());
+	}
+
+}
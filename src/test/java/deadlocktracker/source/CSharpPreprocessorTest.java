@@ -0,0 +1,116 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.source;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.junit.Test;
+
+import language.csharp.CSharpLexer;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class CSharpPreprocessorTest {
+
+	private static List<String> compile(String source, String... symbols) {
+		Set<String> s = new HashSet<>(Arrays.asList(symbols));
+		List<? extends Token> tokens = new CSharpLexer(CharStreams.fromString(source)).getAllTokens();
+
+		List<String> names = new LinkedList<>();
+		for (Token token : CSharpPreprocessor.filterInactiveTokens(tokens, s, "Test.cs")) {
+			if (token.getType() == CSharpLexer.IDENTIFIER && token.getChannel() == Token.DEFAULT_CHANNEL) {
+				names.add(token.getText());
+			}
+		}
+
+		return names;
+	}
+
+	@Test
+	public void testNestedRegions() {
+		String source = "#if A\n"
+				+ "a\n"
+				+ "#if B\n"
+				+ "ab\n"
+				+ "#else\n"
+				+ "anb\n"
+				+ "#endif\n"
+				+ "#else\n"
+				+ "na\n"
+				+ "#if B\n"
+				+ "nab\n"
+				+ "#else\n"
+				+ "nanb\n"
+				+ "#endif\n"
+				+ "#endif\n"
+				+ "z\n";
+
+		assertEquals(Arrays.asList("a", "ab", "z"), compile(source, "A", "B"));
+		assertEquals(Arrays.asList("a", "anb", "z"), compile(source, "A"));
+		assertEquals(Arrays.asList("na", "nab", "z"), compile(source, "B"));
+		assertEquals(Arrays.asList("na", "nanb", "z"), compile(source));
+	}
+
+	@Test
+	public void testElifChain() {
+		String source = "#if A\n"
+				+ "a\n"
+				+ "#elif B && !A\n"
+				+ "b\n"
+				+ "#elif C || B\n"
+				+ "c\n"
+				+ "#else\n"
+				+ "d\n"
+				+ "#endif\n";
+
+		assertEquals(Arrays.asList("a"), compile(source, "A", "B", "C"));
+		assertEquals(Arrays.asList("b"), compile(source, "B"));
+		assertEquals(Arrays.asList("c"), compile(source, "C"));
+		assertEquals(Arrays.asList("d"), compile(source));
+	}
+
+	@Test
+	public void testDefineUndef() {
+		String source = "#define A\n"
+				+ "#undef B\n"
+				+ "#if B\n"
+				+ "#define C\n"
+				+ "#endif\n"
+				+ "#if A && !B\n"
+				+ "ab\n"
+				+ "#endif\n"
+				+ "#if C\n"
+				+ "c\n"
+				+ "#endif\n";
+
+		assertEquals(Arrays.asList("ab"), compile(source, "B"));
+		assertEquals(Arrays.asList("ab"), compile(source));
+	}
+
+	@Test
+	public void testUnbalancedRegions() {
+		// every region is kept when the directives do not pair up
+		assertEquals(Arrays.asList("a", "b"), compile("#if A\na\n#else\nb\n"));
+		assertEquals(Arrays.asList("a", "b"), compile("a\n#endif\nb\n"));
+		assertEquals(Arrays.asList("a"), compile("#if A\na\n#endif\n", "A"));
+	}
+}
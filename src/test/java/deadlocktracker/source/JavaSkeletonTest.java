@@ -0,0 +1,136 @@
+/*
+    This file is part of the DeadlockTracker detection tool
+    Copyleft (L) 2025 RonanLana
+
+    GNU General Public License v3.0
+
+    Permissions of this strong copyleft license are conditioned on making available complete
+    source code of licensed works and modifications, which include larger works using a licensed
+    work, under the same license. Copyright and license notices must be preserved. Contributors
+    provide an express grant of patent rights.
+ */
+package deadlocktracker.source;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.junit.Test;
+
+import language.java.JavaLexer;
+
+/**
+ *
+ * @author RonanLana
+ */
+public class JavaSkeletonTest {
+
+	private static List<Token> lex(String source) {
+		return new ArrayList<Token>(new JavaLexer(CharStreams.fromString(source)).getAllTokens());
+	}
+
+	private static String getText(List<Token> tokens) {
+		StringBuilder s = new StringBuilder();
+		for (Token t : tokens) {
+			if (t.getChannel() == Token.DEFAULT_CHANNEL) s.append(t.getText()).append(' ');
+		}
+
+		return s.toString().trim();
+	}
+
+	private static List<String> getBodies(Map<Integer, List<Token>> bodies) {
+		List<Integer> starts = new ArrayList<>(bodies.keySet());
+		Collections.sort(starts);
+
+		List<String> list = new ArrayList<>();
+		for (Integer start : starts) {
+			list.add(getText(bodies.get(start)));
+		}
+
+		return list;
+	}
+
+	@Test
+	public void testMethodBodies() {
+		List<Token> skeleton = new ArrayList<>();
+		Map<Integer, List<Token>> bodies = JavaSkeleton.extractMethodBodies(lex("class A {\n"
+				+ "    int n;\n"
+				+ "    A(int n) throws Exception { this.n = n; }\n"
+				+ "    @SuppressWarnings(value = \"unused\") void m(String s) { run(s); }\n"
+				+ "    int[] get() { return new int[] { n }; }\n"
+				+ "}\n"), skeleton);
+
+		assertEquals(Arrays.asList("{ this . n = n ; }", "{ run ( s ) ; }", "{ return new int [ ] { n } ; }"), getBodies(bodies));
+		assertEquals("class A { int n ; A ( int n ) throws Exception { } @ SuppressWarnings ( value = \"unused\" ) void m ( String s ) { } int [ ] get ( ) { } }", getText(skeleton));
+	}
+
+	@Test
+	public void testFieldInitializers() {
+		// the parentheses of an initializer close no parameter list, an anonymous class body there is kept whole
+		List<Token> skeleton = new ArrayList<>();
+		Map<Integer, List<Token>> bodies = JavaSkeleton.extractMethodBodies(lex("class Tasks {\n"
+				+ "    private final Guard g = new Guard();\n"
+				+ "    private final Runnable r = new Runnable() {\n"
+				+ "        public void run() { g.forward(); g.backward(); }\n"
+				+ "    };\n"
+				+ "    private final Runnable l = () -> { g.forward(); };\n"
+				+ "    private final Object o = wrap(new Runnable() { public void run() { g.backward(); } });\n"
+				+ "    Runnable task() { return r; }\n"
+				+ "}\n"), skeleton);
+
+		assertEquals(Arrays.asList("{ return r ; }"), getBodies(bodies));
+
+		String text = getText(skeleton);
+		assertTrue(text.contains("public void run ( ) { g . forward ( ) ; g . backward ( ) ; }"));
+		assertTrue(text.contains("( ) -> { g . forward ( ) ; }"));
+		assertTrue(text.contains("public void run ( ) { g . backward ( ) ; }"));
+		assertTrue(text.endsWith("Runnable task ( ) { } }"));
+	}
+
+	@Test
+	public void testAnonymousAndLocalClasses() {
+		// types declared in a body are registered when it is read, so that body stays on the skeleton
+		List<Token> skeleton = new ArrayList<>();
+		Map<Integer, List<Token>> bodies = JavaSkeleton.extractMethodBodies(lex("class A {\n"
+				+ "    Runnable make() { return new Runnable() { public void run() { } }; }\n"
+				+ "    void local() { class B { } new B(); }\n"
+				+ "    Class<?> type() { return A.class; }\n"
+				+ "    Object create() { return new Object(); }\n"
+				+ "}\n"), skeleton);
+
+		assertEquals(Arrays.asList("{ return A . class ; }", "{ return new Object ( ) ; }"), getBodies(bodies));
+		assertTrue(getText(skeleton).contains("{ return new Runnable ( ) { public void run ( ) { } } ; }"));
+		assertTrue(getText(skeleton).contains("{ class B { } new B ( ) ; }"));
+	}
+
+	@Test
+	public void testEnumAndNestedClasses() {
+		List<Token> skeleton = new ArrayList<>();
+		Map<Integer, List<Token>> bodies = JavaSkeleton.extractMethodBodies(lex("enum E {\n"
+				+ "    X(1), Y(2);\n"
+				+ "    final int v;\n"
+				+ "    E(int v) { this.v = v; }\n"
+				+ "    static class N { void n() { step(); } }\n"
+				+ "    interface I { default void i() { step(); } }\n"
+				+ "}\n"), skeleton);
+
+		assertEquals(Arrays.asList("{ this . v = v ; }", "{ step ( ) ; }"), getBodies(bodies));
+		assertTrue(getText(skeleton).contains("default void i ( ) { step ( ) ; }"));
+	}
+
+	@Test
+	public void testLockFree() {
+		assertTrue(JavaSkeleton.isLockFree(lex("class A { void m() { run(); } }")));
+		assertFalse(JavaSkeleton.isLockFree(lex("class A { synchronized void m() { } }")));
+		assertFalse(JavaSkeleton.isLockFree(lex("class A { ReentrantLock l; }")));
+		assertFalse(JavaSkeleton.isLockFree(lex("class A { void m() { lock(); } }")));
+	}
+}